@@ -0,0 +1,57 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.schedule.AmortizationCalculator;
+import com.bank.pe.mscredit.schedule.AmortizationSchedule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación del cronograma de 12 a 360 cuotas: el cálculo sobre arreglos y la serialización a JSON que hace
+ * /credits/{id}/schedule cuando no está en caché.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmortizationScheduleBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 15);
+
+    @Param({"12", "60", "120", "360"})
+    public int installments;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AmortizationSchedule schedule;
+
+    @Setup
+    public void setUp() {
+        schedule = compute();
+    }
+
+    @Benchmark
+    public AmortizationSchedule compute() {
+        return AmortizationCalculator.compute("65f1a2b3c4d5e6f7a8b9c0d1", 1L, Money.of(250_000.0), 9.5,
+                installments, START);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(schedule);
+    }
+}
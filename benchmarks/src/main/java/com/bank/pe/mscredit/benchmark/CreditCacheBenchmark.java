@@ -0,0 +1,178 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.cache.InMemorySharedCache;
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.SharedCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.entity.Credit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * getCredit sobre dos instancias del servicio detrás de un balanceador, con ids en distribución Zipf (pocos
+ * créditos muy consultados) y una fracción de escrituras que invalidan. El loader simula MongoDB y cuenta las
+ * consultas: el contador auxiliar mongoQueries sale como tasa junto al throughput, y su cociente es la fracción
+ * de lecturas que llega a la base.
+ * <p>
+ * cache=none lee siempre de la base; lru es ReactiveCache (LRU) en cada instancia; local es TieredCache sin L2;
+ * tiered agrega el L2 compartido (en memoria), de modo que lo que cargó una instancia lo sirve la otra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CreditCacheBenchmark {
+
+    private static final int CREDITS = 100_000;
+    private static final int SAMPLES = 1 << 20;
+
+    @Param({"none", "lru", "local", "tiered"})
+    public String cache;
+
+    @Param({"0", "0.01"})
+    public double writeRatio;
+
+    // El 10 % de los créditos cabe en L1: la política de desalojo decide qué queda
+    @Param({"10000"})
+    public int maximumSize;
+
+    private String[] ids;
+    private int[] samples;
+    private AtomicReferenceArray<Credit> credits;
+    private Instance[] instances;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new String[CREDITS];
+        credits = new AtomicReferenceArray<>(CREDITS);
+        for (int i = 0; i < CREDITS; i++) {
+            ids[i] = Integer.toString(i);
+            credits.set(i, credit(i, 1L));
+        }
+        samples = zipf(CREDITS, 1.0, SAMPLES, new Random(42));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SharedCache<Credit> shared = "tiered".equals(cache) ? new InMemorySharedCache<>(Duration.ofMinutes(10)) : null;
+        instances = new Instance[]{
+                new Instance("a", cache, maximumSize, shared, meterRegistry),
+                new Instance("b", cache, maximumSize, shared, meterRegistry)
+        };
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long mongoQueries;
+        public long writes;
+        private int cursor = ThreadLocalRandom.current().nextInt(SAMPLES);
+    }
+
+    @Benchmark
+    public Object getCredit(Counters counters) {
+        int index = samples[counters.cursor++ & (SAMPLES - 1)];
+        Instance instance = instances[counters.cursor & 1];
+        if (writeRatio > 0 && ThreadLocalRandom.current().nextDouble() < writeRatio) {
+            counters.writes++;
+            return instance.write(ids[index], index);
+        }
+        return instance.read(ids[index], key -> {
+            counters.mongoQueries++;
+            return Mono.fromSupplier(() -> credits.get(index));
+        });
+    }
+
+    private final class Instance {
+        private final ReactiveCache<String, Credit> lru;
+        private final TieredCache<Credit> tiered;
+
+        private Instance(String name, String mode, int maximumSize, SharedCache<Credit> shared,
+                         SimpleMeterRegistry meterRegistry) {
+            this.lru = "lru".equals(mode)
+                    ? new ReactiveCache<>(name, maximumSize, Duration.ofMinutes(10), meterRegistry)
+                    : null;
+            this.tiered = "local".equals(mode) || "tiered".equals(mode)
+                    ? new TieredCache<>(name, maximumSize, Duration.ofMinutes(10), shared, Credit::getVersion,
+                    meterRegistry)
+                    : null;
+        }
+
+        private Credit read(String id, Function<String, Mono<Credit>> loader) {
+            if (tiered != null) {
+                return tiered.get(id, loader).block();
+            }
+            if (lru != null) {
+                return lru.get(id, loader).block();
+            }
+            return loader.apply(id).block();
+        }
+
+        // Como updateCredit: la base devuelve el documento con la versión nueva y se invalida con ella
+        private Credit write(String id, int index) {
+            Credit written = credit(index, credits.get(index).getVersion() + 1);
+            credits.set(index, written);
+            if (tiered != null) {
+                tiered.invalidate(id, written).block();
+            } else if (lru != null) {
+                lru.invalidate(id);
+            }
+            return written;
+        }
+    }
+
+    private static Credit credit(int index, long version) {
+        Credit credit = CreditFixtures.credit("empresa-" + index % 1_000);
+        credit.setId(Integer.toString(index));
+        credit.setVersion(version);
+        return credit;
+    }
+
+    // Muestras de una Zipf(s) sobre [0, n) por búsqueda binaria en la distribución acumulada
+    private static int[] zipf(int n, double s, int count, Random random) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1.0 / Math.pow(i + 1, s);
+            cumulative[i] = total;
+        }
+        int[] samples = new int[count];
+        for (int i = 0; i < count; i++) {
+            double target = random.nextDouble() * total;
+            int low = 0;
+            int high = n - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            samples[i] = low;
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+
+import java.time.LocalDate;
+
+final class CreditFixtures {
+
+    private CreditFixtures() {
+    }
+
+    // Créditos al día; solo el último vence ayer, para que la búsqueda recorra todos
+    static void seed(InMemoryCreditRepository store, String customerId, int count) {
+        for (int i = 0; i < count; i++) {
+            Credit credit = credit(customerId);
+            if (i == count - 1) {
+                credit.setDueDate(LocalDate.now().minusDays(1));
+            }
+            store.asRepository().insert(credit).block();
+        }
+    }
+
+    static Credit credit(String customerId) {
+        Credit credit = new Credit();
+        credit.setCustomerId(customerId);
+        credit.setAmount(Money.of(15_000.0));
+        credit.setCreditType("empresarial");
+        credit.setInterestRate(5.5);
+        credit.setCreditLimit(Money.of(20_000.0));
+        credit.setCurrentDebt(Money.of(5_000.0));
+        credit.setAvailableLimit(Money.of(15_000.0));
+        credit.setDueDate(LocalDate.now().plusDays(30));
+        credit.setOutstandingAmount(Money.of(5_000.0));
+        credit.setCustomerType("EMPRESARIAL");
+        return credit;
+    }
+}
@@ -0,0 +1,150 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.config.CreditExecutionProperties;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.execution.ExecutionPolicy;
+import com.bank.pe.mscredit.loader.BatchLoader;
+import com.bank.pe.mscredit.metrics.CreditMetrics;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.service.impl.CreditServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ráfagas de autorizaciones sobre un único crédito caliente. Cada $inc sobre el documento paga un viaje de ida y
+ * vuelta y ocupa el documento writeMicros en un carril de un hilo, como la escritura serializada (con journal) de
+ * MongoDB sobre un mismo documento. perRequest escribe un $inc condicionado por autorización; ledger pasa por
+ * CreditService.consume, que reserva en memoria y junta las autorizaciones en curso en un solo $inc. mongoWrites
+ * dividido por authorizations da las escrituras por autorización.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditLimitBenchmark {
+
+    private static final long AMOUNT = 100L; // 1.00 por autorización
+
+    @Param({"perRequest", "ledger"})
+    public String mode;
+
+    @Param({"64", "512"})
+    public int concurrency;
+
+    @Param({"200"})
+    public int writeMicros;
+
+    @Param({"1000"})
+    public int roundTripMicros;
+
+    private final AtomicLong writes = new AtomicLong();
+    private Scheduler document;
+    private CreditRepository repository;
+    private CreditServiceImpl creditService;
+    private String creditId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryCreditRepository store = new InMemoryCreditRepository();
+        CreditRepository stored = store.asRepository();
+        Credit hot = CreditFixtures.credit("empresa-1");
+        hot.setAvailableLimit(Money.ofMinor(Long.MAX_VALUE / 4));
+        creditId = stored.insert(hot).block().getId();
+        document = Schedulers.newSingle("hot-document");
+        repository = slowWrites(stored);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        creditService = new CreditServiceImpl(repository, new StubCustomerTypeService(),
+                new CreditMetrics(meterRegistry),
+                new ReactiveCache<>("customer-summaries", 10_000, Duration.ofSeconds(30), meterRegistry),
+                new StubPortfolioStatsService(), new StubOverdueSweepService(),
+                new ReactiveCache<>("credit-schedules", 5_000, Duration.ofMinutes(10), meterRegistry),
+                new TieredCache<>("credits", 20_000, Duration.ofSeconds(30), null, credit -> 0L, meterRegistry),
+                new TieredCache<>("customer-credits", 10_000, Duration.ofSeconds(30), null, null, meterRegistry),
+                new BatchLoader<>("credits", Duration.ZERO, 100, repository::findById, repository::findAllById,
+                        Credit::getId, meterRegistry),
+                new ExecutionPolicy(new CreditExecutionProperties(), meterRegistry));
+    }
+
+    @TearDown
+    public void tearDown() {
+        document.dispose();
+    }
+
+    // Solo findAndMoveLimit paga latencia: es la escritura que compite por el documento
+    private CreditRepository slowWrites(CreditRepository delegate) {
+        Duration roundTrip = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        long writeNanos = TimeUnit.MICROSECONDS.toNanos(writeMicros);
+        return (CreditRepository) Proxy.newProxyInstance(CreditRepository.class.getClassLoader(),
+                new Class<?>[]{CreditRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAndMoveLimit")) {
+                        return invoke(delegate, method, args);
+                    }
+                    return Mono.delay(roundTrip).then(Mono.defer(() -> {
+                        writes.incrementAndGet();
+                        LockSupport.parkNanos(writeNanos);
+                        return (Mono<?>) invoke(delegate, method, args);
+                    }).subscribeOn(document));
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long mongoWrites;
+        public long authorizations;
+    }
+
+    @Benchmark
+    public Object authorize(Counters counters) {
+        long before = writes.get();
+        Object last = Flux.range(0, concurrency)
+                .flatMap(i -> "ledger".equals(mode)
+                        ? creditService.consume(creditId, Money.ofMinor(AMOUNT))
+                        : repository.findAndMoveLimit(creditId, AMOUNT), concurrency)
+                .blockLast();
+        counters.mongoWrites += writes.get() - before;
+        counters.authorizations += concurrency;
+        return last;
+    }
+}
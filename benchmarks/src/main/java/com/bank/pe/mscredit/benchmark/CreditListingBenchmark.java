@@ -0,0 +1,117 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.mapper.CreditJsonWriter;
+import com.bank.pe.mscredit.mapper.CreditMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Una página del listado, desde el BSON que entrega el driver hasta los DataBuffer de la respuesta: el camino
+ * anterior (documento, Credit o CreditDTO y Jackson2JsonEncoder, como lo hace WebFlux) contra CreditJsonWriter.
+ * Cada operación es un crédito; con -prof gc, gc.alloc.rate.norm da los bytes asignados por crédito.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditListingBenchmark {
+
+    private static final ResolvableType CREDIT = ResolvableType.forClass(Credit.class);
+    private static final ResolvableType CREDIT_DTO = ResolvableType.forClass(CreditDTO.class);
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final DocumentCodec codec = new DocumentCodec();
+    private RawBsonDocument[] documents;
+    private MappingMongoConverter converter;
+    private Jackson2JsonEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        converter = MoneyFootprintBenchmark.converter();
+        // Misma configuración de fechas que Spring Boot
+        encoder = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        documents = new RawBsonDocument[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            Credit credit = CreditFixtures.credit("empresa-" + i);
+            credit.setId(new ObjectId().toHexString());
+            credit.setCreatedAt(LocalDateTime.of(2025, 1, 15, 10, 0).plusMinutes(i));
+            credit.setVersion(1L);
+            Document document = new Document();
+            converter.write(credit, document);
+            documents[i] = new RawBsonDocument(document, codec);
+        }
+    }
+
+    @Benchmark
+    public long jacksonCredits() {
+        return drain(encoder.encode(Flux.fromArray(documents).map(this::read), bufferFactory, CREDIT,
+                MediaType.APPLICATION_JSON, Collections.emptyMap()));
+    }
+
+    @Benchmark
+    public long writerCredits() {
+        return drain(CreditJsonWriter.CREDIT.writeArray(Flux.fromArray(documents), bufferFactory));
+    }
+
+    @Benchmark
+    public long jacksonCustomerDTOs() {
+        return drain(encoder.encode(Flux.fromArray(documents).map(this::read).map(CreditMapper::toDTO),
+                bufferFactory, CREDIT_DTO, MediaType.APPLICATION_JSON, Collections.emptyMap()));
+    }
+
+    @Benchmark
+    public long writerCustomerDTOs() {
+        return drain(CreditJsonWriter.CREDIT_DTO.writeArray(Flux.fromArray(documents), bufferFactory));
+    }
+
+    private Credit read(RawBsonDocument raw) {
+        return converter.read(Credit.class, codec.decode(raw.asBsonReader(), DecoderContext.builder().build()));
+    }
+
+    // Bytes escritos; los buffers se liberan como lo haría el servidor al enviarlos
+    private static long drain(Flux<DataBuffer> buffers) {
+        return buffers.map(buffer -> {
+            int bytes = buffer.readableByteCount();
+            DataBufferUtils.release(buffer);
+            return (long) bytes;
+        }).reduce(0L, Long::sum).block();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.loader.BatchLoader;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lecturas por id concurrentes, como varios GET /{id} atendidos a la vez, contra un repositorio en memoria con una
+ * latencia fija por consulta que simula el viaje a MongoDB. windowMillis=0 es un findById por lectura; con ventana,
+ * BatchLoader agrupa las que llegan juntas en un $in. Cada operación es una ráfaga de concurrency lecturas; los
+ * contadores auxiliares mongoQueries y lookups dan, divididos, las consultas por lectura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditLookupBenchmark {
+
+    private static final String CUSTOMER_ID = "empresa-1";
+    private static final int CREDITS = 10_000;
+
+    @Param({"0", "2"})
+    public int windowMillis;
+
+    @Param({"16", "256"})
+    public int concurrency;
+
+    @Param({"1"})
+    public int roundTripMillis;
+
+    private final AtomicLong queries = new AtomicLong();
+    private String[] ids;
+    private BatchLoader<String, Credit> loader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryCreditRepository store = new InMemoryCreditRepository();
+        CreditFixtures.seed(store, CUSTOMER_ID, CREDITS);
+        CreditRepository repository = store.asRepository();
+        List<String> stored = repository.findByCustomerId(CUSTOMER_ID).map(Credit::getId).collectList().block();
+        ids = stored.toArray(new String[0]);
+        Duration roundTrip = Duration.ofMillis(roundTripMillis);
+        loader = new BatchLoader<>("credits", Duration.ofMillis(windowMillis), 100,
+                id -> Mono.delay(roundTrip).doOnSubscribe(s -> queries.incrementAndGet())
+                        .then(repository.findById(id)),
+                batch -> Mono.delay(roundTrip).doOnSubscribe(s -> queries.incrementAndGet())
+                        .thenMany(repository.findAllById(batch)),
+                Credit::getId, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long mongoQueries;
+        public long lookups;
+    }
+
+    @Benchmark
+    public Object getCredits(Counters counters) {
+        long before = queries.get();
+        Object last = Flux.range(0, concurrency)
+                .flatMap(i -> loader.load(ids[ThreadLocalRandom.current().nextInt(ids.length)]), concurrency)
+                .blockLast();
+        counters.mongoQueries += queries.get() - before;
+        counters.lookups += concurrency;
+        return last;
+    }
+}
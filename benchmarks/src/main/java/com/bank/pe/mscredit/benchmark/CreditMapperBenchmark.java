@@ -0,0 +1,46 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.mapper.CreditMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditMapperBenchmark {
+
+    private Credit credit;
+    private CreditDTO creditDTO;
+
+    @Setup
+    public void setUp() {
+        credit = CreditFixtures.credit("empresa-1");
+        credit.setId("65f1a2b3c4d5e6f7a8b9c0d1");
+        creditDTO = CreditMapper.toDTO(credit);
+    }
+
+    @Benchmark
+    public CreditDTO convertToDTO() {
+        return CreditMapper.toDTO(credit);
+    }
+
+    @Benchmark
+    public Credit convertDtoToEntity() {
+        return CreditMapper.toEntity(creditDTO);
+    }
+}
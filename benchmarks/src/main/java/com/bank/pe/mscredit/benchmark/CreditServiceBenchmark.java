@@ -0,0 +1,98 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.config.CreditExecutionProperties;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.execution.ExecutionPolicy;
+import com.bank.pe.mscredit.loader.BatchLoader;
+import com.bank.pe.mscredit.metrics.CreditMetrics;
+import com.bank.pe.mscredit.service.impl.CreditServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditServiceBenchmark {
+
+    private static final String CUSTOMER_ID = "empresa-1";
+
+    @Param({"1", "100", "10000"})
+    private int creditsPerCustomer;
+
+    @Param({"1", "16", "64"})
+    private int concurrency;
+
+    private InMemoryCreditRepository store;
+    private CreditServiceImpl creditService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new InMemoryCreditRepository();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        creditService = new CreditServiceImpl(store.asRepository(), new StubCustomerTypeService(),
+                new CreditMetrics(meterRegistry),
+                new ReactiveCache<>("customer-summaries", 10_000, Duration.ofSeconds(30), meterRegistry),
+                new StubPortfolioStatsService(), new StubOverdueSweepService(),
+                new ReactiveCache<>("credit-schedules", 5_000, Duration.ofMinutes(10), meterRegistry),
+                new TieredCache<>("credits", 20_000, Duration.ofSeconds(30), null, credit -> 0L, meterRegistry),
+                new TieredCache<>("customer-credits", 10_000, Duration.ofSeconds(30), null, null, meterRegistry),
+                new BatchLoader<>("credits", Duration.ZERO, 100, store.asRepository()::findById,
+                        store.asRepository()::findAllById, Credit::getId, meterRegistry),
+                new ExecutionPolicy(new CreditExecutionProperties(), meterRegistry));
+    }
+
+    // createCredit agrega documentos: se reinicia la cartera en cada iteración para no medir un mapa creciente
+    @Setup(Level.Iteration)
+    public void seed() {
+        store.clear();
+        CreditFixtures.seed(store, CUSTOMER_ID, creditsPerCustomer);
+    }
+
+    @Benchmark
+    public Object createCredit() {
+        return burst(() -> creditService.createCredit(CreditFixtures.credit(CUSTOMER_ID)));
+    }
+
+    @Benchmark
+    public Object hasOverdueDebt() {
+        return burst(() -> creditService.hasOverdueDebt(CUSTOMER_ID));
+    }
+
+    @Benchmark
+    public Object getCreditProductsByCustomer() {
+        return burst(() -> creditService.getCreditProductsByCustomer(CUSTOMER_ID).count());
+    }
+
+    // Ráfaga de llamadas simultáneas, como varias solicitudes atendidas a la vez por el servicio
+    private <T> Object burst(Supplier<Mono<T>> call) {
+        if (concurrency == 1) {
+            return call.get().block();
+        }
+        return Flux.range(0, concurrency)
+                .flatMap(i -> call.get().subscribeOn(Schedulers.parallel()), concurrency)
+                .blockLast();
+    }
+}
@@ -0,0 +1,87 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.config.CreditExecutionProperties;
+import com.bank.pe.mscredit.execution.ExecutionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una tarea trivial en un event loop (un hilo, como uno de Netty) mientras llegan operaciones con
+ * cómputo pesado a ritmo fijo. inline ejecuta el cómputo en el loop, que lo hace esperar; offloaded lo pasa por
+ * ExecutionPolicy al scheduler de cómputo. Con cpuTokens=0 se mide el loop sin carga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionPolicyBenchmark {
+
+    private static final String OPERATION = "schedule";
+
+    @Param({"inline", "offloaded"})
+    public String mode;
+
+    // Cómputo por operación (Blackhole.consumeCPU); del orden de cientos de microsegundos con 100000
+    @Param({"0", "100000"})
+    public long cpuTokens;
+
+    @Param({"1000"})
+    public long arrivalMicros;
+
+    private Scheduler eventLoop;
+    private Scheduler arrivals;
+    private ExecutionPolicy policy;
+    private Disposable load;
+
+    @Setup
+    public void setUp() {
+        eventLoop = Schedulers.newSingle("event-loop");
+        arrivals = Schedulers.newSingle("arrivals");
+        CreditExecutionProperties properties = new CreditExecutionProperties();
+        properties.setOffloaded("offloaded".equals(mode) ? Set.of(OPERATION) : Set.of());
+        policy = new ExecutionPolicy(properties, new SimpleMeterRegistry());
+        if (cpuTokens > 0) {
+            // Cada llegada se atiende en el loop, como una solicitud: el cómputo corre ahí salvo que se derive
+            load = arrivals.schedulePeriodically(() -> eventLoop.schedule(() -> policy.compute(OPERATION, () -> {
+                Blackhole.consumeCPU(cpuTokens);
+                return Boolean.TRUE;
+            }).subscribe()), 0, arrivalMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (load != null) {
+            load.dispose();
+        }
+        arrivals.dispose();
+        eventLoop.dispose();
+        policy.destroy();
+    }
+
+    @Benchmark
+    public Long eventLoopRoundTrip() {
+        return Mono.fromCallable(System::nanoTime).subscribeOn(eventLoop).block();
+    }
+}
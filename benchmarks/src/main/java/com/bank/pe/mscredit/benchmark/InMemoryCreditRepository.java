@@ -0,0 +1,151 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * CreditRepository en memoria para aislar el costo del servicio del de MongoDB.
+ * Solo implementa los métodos que recorren los benchmarks; el resto lanza UnsupportedOperationException.
+ */
+public final class InMemoryCreditRepository {
+
+    private final Map<String, Credit> credits = new ConcurrentHashMap<>();
+    private final Map<String, List<Credit>> creditsByCustomer = new ConcurrentHashMap<>();
+
+    public CreditRepository asRepository() {
+        return (CreditRepository) Proxy.newProxyInstance(CreditRepository.class.getClassLoader(),
+                new Class<?>[]{CreditRepository.class}, (proxy, method, args) -> invoke(method, args));
+    }
+
+    public void clear() {
+        credits.clear();
+        creditsByCustomer.clear();
+    }
+
+    public int size() {
+        return credits.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "insert":
+            case "save":
+                if (args[0] instanceof Credit) {
+                    return Mono.fromCallable(() -> store((Credit) args[0]));
+                }
+                break;
+            case "findById":
+                if (args[0] instanceof String) {
+                    return Mono.justOrEmpty(credits.get((String) args[0]));
+                }
+                break;
+            case "findAllById":
+                if (args[0] instanceof Iterable) {
+                    return Flux.fromIterable((Iterable<String>) args[0])
+                            .flatMap(id -> Mono.justOrEmpty(credits.get(id)));
+                }
+                break;
+            case "findAndMoveLimit":
+                return Mono.fromSupplier(() -> moveLimit((String) args[0], (Long) args[1]));
+            case "findByCustomerId":
+                return Flux.fromIterable(customerCredits((String) args[0]));
+            case "existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan":
+                return Mono.fromSupplier(() -> customerCredits((String) args[0]).stream()
+                        .anyMatch(credit -> isOverdue(credit, (LocalDate) args[1], (Double) args[2])));
+            case "findCustomerIdsWithOverdueDebt":
+                return Flux.fromIterable((Collection<String>) args[0])
+                        .filter(customerId -> customerCredits(customerId).stream()
+                                .anyMatch(credit -> isOverdue(credit, (LocalDate) args[1], 0.0)));
+            case "count":
+                if (args == null) {
+                    return Mono.fromSupplier(() -> (long) credits.size());
+                }
+                break;
+            case "toString":
+                return "InMemoryCreditRepository";
+            case "hashCode":
+                return System.identityHashCode(this);
+            case "equals":
+                return false;
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException(method.toString());
+    }
+
+    private Credit store(Credit credit) {
+        if (credit.getId() == null) {
+            credit.setId(new ObjectId().toHexString());
+        }
+        List<Credit> customerCredits = creditsByCustomer.computeIfAbsent(
+                credit.getCustomerId(), id -> new CopyOnWriteArrayList<>());
+        // Misma regla que el índice único parcial personal_customer_unique_idx
+        synchronized (customerCredits) {
+            if ("PERSONAL".equals(credit.getCustomerType()) && customerCredits.stream()
+                    .anyMatch(existing -> "PERSONAL".equals(existing.getCustomerType()))) {
+                throw new DuplicateKeyException("E11000 duplicate key error: " + credit.getCustomerId());
+            }
+            customerCredits.add(credit);
+        }
+        credits.put(credit.getId(), credit);
+        return credit;
+    }
+
+    // Misma condición y $inc que CreditRepositoryCustomImpl.findAndMoveLimit; null si la condición no se cumple
+    private Tuple2<Credit, Credit> moveLimit(String id, long amount) {
+        Credit[] before = new Credit[1];
+        Credit after = credits.computeIfPresent(id, (key, credit) -> {
+            long available = credit.getAvailableLimit() == null ? 0L : credit.getAvailableLimit().getMinorUnits();
+            long debt = credit.getCurrentDebt() == null ? 0L : credit.getCurrentDebt().getMinorUnits();
+            if ((amount > 0 && available < amount) || (amount < 0 && debt < -amount)) {
+                return credit;
+            }
+            before[0] = credit;
+            Credit moved = copy(credit);
+            moved.setCurrentDebt(Money.ofMinor(debt + amount));
+            moved.setAvailableLimit(Money.ofMinor(available - amount));
+            moved.setVersion(credit.getVersion() == null ? 1L : credit.getVersion() + 1);
+            return moved;
+        });
+        if (before[0] == null) {
+            return null;
+        }
+        customerCredits(after.getCustomerId()).replaceAll(credit -> credit == before[0] ? after : credit);
+        return Tuples.of(before[0], after);
+    }
+
+    private static Credit copy(Credit credit) {
+        return new Credit(credit.getId(), credit.getCustomerId(), credit.getAmount(), credit.getCreditType(),
+                credit.getInterestRate(), credit.getTermMonths(), credit.getCreditLimit(), credit.getCurrentDebt(),
+                credit.getAvailableLimit(), credit.getDueDate(), credit.getOutstandingAmount(), credit.getCreatedAt(),
+                credit.getCustomerType(), credit.getOverdue(), credit.getOverdueSince(), credit.getLastAccrualDate(),
+                credit.getAccruedInterest(), credit.getVersion());
+    }
+
+    private List<Credit> customerCredits(String customerId) {
+        return creditsByCustomer.getOrDefault(customerId, List.of());
+    }
+
+    private static boolean isOverdue(Credit credit, LocalDate today, Double minimumOutstanding) {
+        return credit.getDueDate() != null && credit.getDueDate().isBefore(today)
+                && credit.getOutstandingAmount() != null
+                && credit.getOutstandingAmount().doubleValue() > minimumOutstanding;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.accrual.InterestCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo del devengo de un lote de CHUNK créditos (el chunkSize por defecto): long sobre arreglos contra
+ * BigDecimal por crédito. Cada operación es un crédito, así que el throughput se compara directamente con los
+ * 10M créditos de la ventana nocturna.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestAccrualBenchmark {
+
+    private static final int CHUNK = 1_000;
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final long[] principal = new long[CHUNK];
+    private final long[] rate = new long[CHUNK];
+    private final int[] days = new int[CHUNK];
+    private final long[] interest = new long[CHUNK];
+    private final double[] outstanding = new double[CHUNK];
+    private final double[] annualRate = new double[CHUNK];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < CHUNK; i++) {
+            outstanding[i] = Math.round(random.nextDouble() * 10_000_000) / 100.0;
+            annualRate[i] = Math.round(random.nextDouble() * 4_000) / 100.0;
+            days[i] = 1 + random.nextInt(3);
+            principal[i] = InterestCalculator.toCents(outstanding[i]);
+            rate[i] = InterestCalculator.toRateMicros(annualRate[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public long[] primitiveArrays() {
+        InterestCalculator.accrue(principal, rate, days, interest, CHUNK);
+        return interest;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public void bigDecimalPerCredit(Blackhole blackhole) {
+        for (int i = 0; i < CHUNK; i++) {
+            blackhole.consume(BigDecimal.valueOf(outstanding[i])
+                    .multiply(BigDecimal.valueOf(annualRate[i]), MathContext.DECIMAL64)
+                    .divide(HUNDRED, MathContext.DECIMAL64)
+                    .multiply(BigDecimal.valueOf(days[i]))
+                    .divide(DAYS_PER_YEAR, 2, RoundingMode.HALF_EVEN));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.config.ApplicationConfig;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de un flujo de 1M créditos desde BSON, como llega del driver: montos en double (LegacyCredit, el
+ * formato anterior) contra Int64 en unidades mínimas (Credit con Money). Cada operación es un crédito; con
+ * -prof gc, gc.alloc.rate.norm da los bytes asignados por crédito. Al preparar se imprime el tamaño medio del
+ * documento BSON de cada formato y la diferencia de sumar la deuda pendiente en double contra Money.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MoneyFootprintBenchmark {
+
+    private static final int STREAM = 1_000_000;
+    private static final int DISTINCT = 1_000; // Documentos distintos que se repiten a lo largo del flujo
+
+    private final RawBsonDocument[] legacyDocuments = new RawBsonDocument[DISTINCT];
+    private final RawBsonDocument[] moneyDocuments = new RawBsonDocument[DISTINCT];
+    private final DocumentCodec codec = new DocumentCodec();
+    private MappingMongoConverter converter;
+
+    @Setup
+    public void setUp() {
+        converter = converter();
+        Random random = new Random(42);
+        long legacyBytes = 0;
+        long moneyBytes = 0;
+        for (int i = 0; i < DISTINCT; i++) {
+            // Un tercio son créditos nuevos, sin deuda
+            double debt = i % 3 == 0 ? 0.0 : Math.round(random.nextDouble() * 1_000_000) / 100.0;
+            double limit = Math.round(random.nextDouble() * 5_000_000) / 100.0 + debt;
+
+            LegacyCredit legacy = new LegacyCredit();
+            legacy.customerId = "customer-" + i;
+            legacy.creditType = "personal";
+            legacy.amount = limit;
+            legacy.interestRate = 5.5;
+            legacy.creditLimit = limit;
+            legacy.currentDebt = debt;
+            legacy.availableLimit = limit - debt;
+            legacy.outstandingAmount = debt;
+            legacy.accruedInterest = 0.0;
+            legacy.dueDate = LocalDate.of(2025, 1, 15).plusDays(i % 60);
+            legacy.createdAt = LocalDateTime.of(2024, 1, 15, 10, 0);
+            legacy.version = 1L;
+            legacyDocuments[i] = encode(legacy);
+            legacyBytes += legacyDocuments[i].getByteBuffer().remaining();
+
+            Credit credit = new Credit();
+            credit.setCustomerId(legacy.customerId);
+            credit.setCreditType(legacy.creditType);
+            credit.setAmount(Money.of(legacy.amount));
+            credit.setInterestRate(legacy.interestRate);
+            credit.setCreditLimit(Money.of(legacy.creditLimit));
+            credit.setCurrentDebt(Money.of(legacy.currentDebt));
+            credit.setAvailableLimit(Money.of(legacy.availableLimit));
+            credit.setOutstandingAmount(Money.of(legacy.outstandingAmount));
+            credit.setAccruedInterest(Money.ZERO);
+            credit.setDueDate(legacy.dueDate);
+            credit.setCreatedAt(legacy.createdAt);
+            credit.setVersion(legacy.version);
+            moneyDocuments[i] = encode(credit);
+            moneyBytes += moneyDocuments[i].getByteBuffer().remaining();
+        }
+
+        double legacyTotal = 0;
+        Money moneyTotal = Money.ZERO;
+        for (int i = 0; i < STREAM; i++) {
+            legacyTotal += read(LegacyCredit.class, legacyDocuments, i).outstandingAmount;
+            moneyTotal = moneyTotal.plus(read(Credit.class, moneyDocuments, i).getOutstandingAmount());
+        }
+        System.out.printf("%nBSON por documento: double %d B, Int64 %d B%n",
+                legacyBytes / DISTINCT, moneyBytes / DISTINCT);
+        System.out.printf("Deuda pendiente del flujo: double %s, Money %s%n",
+                new BigDecimal(legacyTotal).toPlainString(), moneyTotal.toBigDecimal().toPlainString());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STREAM)
+    public void readLegacyDoubles(Blackhole blackhole) {
+        for (int i = 0; i < STREAM; i++) {
+            blackhole.consume(read(LegacyCredit.class, legacyDocuments, i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STREAM)
+    public void readMoney(Blackhole blackhole) {
+        for (int i = 0; i < STREAM; i++) {
+            blackhole.consume(read(Credit.class, moneyDocuments, i));
+        }
+    }
+
+    private <T> T read(Class<T> type, RawBsonDocument[] documents, int i) {
+        RawBsonDocument raw = documents[i % DISTINCT];
+        Document document = codec.decode(raw.asBsonReader(), DecoderContext.builder().build());
+        return converter.read(type, document);
+    }
+
+    private RawBsonDocument encode(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        document.remove("_class"); // El nombre de clase distinto no debe pesar en la comparación
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        codec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return new RawBsonDocument(buffer.toByteArray());
+    }
+
+    // Mismo mapeo que la aplicación (ApplicationConfig.mongoCustomConversions)
+    static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new ApplicationConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // Credit con los montos en Double, como estaba antes de Money
+    public static class LegacyCredit {
+        private String id;
+        private String customerId;
+        private Double amount;
+        private String creditType;
+        private Double interestRate;
+        private Double creditLimit;
+        private Double currentDebt;
+        private Double availableLimit;
+        private LocalDate dueDate;
+        private Double outstandingAmount;
+        private LocalDateTime createdAt;
+        private Double accruedInterest;
+        private Long version;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.repository.CreditRepositoryCustomImpl;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación de deuda vencida de un cliente contra un MongoDB real: path=stream lee sus créditos y filtra en
+ * memoria (camino histórico); path=exists es la consulta exists indexada. Los créditos están al día, el peor caso
+ * para ambos: ninguno encuentra deuda vencida. Es el único benchmark del módulo que necesita MongoDB, en
+ * -Dbenchmark.mongo.uri (por defecto mongodb://localhost:27017).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverdueDebtQueryBenchmark {
+
+    private static final String DATABASE = "ms_credits_benchmark";
+    private static final String CUSTOMER_ID = "bench";
+
+    @Param({"1", "100", "10000"})
+    public int creditsPerCustomer;
+
+    @Param({"stream", "exists"})
+    public String path;
+
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate template;
+    private CreditRepository creditRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"));
+        template = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(mongoClient, DATABASE),
+                MoneyFootprintBenchmark.converter());
+        creditRepository = new ReactiveMongoRepositoryFactory(template).getRepository(CreditRepository.class,
+                RepositoryFragments.just(new CreditRepositoryCustomImpl(template)));
+
+        template.dropCollection(Credit.class).block();
+        IndexResolver.create(template.getConverter().getMappingContext())
+                .resolveIndexFor(Credit.class)
+                .forEach(index -> template.indexOps(Credit.class).ensureIndex(index).block());
+        Flux.range(0, creditsPerCustomer)
+                .map(i -> CreditFixtures.credit(CUSTOMER_ID))
+                .buffer(1_000)
+                .concatMap(template::insertAll)
+                .blockLast();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        template.dropCollection(Credit.class).block();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Boolean hasOverdueDebt() {
+        LocalDate today = LocalDate.now();
+        if ("stream".equals(path)) {
+            return creditRepository.findByCustomerId(CUSTOMER_ID)
+                    .filter(credit -> credit.isPastDue(today))
+                    .hasElements()
+                    .block();
+        }
+        return creditRepository.existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                CUSTOMER_ID, today, 0.0).block();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.entity.CustomerType;
+import com.bank.pe.mscredit.service.CustomerTypeService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Responde sin red ni Mongo: los clientes cuyo ID empieza con "personal" son PERSONAL, el resto EMPRESARIAL.
+ */
+public class StubCustomerTypeService implements CustomerTypeService {
+
+    @Override
+    public Mono<String> resolveType(String customerId) {
+        return Mono.just(customerId.startsWith("personal") ? "PERSONAL" : "EMPRESARIAL");
+    }
+
+    @Override
+    public Mono<Long> upsert(Flux<CustomerType> customerTypes) {
+        return customerTypes.count();
+    }
+}
@@ -0,0 +1,23 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.service.OverdueSweepService;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Sin barrido: hasOverdueDebt compara fechas sobre el repositorio en memoria, como antes del flag overdue.
+ */
+public class StubOverdueSweepService implements OverdueSweepService {
+
+    @Override
+    public boolean isCurrent(LocalDate today) {
+        return false;
+    }
+
+    @Override
+    public Mono<BatchJob> getProgress() {
+        return Mono.empty();
+    }
+}
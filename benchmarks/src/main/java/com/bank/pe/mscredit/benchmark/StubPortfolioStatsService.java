@@ -0,0 +1,35 @@
+package com.bank.pe.mscredit.benchmark;
+
+import com.bank.pe.mscredit.dto.PortfolioStatsDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.Collection;
+
+/**
+ * No guarda agregados: los benchmarks miden el servicio de créditos, no el $inc sobre portfolio_stats.
+ */
+public class StubPortfolioStatsService implements PortfolioStatsService {
+
+    @Override
+    public Mono<PortfolioStatsDTO> getStats() {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> record(Credit before, Credit after) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> recordCreated(Collection<Credit> credits) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> recordChanges(Collection<Tuple2<Credit, Credit>> changes) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.pe.mscredit.accrual;
+
+import com.bank.pe.mscredit.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Devengo calculado para un crédito: se aplica solo si el crédito sigue en la versión leída.
+ */
+@Data
+@AllArgsConstructor
+public class InterestAccrual {
+    private String creditId;
+    private Long version; // Versión leída al calcular
+    private Money outstandingAmount; // Deuda pendiente con el interés sumado
+    private Money interest;
+}
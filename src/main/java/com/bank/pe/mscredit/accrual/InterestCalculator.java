@@ -0,0 +1,66 @@
+package com.bank.pe.mscredit.accrual;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Interés simple diario en base ACT/365 con montos en céntimos y tasas en millonésimas de punto porcentual
+ * (5.5 % = 55_000), todo en long: sin asignaciones por crédito y con redondeo half-even exacto. Solo si el
+ * producto no cabe en 64 bits se recurre a BigDecimal.
+ */
+public final class InterestCalculator {
+
+    public static final long RATE_SCALE = 10_000L; // Millonésimas de punto porcentual por punto
+    static final long DIVISOR = 100L * RATE_SCALE * 365; // Porcentaje, escala de la tasa y días del año
+
+    private InterestCalculator() {
+    }
+
+    public static long toCents(Double amount) {
+        return amount == null ? 0L : Math.round(amount * 100);
+    }
+
+    public static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    // Tasa anual en porcentaje (5.5) a millonésimas de punto; se redondea para no arrastrar el error del double
+    public static long toRateMicros(Double annualRatePercent) {
+        return annualRatePercent == null ? 0L : Math.round(annualRatePercent * RATE_SCALE);
+    }
+
+    // Interés en céntimos de principalCents a la tasa rateMicros durante days días
+    public static long interestCents(long principalCents, long rateMicros, int days) {
+        if (principalCents <= 0 || rateMicros <= 0 || days <= 0) {
+            return 0L;
+        }
+        long product = principalCents * rateMicros;
+        if (Math.multiplyHigh(principalCents, rateMicros) == 0 && product >= 0) {
+            long numerator = product * days;
+            if (Math.multiplyHigh(product, days) == 0 && numerator >= 0) {
+                return divideHalfEven(numerator);
+            }
+        }
+        return BigDecimal.valueOf(principalCents)
+                .multiply(BigDecimal.valueOf(rateMicros))
+                .multiply(BigDecimal.valueOf(days))
+                .divide(BigDecimal.valueOf(DIVISOR), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    // Calcula un lote completo sobre arreglos paralelos; interest debe tener al menos length posiciones
+    public static void accrue(long[] principalCents, long[] rateMicros, int[] days, long[] interest, int length) {
+        for (int i = 0; i < length; i++) {
+            interest[i] = interestCents(principalCents[i], rateMicros[i], days[i]);
+        }
+    }
+
+    private static long divideHalfEven(long numerator) {
+        long quotient = numerator / DIVISOR;
+        long twiceRemainder = 2 * (numerator - quotient * DIVISOR);
+        if (twiceRemainder > DIVISOR || (twiceRemainder == DIVISOR && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.pe.mscredit.cache;
+
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.entity.Credit;
+import org.bson.RawBsonDocument;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Invalida las cachés de lectura de créditos después de las escrituras masivas que no pasan por CreditService
+ * (devengo de intereses y barrido de vencidos): el crédito por id con la versión que dejó la escritura y, una vez
+ * por cliente, sus documentos y su resumen.
+ */
+@Component
+public class CreditCacheInvalidator {
+
+    private final TieredCache<Credit> creditCache;
+    private final TieredCache<List<RawBsonDocument>> customerCreditsCache;
+    private final ReactiveCache<String, CustomerCreditSummary> summaryCache;
+
+    public CreditCacheInvalidator(TieredCache<Credit> creditCache,
+                                  TieredCache<List<RawBsonDocument>> customerCreditsCache,
+                                  ReactiveCache<String, CustomerCreditSummary> summaryCache) {
+        this.creditCache = creditCache;
+        this.customerCreditsCache = customerCreditsCache;
+        this.summaryCache = summaryCache;
+    }
+
+    // credits trae id y customerId; versionAfter da la versión con la que quedó cada uno
+    public Mono<Void> invalidate(Collection<Credit> credits, ToLongFunction<Credit> versionAfter) {
+        return Flux.fromIterable(credits)
+                .concatMap(credit -> creditCache.invalidate(credit.getId(), versionAfter.applyAsLong(credit)))
+                .thenMany(Flux.fromStream(() -> credits.stream()
+                        .map(Credit::getCustomerId)
+                        .filter(Objects::nonNull)
+                        .distinct()))
+                .concatMap(customerId -> {
+                    summaryCache.invalidate(customerId);
+                    return customerCreditsCache.invalidate(customerId);
+                })
+                .then();
+    }
+
+    // Misma versión que usa la caché de créditos: sin version cuenta como 0
+    public static long version(Credit credit) {
+        return credit.getVersion() == null ? 0L : credit.getVersion();
+    }
+}
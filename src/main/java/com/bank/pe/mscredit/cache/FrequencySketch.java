@@ -0,0 +1,76 @@
+package com.bank.pe.mscredit.cache;
+
+/**
+ * Count-Min Sketch de contadores de 4 bits (16 por long) que estima cuántas veces se pidió una clave.
+ * Cada 10 accesos por entrada de la caché se reducen todos los contadores a la mitad: la frecuencia
+ * envejece y una clave popular en el pasado no queda protegida para siempre.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1);
+        this.table = new long[length];
+        this.sampleSize = Math.max(10, 10 * maximumSize);
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            int shift = offsetOf(hash, i) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            int shift = offsetOf(hash, i) << 2;
+            long mask = 0xFL << shift;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long seeded = (hash + SEEDS[i]) * SEEDS[i];
+        seeded += seeded >>> 32;
+        return (int) seeded & (table.length - 1);
+    }
+
+    // Cada función usa un contador distinto dentro del long: 16 posiciones de 4 bits
+    private static int offsetOf(int hash, int i) {
+        return (hash >>> (i << 3)) & 0xF;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.pe.mscredit.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SharedCache en memoria del proceso, con las mismas reglas de versión que una implementación distribuida.
+ * Sirve para pruebas, benchmarks y despliegues de una sola instancia; no comparte nada entre instancias.
+ */
+public class InMemorySharedCache<V> implements SharedCache<V> {
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ConcurrentMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public InMemorySharedCache(Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    InMemorySharedCache(Duration ttl, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Versioned<V>> get(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || entry.value.getValue() == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key, entry);
+                return null;
+            }
+            return entry.value;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> putIfNewer(String key, Versioned<V> value) {
+        return Mono.fromSupplier(() -> {
+            long now = clock.millis();
+            Entry<V> stored = entries.compute(key, (k, current) ->
+                    current == null || current.expiresAt <= now || current.value.getVersion() <= value.getVersion()
+                            ? new Entry<>(value, now + ttlMillis)
+                            : current);
+            return stored.value == value;
+        });
+    }
+
+    @Override
+    public Mono<Void> invalidate(String key, long minimumVersion) {
+        return Mono.fromRunnable(() -> {
+            long now = clock.millis();
+            entries.merge(key, new Entry<>(new Versioned<>(null, minimumVersion), now + ttlMillis),
+                    (current, tombstone) -> current.expiresAt > now && current.value.getValue() == null
+                            && current.value.getVersion() > minimumVersion ? current : tombstone);
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        private final Versioned<V> value;
+        private final long expiresAt;
+
+        private Entry(Versioned<V> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
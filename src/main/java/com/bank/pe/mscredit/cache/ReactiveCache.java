@@ -0,0 +1,139 @@
+package com.bank.pe.mscredit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Caché reactiva en memoria acotada por tamaño (LRU) y por TTL.
+ * Las consultas concurrentes de una misma clave comparten una sola carga en curso.
+ */
+public class ReactiveCache<K, V> {
+
+    private final int maximumSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<K, CacheEntry<V>> entries;
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public ReactiveCache(String name, int maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maximumSize, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    ReactiveCache(String name, int maximumSize, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.maximumSize = maximumSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > ReactiveCache.this.maximumSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "expired")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, ReactiveCache::size).tag("cache", name).register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el valor en caché o lo carga con {@code loader}. Los errores y los resultados vacíos no se guardan.
+     */
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+            return inFlight.computeIfAbsent(key, k -> load(k, loader));
+        });
+    }
+
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key);
+                expiredEvictions.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new CacheEntry<>(value, clock.millis() + ttlMillis));
+        }
+    }
+
+    // También descarta la carga en curso: su resultado puede ser anterior a la escritura que invalida
+    public void invalidate(K key) {
+        synchronized (entries) {
+            inFlight.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Mono<V> load(K key, Function<K, Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> load = loader.apply(key)
+                .doOnNext(value -> {
+                    synchronized (entries) {
+                        if (inFlight.get(key) == self.get()) {
+                            put(key, value);
+                        }
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(load);
+        return load;
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
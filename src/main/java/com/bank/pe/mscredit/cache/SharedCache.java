@@ -0,0 +1,20 @@
+package com.bank.pe.mscredit.cache;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Segundo nivel de TieredCache, compartido entre instancias (Redis, Hazelcast...). Cada clave guarda un valor o una
+ * lápida con la versión mínima aceptable: una carga lenta que termina después de una escritura no puede volver a
+ * publicar la versión anterior.
+ */
+public interface SharedCache<V> {
+
+    // Vacío si la clave no está, expiró o es una lápida
+    Mono<Versioned<V>> get(String key);
+
+    // Guarda solo si la versión es al menos la de la lápida o la del valor actual; devuelve si se guardó
+    Mono<Boolean> putIfNewer(String key, Versioned<V> value);
+
+    // Reemplaza la clave por una lápida: desde ahora solo se aceptan versiones >= minimumVersion
+    Mono<Void> invalidate(String key, long minimumVersion);
+}
@@ -0,0 +1,234 @@
+package com.bank.pe.mscredit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Caché de lectura en dos niveles: L1 en memoria (W-TinyLFU, con TTL) y un L2 opcional compartido entre
+ * instancias. Las lecturas pasan por L1, luego L2 y por último por el loader (MongoDB); las consultas concurrentes
+ * de una clave comparten una sola carga.
+ * <p>
+ * Cada valor lleva una versión: la del documento (versionOf) o, si no se indica, el instante en que empezó la
+ * carga. Invalidar fija en L2 la versión mínima aceptable, así que una carga iniciada antes de la escritura no
+ * puede publicar el valor anterior; en L1 se descarta la carga en curso. L1 no se entera de las escrituras de
+ * otras instancias: su TTL acota ese desfase.
+ */
+public class TieredCache<V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCache.class);
+
+    private final String name;
+    private final long ttlMillis;
+    private final SharedCache<V> shared;
+    private final ToLongFunction<V> versionOf;
+    private final Clock clock;
+    private final TinyLfuMap<String, Entry<V>> local;
+    private final ConcurrentMap<String, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter loads;
+    private final Counter expiredEvictions;
+
+    public TieredCache(String name, int maximumSize, Duration ttl, SharedCache<V> shared, ToLongFunction<V> versionOf,
+                       MeterRegistry meterRegistry) {
+        this(name, maximumSize, ttl, shared, versionOf, meterRegistry, Clock.systemUTC());
+    }
+
+    TieredCache(String name, int maximumSize, Duration ttl, SharedCache<V> shared, ToLongFunction<V> versionOf,
+                MeterRegistry meterRegistry, Clock clock) {
+        this.name = name;
+        this.ttlMillis = ttl.toMillis();
+        this.shared = shared;
+        this.versionOf = versionOf;
+        this.clock = clock;
+        this.local = new TinyLfuMap<>(maximumSize);
+
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.sharedHits = Counter.builder("cache.shared.gets").tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.sharedMisses = Counter.builder("cache.shared.gets").tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.loads = Counter.builder("cache.loads").tag("cache", name).register(meterRegistry);
+        this.expiredEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "expired")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", this, TieredCache::sizeEvictions)
+                .tag("cache", name).tag("cause", "size").register(meterRegistry);
+        Gauge.builder("cache.size", this, TieredCache::size).tag("cache", name).register(meterRegistry);
+        // local: pedidos resueltos en L1; total: pedidos que no llegaron al loader (L1, L2 o una carga compartida)
+        Gauge.builder("cache.hit.ratio", this, cache -> cache.hitRatio(cache.hits.count()))
+                .tag("cache", name).tag("tier", "local").register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, cache -> cache.hitRatio(cache.requests() - cache.loads.count()))
+                .tag("cache", name).tag("tier", "total").register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el valor de L1, de L2 o del loader. Los errores y los resultados vacíos no se guardan.
+     */
+    public Mono<V> get(String key, Function<String, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+            return inFlight.computeIfAbsent(key, k -> load(k, loader));
+        });
+    }
+
+    public V getIfPresent(String key) {
+        synchronized (local) {
+            Entry<V> entry = local.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                local.remove(key);
+                expiredEvictions.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    // Tras una escritura con la versión resultante: las cargas de versiones anteriores ya no se publican
+    public Mono<Void> invalidate(String key, long minimumVersion) {
+        return Mono.defer(() -> {
+            synchronized (local) {
+                inFlight.remove(key);
+                local.remove(key);
+            }
+            return shared == null ? Mono.<Void>empty() : shared.invalidate(key, minimumVersion)
+                    .onErrorResume(ex -> {
+                        logger.warn("No se pudo invalidar {} en la caché compartida {}: {}", key, name,
+                                ex.getMessage());
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    // Tras una escritura con el documento resultante: su versión (versionOf) pasa a ser la mínima aceptable
+    public Mono<Void> invalidate(String key, V written) {
+        return versionOf == null ? invalidate(key) : Mono.defer(() -> invalidate(key, versionOf.applyAsLong(written)));
+    }
+
+    // Sin versión de documento: borrado (nunca vuelve) o caché versionada por instante de carga
+    public Mono<Void> invalidate(String key) {
+        return Mono.defer(() -> invalidate(key, versionOf != null ? Long.MAX_VALUE : clock.millis() + 1));
+    }
+
+    public int size() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    private long sizeEvictions() {
+        synchronized (local) {
+            return local.evictions();
+        }
+    }
+
+    private double requests() {
+        return hits.count() + misses.count();
+    }
+
+    private double hitRatio(double served) {
+        double requests = requests();
+        return requests == 0 ? 0.0 : served / requests;
+    }
+
+    private Mono<V> load(String key, Function<String, Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> load = Mono.defer(() -> {
+                    long startedAt = clock.millis();
+                    Mono<V> fromSource = Mono.defer(() -> {
+                        loads.increment();
+                        return loader.apply(key);
+                    }).flatMap(value -> publish(key, new Versioned<>(value, version(value, startedAt)), self));
+                    if (shared == null) {
+                        return fromSource;
+                    }
+                    return shared.get(key)
+                            .onErrorResume(ex -> {
+                                logger.warn("No se pudo leer {} de la caché compartida {}: {}", key, name,
+                                        ex.getMessage());
+                                return Mono.empty();
+                            })
+                            .doOnNext(found -> {
+                                sharedHits.increment();
+                                putLocal(key, found.getValue(), self);
+                            })
+                            .map(Versioned::getValue)
+                            .switchIfEmpty(Mono.defer(() -> {
+                                sharedMisses.increment();
+                                return fromSource;
+                            }));
+                })
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(load);
+        return load;
+    }
+
+    // Primero L2: si rechaza la versión, una escritura ya la dejó atrás y tampoco se guarda en L1
+    private Mono<V> publish(String key, Versioned<V> loaded, AtomicReference<Mono<V>> self) {
+        if (shared == null) {
+            putLocal(key, loaded.getValue(), self);
+            return Mono.just(loaded.getValue());
+        }
+        return shared.putIfNewer(key, loaded)
+                .onErrorResume(ex -> {
+                    logger.warn("No se pudo escribir {} en la caché compartida {}: {}", key, name, ex.getMessage());
+                    return Mono.just(true);
+                })
+                .map(accepted -> {
+                    if (accepted) {
+                        putLocal(key, loaded.getValue(), self);
+                    }
+                    return loaded.getValue();
+                });
+    }
+
+    // Solo si la carga sigue vigente: una invalidación durante la carga la descarta
+    private void putLocal(String key, V value, AtomicReference<Mono<V>> self) {
+        synchronized (local) {
+            if (inFlight.get(key) == self.get()) {
+                local.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+            }
+        }
+    }
+
+    private long version(V value, long startedAt) {
+        return versionOf != null ? versionOf.applyAsLong(value) : startedAt;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.bank.pe.mscredit.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapa acotado con desalojo estilo W-TinyLFU: las claves nuevas entran a una ventana LRU pequeña (1 %) y, al
+ * salir de ella, solo pasan a la región principal (LRU) si el sketch de frecuencia las estima más pedidas que
+ * la víctima que desplazarían. Un recorrido de claves de un solo uso no vacía las entradas populares, como sí
+ * ocurre con un LRU puro. No es seguro entre hilos: quien lo usa sincroniza.
+ */
+final class TinyLfuMap<K, V> {
+
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long evictions;
+
+    TinyLfuMap(int maximumSize) {
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = Math.max(0, maximumSize - windowMaximum);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    // Cuenta el acceso aunque la clave no esté: así una clave que vuelve a pedirse gana frecuencia para entrar
+    V get(K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        return value != null ? value : main.get(key);
+    }
+
+    void put(K key, V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+            return;
+        }
+        if (main.containsKey(key)) {
+            main.put(key, value);
+            return;
+        }
+        window.put(key, value);
+        if (window.size() > windowMaximum) {
+            Iterator<Map.Entry<K, V>> eldest = window.entrySet().iterator();
+            Map.Entry<K, V> candidate = eldest.next();
+            eldest.remove();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    V remove(K key) {
+        V value = window.remove(key);
+        return value != null ? value : main.remove(key);
+    }
+
+    void clear() {
+        window.clear();
+        main.clear();
+    }
+
+    int size() {
+        return window.size() + main.size();
+    }
+
+    long evictions() {
+        return evictions;
+    }
+
+    private void admit(K candidate, V value) {
+        if (main.size() < mainMaximum) {
+            main.put(candidate, value);
+            return;
+        }
+        evictions++;
+        if (mainMaximum == 0) {
+            return;
+        }
+        Iterator<K> eldest = main.keySet().iterator();
+        K victim = eldest.next();
+        if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            eldest.remove();
+            main.put(candidate, value);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.pe.mscredit.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class Versioned<V> {
+    private V value; // null en una lápida
+    private long version;
+}
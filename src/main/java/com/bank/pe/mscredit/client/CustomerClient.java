@@ -1,23 +1,146 @@
 package com.bank.pe.mscredit.client;
 
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.config.CustomerClientProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.server.ResponseStatusException;
 import com.bank.pe.mscredit.dto.CustomerDTO;
 import com.bank.pe.mscredit.dto.CustomerResponse;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Component
 public class CustomerClient {
 
+    private static final String SERVICE = "ms-customer";
+
     private final WebClient webClient;
+    private final ReactiveCache<String, CustomerDTO> customerCache;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final CustomerClientProperties.Hedge hedge;
+    private final Counter hedgedCalls;
+
+    public CustomerClient(WebClient.Builder webClientBuilder,
+                          @LoadBalanced WebClient.Builder loadBalancedWebClientBuilder,
+                          CustomerClientProperties properties, MeterRegistry meterRegistry) {
+        // Pool propio con métricas reactor.netty.connection.provider.* y reactor.netty.http.client.*
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(SERVICE).metrics(true).build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .metrics(true, uri -> uri.replaceFirst("/getById/[^/?]+", "/getById/{id}"));
+        WebClient.Builder builder = properties.isLoadBalanced() ? loadBalancedWebClientBuilder : webClientBuilder;
+        this.webClient = builder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.customerCache = new ReactiveCache<>("customers",
+                properties.getCache().getMaximumSize(), properties.getCache().getTtl(), meterRegistry);
+
+        CircuitBreakerRegistry circuitBreakerRegistry =
+                CircuitBreakerRegistry.of(circuitBreakerConfig(properties.getCircuitBreaker()));
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(SERVICE);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+
+        // maxWaitDuration 0: en el event loop no se espera un permiso, se rechaza
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.bulkhead = bulkheadRegistry.bulkhead(SERVICE);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
 
-    public CustomerClient(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("http://localhost:8081/api/v1/customers").build();
+        this.hedge = properties.getHedge();
+        this.hedgedCalls = Counter.builder("customer.client.hedges")
+                .description("Llamadas de respaldo enviadas a ms-customer")
+                .register(meterRegistry);
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(CustomerClientProperties.CircuitBreaker settings) {
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                .recordException(CustomerClient::isFailure)
+                .build();
     }
 
     public Mono<CustomerDTO> getCustomerById(String customerId) {
+        return customerCache.get(customerId, this::loadCustomer);
+    }
+
+    CircuitBreaker.State circuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    // Con hedge activo, si la primera llamada no responde en hedge.delay se lanza otra y gana el primer valor: un
+    // error de una no descarta la otra. Si ambas fallan, firstWithValue las junta en la causa y se propaga la
+    // primera
+    private Mono<CustomerDTO> loadCustomer(String customerId) {
+        Mono<CustomerDTO> primary = protectedFetch(customerId);
+        if (!hedge.isEnabled()) {
+            return primary;
+        }
+        Mono<CustomerDTO> backup = Mono.delay(hedge.getDelay())
+                .doOnNext(tick -> hedgedCalls.increment())
+                .then(protectedFetch(customerId));
+        return Mono.firstWithValue(primary, backup)
+                .onErrorMap(ex -> Exceptions.isMultiple(ex.getCause()),
+                        ex -> Exceptions.unwrapMultiple(ex.getCause()).get(0));
+    }
+
+    private Mono<CustomerDTO> protectedFetch(String customerId) {
+        return fetchCustomerById(customerId)
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CustomerClient::isUnavailable, ex -> new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Servicio ms-customer no disponible", ex));
+    }
+
+    // Un cliente inexistente no es una falla de ms-customer; un bulkhead lleno tampoco
+    private static boolean isFailure(Throwable ex) {
+        if (ex instanceof ResponseStatusException) {
+            return ((ResponseStatusException) ex).getStatus().is5xxServerError();
+        }
+        return !(ex instanceof BulkheadFullException);
+    }
+
+    private static boolean isUnavailable(Throwable ex) {
+        return ex instanceof CallNotPermittedException
+                || ex instanceof BulkheadFullException
+                || ex instanceof WebClientRequestException;
+    }
+
+    private Mono<CustomerDTO> fetchCustomerById(String customerId) {
         return webClient.get()
                 .uri("/getById/{id}", customerId)
                 .retrieve()
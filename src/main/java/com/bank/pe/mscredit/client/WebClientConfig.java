@@ -8,9 +8,11 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
 
+    // Resuelve el host por nombre de servicio en Eureka (http://ms-customer/...). Se copia del builder @Primary
+    // de ApplicationConfig, así recibe los mismos customizers (http.client.requests) que el resto de clientes
     @Bean
     @LoadBalanced
-    public WebClient.Builder registrarWebClient() {
-        return WebClient.builder();
+    public WebClient.Builder registrarWebClient(WebClient.Builder webClientBuilder) {
+        return webClientBuilder.clone();
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,99 @@
 package com.bank.pe.mscredit.config;
 
+import com.bank.pe.mscredit.cache.CreditCacheInvalidator;
+import com.bank.pe.mscredit.cache.InMemorySharedCache;
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.SharedCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.loader.BatchLoader;
+import com.bank.pe.mscredit.money.MoneyConverters;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.schedule.AmortizationSchedule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.util.List;
+
 @Configuration
+@EnableConfigurationProperties({CustomerClientProperties.class, CustomerTypeProperties.class,
+        CreditSummaryProperties.class, PortfolioStatsProperties.class, OverdueSweepProperties.class,
+        InterestAccrualProperties.class, CreditScheduleProperties.class, EventProperties.class,
+        CreditCacheProperties.class, CreditLookupProperties.class, CreditExecutionProperties.class})
 public class ApplicationConfig {
 
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    @Primary
+    public WebClient.Builder webClientBuilder(ObjectProvider<WebClientCustomizer> customizers) {
+        return customizedBuilder(customizers);
+    }
+
+    @Bean
+    public ReactiveCache<String, CustomerCreditSummary> customerSummaryCache(CreditSummaryProperties properties,
+                                                                           MeterRegistry meterRegistry) {
+        return new ReactiveCache<>("customer-summaries", properties.getCache().getMaximumSize(),
+                properties.getCache().getTtl(), meterRegistry);
     }
 
+    @Bean
+    public ReactiveCache<String, AmortizationSchedule> creditScheduleCache(CreditScheduleProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        return new ReactiveCache<>("credit-schedules", properties.getCache().getMaximumSize(),
+                properties.getCache().getTtl(), meterRegistry);
+    }
 
+    @Bean
+    public TieredCache<Credit> creditCache(CreditCacheProperties properties, ObjectProvider<SharedCache<Credit>> shared,
+                                           MeterRegistry meterRegistry) {
+        return new TieredCache<>("credits", properties.getCreditsMaximumSize(), properties.getTtl(),
+                sharedCache(properties, shared), CreditCacheInvalidator::version, meterRegistry);
+    }
+
+    // Documentos BSON proyectados a CreditDTO, listos para CreditJsonWriter; versionados por instante de carga
+    @Bean
+    public TieredCache<List<RawBsonDocument>> customerCreditsCache(
+            CreditCacheProperties properties, ObjectProvider<SharedCache<List<RawBsonDocument>>> shared,
+            MeterRegistry meterRegistry) {
+        return new TieredCache<>("customer-credits", properties.getCustomersMaximumSize(), properties.getTtl(),
+                sharedCache(properties, shared), null, meterRegistry);
+    }
+
+    // Lecturas por id de solicitudes concurrentes: un $in por ventana en lugar de un findById por solicitud
+    @Bean
+    public BatchLoader<String, Credit> creditLoader(CreditLookupProperties properties,
+                                                    CreditRepository creditRepository, MeterRegistry meterRegistry) {
+        return new BatchLoader<>("credits", properties.getWindow(), properties.getMaxBatchSize(),
+                creditRepository::findById, creditRepository::findAllById, Credit::getId, meterRegistry);
+    }
+
+    // Money como Int64 en unidades mínimas; reemplaza las conversiones por defecto de Boot
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(MoneyConverters.converters());
+    }
+
+    // Un bean SharedCache (Redis, Hazelcast...) reemplaza al de memoria cuando el segundo nivel está activo
+    private static <V> SharedCache<V> sharedCache(CreditCacheProperties properties,
+                                                  ObjectProvider<SharedCache<V>> shared) {
+        if (!properties.getShared().isEnabled()) {
+            return null;
+        }
+        return shared.getIfAvailable(() -> new InMemorySharedCache<>(properties.getShared().getTtl()));
+    }
+
+    // Sin los customizers de Boot el WebClient no registra http.client.requests
+    private static WebClient.Builder customizedBuilder(ObjectProvider<WebClientCustomizer> customizers) {
+        WebClient.Builder builder = WebClient.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
 }
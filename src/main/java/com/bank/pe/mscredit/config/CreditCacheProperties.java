@@ -0,0 +1,22 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.cache")
+public class CreditCacheProperties {
+
+    private int creditsMaximumSize = 20_000; // Créditos por id en L1
+    private int customersMaximumSize = 10_000; // Listas de créditos por cliente en L1
+    private Duration ttl = Duration.ofSeconds(30); // Acota lo que L1 tarda en ver escrituras de otras instancias
+    private Shared shared = new Shared();
+
+    @Data
+    public static class Shared {
+        private boolean enabled = false; // Sin otro bean SharedCache se usa InMemorySharedCache
+        private Duration ttl = Duration.ofMinutes(10); // También el de las lápidas de versión
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "credits.execution")
+public class CreditExecutionProperties {
+
+    private Executor executor = Executor.BOUNDED_ELASTIC;
+    // Operaciones (los nombres de credits.operations) cuyo cómputo sale del event loop
+    private Set<String> offloaded = new LinkedHashSet<>(List.of("schedule", "import"));
+    // Cómputo puro: más hilos que núcleos solo agrega cambios de contexto
+    private int threadCap = Runtime.getRuntime().availableProcessors();
+    // Tareas en espera por hilo, con cualquier ejecutor: hasta threadCap × queueCap en total; más allá, 503
+    private int queueCap = 10_000;
+
+    public enum Executor {
+        BOUNDED_ELASTIC,
+        VIRTUAL_THREADS // Java 21+; en versiones anteriores se usa BOUNDED_ELASTIC
+    }
+}
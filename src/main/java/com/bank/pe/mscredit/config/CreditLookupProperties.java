@@ -0,0 +1,14 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.lookup")
+public class CreditLookupProperties {
+
+    private Duration window = Duration.ofMillis(2); // Espera máxima para juntar lecturas por id; cero desactiva
+    private int maxBatchSize = 100; // Ids por consulta $in; al llegar a este número el lote sale sin esperar
+}
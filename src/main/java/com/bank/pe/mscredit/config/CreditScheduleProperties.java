@@ -0,0 +1,19 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.schedule")
+public class CreditScheduleProperties {
+
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+        private int maximumSize = 5_000; // Cronogramas en memoria, hasta 600 cuotas cada uno
+        private Duration ttl = Duration.ofMinutes(10); // La clave incluye la versión: el TTL solo libera memoria
+    }
+}
@@ -0,0 +1,19 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.summary")
+public class CreditSummaryProperties {
+
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+        private int maximumSize = 10_000; // Resúmenes de cliente en memoria
+        private Duration ttl = Duration.ofSeconds(30); // Acota lo escrito por otras instancias; 0 desactiva la caché
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.customer-client")
+public class CustomerClientProperties {
+
+    private String baseUrl = "http://localhost:8081/api/v1/customers";
+    private boolean loadBalanced = false; // true: baseUrl con el nombre del servicio en Eureka (http://ms-customer/...)
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration responseTimeout = Duration.ofSeconds(2);
+    private Cache cache = new Cache();
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Cache {
+        private int maximumSize = 10_000; // Clientes en memoria
+        private Duration ttl = Duration.ofMinutes(10); // El tipo de cliente casi nunca cambia
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 64; // Llamadas simultáneas a ms-customer; el resto falla de inmediato
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(1);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = false; // Útil con loadBalanced: la segunda llamada va a otra instancia
+        private Duration delay = Duration.ofMillis(200); // Cercano al p95 de ms-customer
+    }
+}
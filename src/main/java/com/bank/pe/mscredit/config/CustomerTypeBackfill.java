@@ -0,0 +1,80 @@
+package com.bank.pe.mscredit.config;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.service.CustomerTypeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Completa customerType en los créditos creados antes de guardarlo, con el tipo que resuelve CustomerTypeService,
+ * al quedar lista la aplicación. Sin customerType el índice único parcial personal_customer_unique_idx no cubre
+ * esos créditos y un cliente personal con un crédito antiguo podría obtener otro. Es idempotente: solo toca
+ * créditos sin customerType, así que puede correr en cada arranque y en varias instancias a la vez.
+ * <p>
+ * Un cliente personal que ya tenía más de un crédito viola el índice: se registra y sus créditos restantes quedan
+ * sin customerType para revisarlos a mano.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credits.customer-type-backfill", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class CustomerTypeBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerTypeBackfill.class);
+    private static final int CONCURRENCY = 4; // Clientes resueltos a la vez, algunos en ms-customer
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CustomerTypeService customerTypeService;
+
+    public CustomerTypeBackfill(ReactiveMongoTemplate mongoTemplate, CustomerTypeService customerTypeService) {
+        this.mongoTemplate = mongoTemplate;
+        this.customerTypeService = customerTypeService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        backfill().subscribe(
+                updated -> logger.info("customerType completado en {} créditos", updated),
+                ex -> logger.error("No se pudo completar customerType en los créditos", ex));
+    }
+
+    public Mono<Long> backfill() {
+        return mongoTemplate.findDistinct(withoutType(), "customerId", Credit.class, String.class)
+                .flatMap(this::backfill, CONCURRENCY)
+                .reduce(0L, Long::sum);
+    }
+
+    // Un cliente que no se puede resolver o que viola el índice no detiene al resto
+    private Mono<Long> backfill(String customerId) {
+        return customerTypeService.resolveType(customerId)
+                .map(type -> type.toUpperCase(Locale.ROOT))
+                .filter(type -> type.equals("PERSONAL") || type.equals("EMPRESARIAL"))
+                .flatMap(type -> mongoTemplate.updateMulti(withoutType().addCriteria(
+                                Criteria.where("customerId").is(customerId)),
+                        new Update().set("customerType", type), Credit.class))
+                .map(result -> result.getModifiedCount())
+                .onErrorResume(DuplicateKeyException.class, ex -> {
+                    logger.warn("El cliente personal {} tiene más de un crédito; revisar a mano", customerId);
+                    return Mono.just(0L);
+                })
+                .onErrorResume(ex -> {
+                    logger.warn("No se pudo completar customerType del cliente {}", customerId, ex);
+                    return Mono.just(0L);
+                });
+    }
+
+    private static Query withoutType() {
+        return new Query(Criteria.where("customerType").exists(false));
+    }
+}
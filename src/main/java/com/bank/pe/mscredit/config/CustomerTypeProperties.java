@@ -0,0 +1,15 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.customer-types")
+public class CustomerTypeProperties {
+
+    private Duration syncInterval = Duration.ofSeconds(30); // Lectura incremental de customer_types
+    private Duration maxAge = Duration.ofDays(1); // Pasado este tiempo sin confirmar, se consulta ms-customer
+    private int batchSize = 1_000; // Tipos por bulkWrite al recibir actualizaciones
+}
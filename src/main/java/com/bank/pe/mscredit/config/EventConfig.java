@@ -0,0 +1,39 @@
+package com.bank.pe.mscredit.config;
+
+import com.bank.pe.mscredit.event.BroadcastCreditEventSink;
+import com.bank.pe.mscredit.event.CreditChangeFeed;
+import com.bank.pe.mscredit.event.CreditEventPublisher;
+import com.bank.pe.mscredit.event.CreditEventSink;
+import com.bank.pe.mscredit.event.MongoCreditChangeFeed;
+import com.bank.pe.mscredit.event.MongoResumeTokenStore;
+import com.bank.pe.mscredit.event.ResumeTokenStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "credits.events", name = "enabled", havingValue = "true")
+public class EventConfig {
+
+    @Bean
+    public CreditChangeFeed creditChangeFeed(ReactiveMongoTemplate mongoTemplate) {
+        return new MongoCreditChangeFeed(mongoTemplate);
+    }
+
+    @Bean
+    public ResumeTokenStore resumeTokenStore(ReactiveMongoTemplate mongoTemplate) {
+        return new MongoResumeTokenStore(mongoTemplate);
+    }
+
+    @Bean
+    public BroadcastCreditEventSink creditEventSink() {
+        return new BroadcastCreditEventSink();
+    }
+
+    @Bean
+    public CreditEventPublisher creditEventPublisher(CreditChangeFeed changeFeed, CreditEventSink sink,
+                                                     ResumeTokenStore tokenStore, EventProperties properties) {
+        return new CreditEventPublisher(changeFeed, sink, tokenStore, properties);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.events")
+public class EventProperties {
+    private boolean enabled = false; // El change stream requiere MongoDB en replica set
+    private String streamName = "credits";
+    private int batchSize = 100;
+    private Duration maxWait = Duration.ofMillis(500); // Espera máxima para completar un lote
+}
@@ -0,0 +1,21 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+@Data
+@ConfigurationProperties(prefix = "credits.interest-accrual")
+public class InterestAccrualProperties {
+
+    private boolean enabled = true;
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime runAt = LocalTime.of(1, 0); // Hora desde la que corre el devengo del día
+    private Duration checkInterval = Duration.ofMinutes(5); // Cada cuánto se comprueba si ya corrió
+    private int chunkSize = 1_000; // Créditos por cálculo y por bulkWrite
+    private int concurrency = 4; // bulkWrite en vuelo a la vez
+    private Duration lease = Duration.ofMinutes(2); // Sin renovarlo, otra instancia retoma la corrida
+}
@@ -0,0 +1,16 @@
+package com.bank.pe.mscredit.config;
+
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+public class MetricsConfig {
+
+    // Gauges de los Schedulers de Reactor (hilos activos, tareas en cola) en el registro global de Micrometer
+    @PostConstruct
+    public void enableSchedulerMetrics() {
+        Schedulers.enableMetrics();
+    }
+}
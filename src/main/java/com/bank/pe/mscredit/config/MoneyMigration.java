@@ -0,0 +1,79 @@
+package com.bank.pe.mscredit.config;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Pasa los montos guardados en soles (double o Int32) al Int64 en céntimos de Money, con un único updateMany por
+ * pipeline (MongoDB 4.2+) al quedar lista la aplicación. Es idempotente: solo toca campos que siguen en soles.
+ * Mientras corre, la lectura acepta ambos formatos, los $inc esperan a que el documento esté migrado y los
+ * agregados de portfolio_stats pueden quedar mezclados hasta la siguiente reconciliación. No invalida cachés: solo
+ * cambia el formato, y un crédito cacheado desde soles tiene los mismos montos que el documento migrado.
+ * <p>
+ * Orden de despliegue: la versión anterior lee los Int64 como double en soles (100 veces el monto) y esta versión
+ * escribe Int64 desde el primer arranque, así que no pueden convivir. Se despliega sin rolling update (estrategia
+ * Recreate: se detienen todas las instancias anteriores y luego arrancan las nuevas) y no se vuelve atrás después
+ * de migrar sin restaurar el respaldo de la colección.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credits.money-migration", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class MoneyMigration {
+
+    static final List<String> FIELDS = List.of("amount", "creditLimit", "currentDebt", "availableLimit",
+            "outstandingAmount", "accruedInterest");
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyMigration.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public MoneyMigration(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        migrate().subscribe(
+                migrated -> logger.info("Montos migrados a unidades mínimas en {} créditos", migrated),
+                ex -> logger.error("No se pudo migrar los montos a unidades mínimas", ex));
+    }
+
+    public Mono<Long> migrate() {
+        Bson filter = Filters.or(FIELDS.stream()
+                .flatMap(field -> Stream.of(Filters.type(field, BsonType.DOUBLE), Filters.type(field, BsonType.INT32)))
+                .collect(Collectors.toList()));
+        Document set = new Document();
+        FIELDS.forEach(field -> set.append(field, toMinorUnits("$" + field)));
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMap(collection -> Mono.from(collection.updateMany(filter, List.of(new Document("$set", set)))))
+                .map(result -> result.getModifiedCount());
+    }
+
+    // Vía Decimal128 para redondear half-even sobre el decimal corto (0.285 -> 28), igual que Money.of(double)
+    private static Document toMinorUnits(String field) {
+        long scale = BigDecimal.TEN.pow(Money.FRACTION_DIGITS).longValue();
+        Document minorUnits = new Document("$toLong", new Document("$round", Arrays.asList(
+                new Document("$multiply", Arrays.asList(new Document("$toDecimal", field), scale)), 0)));
+        return new Document("$cond", Arrays.asList(
+                new Document("$in", Arrays.asList(new Document("$type", field), List.of("double", "int"))),
+                minorUnits, field));
+    }
+}
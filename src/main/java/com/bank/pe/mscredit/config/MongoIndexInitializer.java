@@ -0,0 +1,63 @@
+package com.bank.pe.mscredit.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Crea los índices declarados en las entidades (@Indexed, @CompoundIndex) al arrancar, uno por uno, antes de que
+ * el servidor web acepte tráfico: sin personal_customer_unique_idx no se cumple la regla de un crédito por cliente
+ * personal. Reemplaza spring.data.mongodb.auto-index-creation, que los crea al primer uso de cada entidad en medio
+ * del tráfico.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credits.mongo-indexes", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+    // Construir un índice sobre una colección grande puede tardar; si ya existe, responde al instante
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public MongoIndexInitializer(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Corre después de crear los beans y antes de levantar el servidor web; un error detiene el arranque
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureIndexes().block(TIMEOUT);
+    }
+
+    // Un índice único que no se puede crear detiene el arranque: sin él no se cumplen las reglas que garantiza.
+    // Cualquier otro (p. ej. uno con las mismas claves y distinto nombre) se registra y no detiene al resto
+    public Mono<Void> ensureIndexes() {
+        IndexResolver indexResolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        return Flux.fromIterable(mongoTemplate.getConverter().getMappingContext().getPersistentEntities())
+                .filter(entity -> entity.isAnnotationPresent(Document.class))
+                .concatMap(entity -> Flux.fromIterable(indexResolver.resolveIndexFor(entity.getType()))
+                        .concatMap(index -> mongoTemplate.indexOps(entity.getType()).ensureIndex(index)
+                                .doOnNext(name -> logger.info("Índice {} listo en {}", name, entity.getCollection()))
+                                .onErrorResume(ex -> {
+                                    logger.error("No se pudo crear el índice {} en {}",
+                                            index.getIndexKeys(), entity.getCollection(), ex);
+                                    return isUnique(index) ? Mono.error(ex) : Mono.empty();
+                                })))
+                .then();
+    }
+
+    private static boolean isUnique(IndexDefinition index) {
+        return Boolean.TRUE.equals(index.getIndexOptions().get("unique"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.overdue-sweep")
+public class OverdueSweepProperties {
+
+    private boolean enabled = true;
+    private Duration interval = Duration.ofMinutes(5); // Cada cuánto se comprueba si ya corrió el barrido del día
+    private int shards = 4; // Particiones por hash de customerId escritas en paralelo
+    private int batchSize = 500; // Créditos por bulkWrite
+    private Duration lease = Duration.ofMinutes(2); // Sin renovarlo, otra instancia retoma la corrida
+}
@@ -0,0 +1,16 @@
+package com.bank.pe.mscredit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credits.stats")
+public class PortfolioStatsProperties {
+
+    private boolean reconcileEnabled = true;
+    private Duration reconcileDelay = Duration.ofMinutes(1); // Espera tras el arranque antes del primer recálculo
+    // Cada recálculo recorre toda la colección credits; también es lo que dura el lease de la instancia que recalcula
+    private Duration reconcileInterval = Duration.ofMinutes(15);
+}
@@ -1,22 +1,41 @@
 package com.bank.pe.mscredit.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
+import org.bson.RawBsonDocument;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.dto.CreditImportResult;
+import com.bank.pe.mscredit.dto.CreditMovementDTO;
+import com.bank.pe.mscredit.dto.CreditPatchDTO;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.dto.OverdueDebtStatus;
+import com.bank.pe.mscredit.dto.PortfolioStatsDTO;
+import com.bank.pe.mscredit.mapper.CreditJsonWriter;
+import com.bank.pe.mscredit.mapper.CreditMapper;
+import com.bank.pe.mscredit.schedule.AmortizationSchedule;
 import com.bank.pe.mscredit.service.CreditService;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import com.bank.pe.mscredit.entity.Credit;
 import javax.validation.Valid;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,17 +45,53 @@ import java.util.Map;
 public class CreditController {
 
     private static final Logger logger = LoggerFactory.getLogger(CreditController.class);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
     private final CreditService creditService;
+    private final PortfolioStatsService portfolioStatsService;
 
-    @Operation(summary = "Obtener todos los créditos", description = "Lista todos los créditos otorgados por el banco")
+    @Operation(summary = "Obtener todos los créditos",
+            description = "Lista los créditos paginados por cursor (after = último id recibido). "
+                    + "Con Accept application/x-ndjson transmite la colección completa o hasta limit")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de créditos obtenida correctamente"),
+            @ApiResponse(responseCode = "200", description = "Lista de créditos obtenida correctamente",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Credit.class)))),
+            @ApiResponse(responseCode = "400", description = "Cursor, límite o campos inválidos"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @GetMapping
-    public Flux<Credit> getAllCredits() {
-        logger.info("Obteniendo todos los créditos bancarios");
-        return creditService.listCredits();
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DataBuffer> getAllCredits(@RequestParam(required = false) String after,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) List<String> fields,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          ServerHttpResponse response) {
+        boolean streaming = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        if (!streaming) {
+            // Un arreglo JSON se arma completo en la respuesta: se acota el tamaño de página
+            if (limit == null) {
+                limit = DEFAULT_PAGE_SIZE;
+            } else if (limit > MAX_PAGE_SIZE) {
+                return Flux.error(new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "El límite máximo es " + MAX_PAGE_SIZE));
+            }
+        }
+        logger.info("Obteniendo créditos bancarios después de {} con límite {}", after, limit);
+        // El BSON de Mongo se escribe directo en la respuesta, sin pasar por Credit ni Jackson
+        Flux<RawBsonDocument> documents = creditService.listCreditDocuments(after, limit, fields);
+        return streaming
+                ? CreditJsonWriter.CREDIT.writeLines(documents, response.bufferFactory())
+                : CreditJsonWriter.CREDIT.writeArray(documents, response.bufferFactory());
+    }
+
+    @Operation(summary = "Estadísticas de la cartera",
+            description = "Exposición, deuda por tipo de crédito y deuda vencida, precalculadas en cada escritura")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas correctamente"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/stats")
+    public Mono<PortfolioStatsDTO> getPortfolioStats() {
+        return portfolioStatsService.getStats();
     }
 
     @Operation(summary = "Obtener un crédito por ID")
@@ -47,6 +102,19 @@ public class CreditController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Cronograma de cuotas de un crédito",
+            description = "Cuotas fijas calculadas con monto, tasa anual y plazo en meses (termMonths)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cronograma generado correctamente"),
+            @ApiResponse(responseCode = "404", description = "Crédito no encontrado"),
+            @ApiResponse(responseCode = "409", description = "El crédito no tiene monto o plazo válidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/{id}/schedule")
+    public Mono<AmortizationSchedule> getSchedule(@PathVariable String id) {
+        return creditService.getSchedule(id);
+    }
+
     @Operation(summary = "Registrar un nuevo crédito", description = "Registra un nuevo crédito en el sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Crédito creada exitosamente"),
@@ -62,7 +130,7 @@ public class CreditController {
         }
 
         logger.info("Intentando crear crédito", creditDTO.getCustomerId());
-        return creditService.createCredit(convertDtoToEntity(creditDTO))
+        return creditService.createCredit(CreditMapper.toEntity(creditDTO))
                 .map(savedCredit -> ResponseEntity.status(HttpStatus.CREATED)
                         .body(Map.of("message", "Crédito creado exitosamente", "id", savedCredit.getId())))
                 .onErrorResume(ResponseStatusException.class, ex -> {
@@ -74,6 +142,34 @@ public class CreditController {
                 });
     }
 
+    @Operation(summary = "Importar créditos en bloque",
+            description = "Recibe un crédito por línea NDJSON y responde una línea NDJSON por fila, "
+                    + "en el mismo orden, con el ID creado o el motivo del rechazo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por fila"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CreditImportResult> importCredits(@RequestBody Flux<CreditDTO> credits) {
+        return creditService.importCredits(credits.map(CreditMapper::toEntity));
+    }
+
+    @Operation(summary = "Importar créditos en bloque desde CSV",
+            description = "La primera línea es la cabecera: customerId,creditType,amount,creditLimit,interestRate")
+    @PostMapping(value = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CreditImportResult> importCreditsCsv(@RequestBody Flux<String> lines) {
+        return creditService.importCredits(lines
+                .filter(line -> !line.isBlank())
+                .switchOnFirst((first, all) -> {
+                    if (!first.hasValue()) {
+                        return first.isOnError() ? Flux.error(first.getThrowable()) : Flux.empty();
+                    }
+                    String[] header = first.get().split(",");
+                    return all.skip(1).map(line -> CreditMapper.toEntity(CreditMapper.fromCsv(header, line)));
+                }));
+    }
+
     @Operation(summary = "Actualizar el monto de un crédito", description = "Modifica el monto de un crédito")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Monto de crédito actualizado correctamente"),
@@ -82,11 +178,58 @@ public class CreditController {
     })
     @PutMapping("/{id}")
     public Mono<ResponseEntity<Credit>> updateCredit(@PathVariable String id, @RequestBody CreditDTO creditDTO) {
-        return creditService.updateCredit(id, convertDtoToEntity(creditDTO))
+        return creditService.updateCredit(id, CreditMapper.toEntity(creditDTO))
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Actualizar parcialmente un crédito",
+            description = "Aplica solo los campos enviados en una única operación atómica. Los campos *Delta "
+                    + "incrementan o disminuyen el valor actual; version habilita el control optimista")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Crédito actualizado correctamente"),
+            @ApiResponse(responseCode = "400", description = "Actualización vacía o contradictoria"),
+            @ApiResponse(responseCode = "404", description = "Crédito no encontrado"),
+            @ApiResponse(responseCode = "409", description = "La versión enviada no es la actual"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Credit>> patchCredit(@PathVariable String id, @RequestBody CreditPatchDTO patch) {
+        return creditService.patchCredit(id, patch)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Consumir línea de un crédito",
+            description = "Reserva el monto sobre la línea disponible y lo suma a la deuda. Los consumos simultáneos "
+                    + "sobre un mismo crédito se escriben juntos en una sola operación atómica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consumo registrado; devuelve el crédito actualizado"),
+            @ApiResponse(responseCode = "400", description = "Monto inválido"),
+            @ApiResponse(responseCode = "404", description = "Crédito no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Línea insuficiente o crédito sin línea"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping("/{id}/consume")
+    public Mono<ResponseEntity<Credit>> consume(@PathVariable String id, @RequestBody CreditMovementDTO movement) {
+        return creditService.consume(id, movement.getAmount())
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Pagar deuda de un crédito",
+            description = "Resta el monto de la deuda y lo devuelve a la línea disponible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pago registrado; devuelve el crédito actualizado"),
+            @ApiResponse(responseCode = "400", description = "Monto inválido"),
+            @ApiResponse(responseCode = "404", description = "Crédito no encontrado"),
+            @ApiResponse(responseCode = "409", description = "El pago excede la deuda o el crédito no tiene línea"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping("/{id}/repay")
+    public Mono<ResponseEntity<Credit>> repay(@PathVariable String id, @RequestBody CreditMovementDTO movement) {
+        return creditService.repay(id, movement.getAmount())
+                .map(ResponseEntity::ok);
+    }
+
     @Operation(summary = "Eliminar un crédito", description = "Elimina una crédito del sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Crédito eliminada exitosamente"),
@@ -102,18 +245,30 @@ public class CreditController {
 
     @Operation(summary = "Obtener todos los créditos de un cliente", description = "Lista los créditos por cliente")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de créditos obtenida correctamente"),
+            @ApiResponse(responseCode = "200", description = "Lista de créditos obtenida correctamente",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = CreditDTO.class)))),
+            @ApiResponse(responseCode = "404", description = "El cliente no tiene créditos"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @GetMapping("/customer/{id}")
-    public Flux<CreditDTO> getCreditProductsByCustomer(@PathVariable String id) {
+    @GetMapping(value = "/customer/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> getCreditProductsByCustomer(@PathVariable String id, ServerHttpResponse response) {
         logger.info("Obteniendo todos los créditos bancarios del cliente con ID: {}", id);
 
-        return creditService.getCreditProductsByCustomer(id)
-                .map(this::convertToDTO)
-                .switchIfEmpty(Flux.error(new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "No se encontraron créditos para este cliente")));
+        // Se escriben solo los campos de CreditDTO, sin armar el DTO
+        return CreditJsonWriter.CREDIT_DTO.writeArray(creditService.getCreditDocumentsByCustomer(id),
+                response.bufferFactory());
+    }
 
+    @Operation(summary = "Resumen de créditos de un cliente",
+            description = "Totales, cantidad por tipo de crédito, próximo vencimiento y deuda vencida")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen obtenido correctamente"),
+            @ApiResponse(responseCode = "404", description = "El cliente no tiene créditos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/customer/{id}/summary")
+    public Mono<CustomerCreditSummary> getCustomerSummary(@PathVariable String id) {
+        return creditService.getCustomerSummary(id);
     }
 
     @Operation(summary = "Obtener todos los créditos", description = "Lista todos los créditos otorgados por el banco")
@@ -125,29 +280,38 @@ public class CreditController {
     public Mono<Boolean> hasOverdueDebt(@PathVariable String id) {
         return creditService.hasOverdueDebt(id);
     }
-    private CreditDTO convertToDTO(Credit credit) {
-        return new CreditDTO(
-                credit.getId(),
-                credit.getCustomerId(),
-                credit.getCreditType(),
-                credit.getAmount(),
-                credit.getCreditLimit(),
-                credit.getInterestRate());
-    }
-
-    private Credit convertDtoToEntity(CreditDTO creditDTO) {
-        return new Credit(
-                null,
-                creditDTO.getCustomerId(),
-                creditDTO.getAmount(),
-                creditDTO.getCreditType(),
-                creditDTO.getCreditLimit(),
-                creditDTO.getInterestRate(),
-                0.0,
-                0.0,
-                null,
-                0.0,
-                null
-        );
+
+    @Operation(summary = "Verificar deuda vencida de varios clientes",
+            description = "Recibe un arreglo JSON de IDs de cliente y responde una línea NDJSON por cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado de deuda vencida por cliente"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping(value = "/hasOverdueDebt", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OverdueDebtStatus> hasOverdueDebt(@RequestBody Mono<List<String>> customerIds) {
+        return creditService.hasOverdueDebt(customerIds.flatMapIterable(ids -> ids));
+    }
+
+    @Operation(summary = "Verificar deuda vencida de varios clientes en streaming",
+            description = "Recibe un ID de cliente por línea (NDJSON o texto) y responde una línea NDJSON por cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado de deuda vencida por cliente"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping(value = "/hasOverdueDebt",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OverdueDebtStatus> hasOverdueDebtStream(@RequestBody Flux<String> lines) {
+        return creditService.hasOverdueDebt(lines.map(CreditController::customerId).filter(id -> !id.isEmpty()));
+    }
+
+    // Una línea NDJSON es un string JSON ("123"); en texto plano llega sin comillas
+    private static String customerId(String line) {
+        String id = line.trim();
+        if (id.length() >= 2 && id.startsWith("\"") && id.endsWith("\"")) {
+            return id.substring(1, id.length() - 1);
+        }
+        return id;
     }
 }
@@ -0,0 +1,35 @@
+package com.bank.pe.mscredit.controllers;
+
+import com.bank.pe.mscredit.event.BroadcastCreditEventSink;
+import com.bank.pe.mscredit.event.CreditEvent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/v1/credits/events")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "credits.events", name = "enabled", havingValue = "true")
+@Tag(name = "Credit Events API", description = "Eventos de cambios en créditos")
+public class CreditEventController {
+
+    private final BroadcastCreditEventSink eventSink;
+
+    @Operation(summary = "Suscribirse a eventos de créditos",
+            description = "Emite CREDIT_CREATED, CREDIT_UPDATED y CREDIT_DELETED mientras la conexión esté abierta")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CreditEvent>> streamEvents() {
+        return eventSink.events()
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getEventId())
+                        .event(event.getType().name())
+                        .build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.bank.pe.mscredit.controllers;
+
+import com.bank.pe.mscredit.dto.CustomerTypeDTO;
+import com.bank.pe.mscredit.entity.CustomerType;
+import com.bank.pe.mscredit.service.CustomerTypeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/credits/customer-types")
+@RequiredArgsConstructor
+@Tag(name = "Customer Type API", description = "Proyección local del tipo de cliente de ms-customer")
+public class CustomerTypeController {
+
+    private final CustomerTypeService customerTypeService;
+
+    @Operation(summary = "Cargar o actualizar tipos de cliente",
+            description = "Acepta un arreglo JSON o NDJSON; sirve para la carga inicial y para cambios incrementales. "
+                    + "Los cambios con updatedAt anterior al guardado se ignoran")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cantidad de tipos de cliente aplicados"),
+            @ApiResponse(responseCode = "400", description = "Tipo de cliente no válido")
+    })
+    @PutMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<Map<String, Long>> upsertCustomerTypes(@RequestBody Flux<CustomerTypeDTO> customerTypes) {
+        return customerTypeService.upsert(customerTypes
+                        .map(dto -> new CustomerType(dto.getCustomerId(), dto.getType(), dto.getUpdatedAt(), null)))
+                .map(updated -> Map.of("updated", updated));
+    }
+}
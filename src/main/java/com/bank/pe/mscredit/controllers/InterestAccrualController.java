@@ -0,0 +1,37 @@
+package com.bank.pe.mscredit.controllers;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.service.InterestAccrualService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/credits/interest-accrual")
+@RequiredArgsConstructor
+@Tag(name = "Interest Accrual API", description = "Devengo diario de intereses")
+public class InterestAccrualController {
+
+    private final InterestAccrualService interestAccrualService;
+
+    @Operation(summary = "Avance del devengo de intereses",
+            description = "Estado de la corrida actual o de la última: revisados, devengados y duración")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del devengo"),
+            @ApiResponse(responseCode = "404", description = "El devengo aún no se ha ejecutado")
+    })
+    @GetMapping
+    public Mono<BatchJob> getProgress() {
+        return interestAccrualService.getProgress()
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "El devengo de intereses aún no se ha ejecutado")));
+    }
+}
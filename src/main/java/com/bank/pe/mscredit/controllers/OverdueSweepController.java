@@ -0,0 +1,37 @@
+package com.bank.pe.mscredit.controllers;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.service.OverdueSweepService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/credits/overdue-sweep")
+@RequiredArgsConstructor
+@Tag(name = "Overdue Sweep API", description = "Barrido diario que marca los créditos vencidos")
+public class OverdueSweepController {
+
+    private final OverdueSweepService overdueSweepService;
+
+    @Operation(summary = "Avance del barrido de vencidos",
+            description = "Estado de la corrida actual o de la última: revisados, marcados por partición y duración")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del barrido"),
+            @ApiResponse(responseCode = "404", description = "El barrido aún no se ha ejecutado")
+    })
+    @GetMapping
+    public Mono<BatchJob> getProgress() {
+        return overdueSweepService.getProgress()
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "El barrido de vencidos aún no se ha ejecutado")));
+    }
+}
@@ -1,9 +1,14 @@
 package com.bank.pe.mscredit.dto;
 
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.schedule.AmortizationCalculator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -11,7 +16,10 @@ public class CreditDTO {
     private String id;
     private String customerId; // Relación con Cliente
     private String creditType; // "personal", "Empresarial"
-    private Double amount; // Monto del crédito
-    private Double creditLimit; // Límite del crédito
+    private Money amount; // Monto del crédito
+    private Money creditLimit; // Límite del crédito
     private Double interestRate;  // Tasa de interés aplicada
+    @Min(1)
+    @Max(AmortizationCalculator.MAX_TERM_MONTHS)
+    private Integer termMonths; // Plazo en cuotas mensuales
 }
@@ -0,0 +1,24 @@
+package com.bank.pe.mscredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreditImportResult {
+    private long row; // Posición en el archivo, desde 1 sin contar la cabecera
+    private String status; // CREATED o REJECTED
+    private String id; // ID del crédito creado
+    private String customerId;
+    private String error; // Motivo del rechazo
+
+    public static CreditImportResult created(long row, String id, String customerId) {
+        return new CreditImportResult(row, "CREATED", id, customerId, null);
+    }
+
+    public static CreditImportResult rejected(long row, String customerId, String error) {
+        return new CreditImportResult(row, "REJECTED", null, customerId, error);
+    }
+}
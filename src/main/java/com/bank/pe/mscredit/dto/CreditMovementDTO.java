@@ -0,0 +1,9 @@
+package com.bank.pe.mscredit.dto;
+
+import com.bank.pe.mscredit.money.Money;
+import lombok.Data;
+
+@Data
+public class CreditMovementDTO {
+    private Money amount; // Monto del consumo o del pago; debe ser mayor a cero
+}
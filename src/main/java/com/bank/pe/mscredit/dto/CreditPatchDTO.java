@@ -0,0 +1,22 @@
+package com.bank.pe.mscredit.dto;
+
+import com.bank.pe.mscredit.money.Money;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class CreditPatchDTO {
+    private Long version; // Versión esperada; si no coincide la actualización se rechaza con 409
+    private String creditType;
+    private Money creditLimit;
+    private Double interestRate;
+    private Integer termMonths;
+    private LocalDate dueDate;
+    private Money currentDebt;
+    private Money availableLimit;
+    private Money outstandingAmount;
+    private Money currentDebtDelta; // Incremento atómico ($inc), negativo para disminuir
+    private Money availableLimitDelta;
+    private Money outstandingAmountDelta;
+}
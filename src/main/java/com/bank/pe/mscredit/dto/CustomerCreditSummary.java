@@ -0,0 +1,24 @@
+package com.bank.pe.mscredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerCreditSummary {
+    private String customerId;
+    private long creditCount;
+    private Map<String, Long> creditsByType; // Cantidad de créditos por creditType
+    private double totalAmount;
+    private double totalCreditLimit;
+    private double totalCurrentDebt;
+    private double totalAvailableLimit;
+    private double totalOutstandingAmount;
+    private LocalDate nextDueDate; // Vencimiento más próximo desde hoy; null si no hay
+    private boolean hasOverdueDebt;
+}
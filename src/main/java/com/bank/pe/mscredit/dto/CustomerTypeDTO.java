@@ -0,0 +1,16 @@
+package com.bank.pe.mscredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerTypeDTO {
+    private String customerId;
+    private String type; // PERSONAL o EMPRESARIAL
+    private Instant updatedAt; // Momento del cambio en ms-customer; si falta se usa la hora de recepción
+}
@@ -0,0 +1,13 @@
+package com.bank.pe.mscredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OverdueDebtStatus {
+    private String customerId;
+    private boolean hasOverdueDebt;
+}
@@ -0,0 +1,24 @@
+package com.bank.pe.mscredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioStatsDTO {
+    private long creditCount;
+    private double totalAmount;
+    private double totalCreditLimit; // Exposición total
+    private double totalCurrentDebt;
+    private double totalOutstandingAmount;
+    private long overdueCount;
+    private double overdueAmount;
+    private Map<String, Long> creditsByType;
+    private Map<String, Double> debtByType; // currentDebt por creditType
+    private Instant reconciledAt; // Recálculo completo más antiguo entre los tipos; null si aún no hubo
+}
@@ -0,0 +1,40 @@
+package com.bank.pe.mscredit.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Estado de un proceso diario sobre la cartera (barrido de vencidos, devengo de intereses). Un documento por
+ * proceso: hace de lease entre instancias y guarda el avance de la corrida en curso para reanudarla si la
+ * instancia que la ejecuta se cae.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "batch_jobs")
+public class BatchJob {
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String id; // Nombre del proceso
+    private String owner; // Instancia que tiene el lease
+    private Instant leaseUntil;
+    private LocalDate runDate; // Día que procesa la corrida
+    private LocalDate fromDate; // Inicio de la ventana de la corrida; null = sin límite inferior
+    private String status;
+    private Instant startedAt;
+    private Instant completedAt;
+    private Long durationMs; // Desde startedAt, incluidas las reanudaciones
+    private long scanned;
+    private long updated;
+    private Map<String, Long> updatedByShard; // Solo en los procesos particionados
+    private LocalDate lastCompletedDate;
+}
@@ -1,34 +1,63 @@
 package com.bank.pe.mscredit.entity;
 
+import com.bank.pe.mscredit.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.bson.codecs.pojo.annotations.BsonId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "credits")
+@CompoundIndexes({
+        @CompoundIndex(name = "customer_due_outstanding_idx",
+                def = "{'customerId': 1, 'dueDate': 1, 'outstandingAmount': 1}"),
+        // Un cliente personal solo puede tener un crédito: lo garantiza Mongo al insertar
+        @CompoundIndex(name = "personal_customer_unique_idx", def = "{'customerId': 1}",
+                unique = true, partialFilter = "{'customerType': 'PERSONAL'}"),
+        // Cubre la consulta de deuda vencida por cliente sin leer documentos
+        @CompoundIndex(name = "customer_overdue_idx", def = "{'customerId': 1, 'overdue': 1}")
+})
 public class Credit {
     @BsonId
     private String id;
     private String customerId; // Relación con Cliente
-    private Double amount; //monto
+    private Money amount; //monto, en céntimos (Int64) en MongoDB
     private String creditType; // "personal", "empresarial", "tarjeta de crédito"
     private Double interestRate; // tasa de interés
-    private Double creditLimit; // límite de crédito
-    private Double currentDebt; // deuda actual
-    private Double availableLimit; //límite disponible
+    private Integer termMonths; // Plazo en cuotas mensuales
+    private Money creditLimit; // límite de crédito
+    private Money currentDebt; // deuda actual
+    private Money availableLimit; //límite disponible
+    @Indexed(name = "due_date_idx")
     private LocalDate dueDate; // fecha de vencimiento
-    private Double outstandingAmount; // deuda pendiente
-    private LocalDateTime createdAt; // Fecha de adquisición del crédito
+    private Money outstandingAmount; // deuda pendiente
+    @Indexed(name = "created_at_idx")
+    private LocalDateTime createdAt; // Fecha de adquisición del crédito; la fija CreditMapper.toEntity al crearlo
+    private String customerType; // PERSONAL o EMPRESARIAL, tomado de ms-customer al crear
+    private Boolean overdue; // Vencido con deuda pendiente; lo fijan las escrituras y el barrido diario
+    private LocalDate overdueSince; // Primer día vencido
+    @Indexed(name = "last_accrual_date_idx")
+    private LocalDate lastAccrualDate; // Último día con interés devengado
+    private Money accruedInterest; // Interés devengado acumulado, ya incluido en outstandingAmount
+    @Version
+    private Long version; // Se incrementa en cada actualización
 
-    public Credit() {
-        this.createdAt = LocalDateTime.now();
+    // Misma condición que existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan
+    public boolean isPastDue(LocalDate today) {
+        return dueDate != null && dueDate.isBefore(today)
+                && outstandingAmount != null && outstandingAmount.isPositive();
     }
 
 
@@ -0,0 +1,26 @@
+package com.bank.pe.mscredit.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Proyección local de ms-customer: solo el tipo de cada cliente, que es lo único que necesita crear un crédito.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "customer_types")
+public class CustomerType {
+    @Id
+    private String id; // customerId
+    private String type; // PERSONAL o EMPRESARIAL
+    private Instant updatedAt; // Versión del dato en ms-customer; gana la más reciente
+    @Indexed
+    private Instant syncedAt; // Última escritura en esta colección, usada para la sincronización incremental
+}
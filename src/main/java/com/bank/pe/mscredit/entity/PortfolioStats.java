@@ -0,0 +1,40 @@
+package com.bank.pe.mscredit.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Agregados de la cartera por tipo de crédito. Se mantienen con $inc en cada escritura de credits y la
+ * reconciliación periódica los recalcula desde cero. Los montos van en céntimos (Int64), como Money, para que los
+ * $inc sean exactos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "portfolio_stats")
+public class PortfolioStats {
+    @Id
+    private String id; // creditType
+    private long creditCount;
+    private long totalAmount;
+    private long totalCreditLimit; // Exposición
+    private long totalCurrentDebt;
+    private long totalOutstandingAmount;
+    private long overdueCount; // Vencidos con deuda pendiente
+    private long overdueAmount; // Deuda pendiente de los vencidos
+    private Instant reconciledAt; // Último recálculo completo; no cambia con los $inc
+
+    public PortfolioStats(String id) {
+        this.id = id;
+    }
+
+    public boolean isEmpty() {
+        return creditCount == 0 && totalAmount == 0 && totalCreditLimit == 0 && totalCurrentDebt == 0
+                && totalOutstandingAmount == 0 && overdueCount == 0 && overdueAmount == 0;
+    }
+}
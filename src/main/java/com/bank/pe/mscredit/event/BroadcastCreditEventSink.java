@@ -0,0 +1,26 @@
+package com.bank.pe.mscredit.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+/**
+ * Reenvía los eventos a los consumidores conectados por /api/v1/credits/events.
+ * Un consumidor lento pierde eventos en lugar de frenar al publicador; debe reconectarse y reconciliar.
+ */
+public class BroadcastCreditEventSink implements CreditEventSink {
+
+    private final Sinks.Many<CreditEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<Void> publish(List<CreditEvent> events) {
+        // Sin suscriptores tryEmitNext descarta el evento: el token avanza igual
+        return Mono.fromRunnable(() -> events.forEach(sink::tryEmitNext));
+    }
+
+    public Flux<CreditEvent> events() {
+        return sink.asFlux();
+    }
+}
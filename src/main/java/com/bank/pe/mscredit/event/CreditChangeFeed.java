@@ -0,0 +1,10 @@
+package com.bank.pe.mscredit.event;
+
+import org.bson.BsonValue;
+import reactor.core.publisher.Flux;
+
+public interface CreditChangeFeed {
+
+    // Cambios confirmados en la colección credits a partir de resumeToken (null = desde ahora)
+    Flux<CreditEvent> changes(BsonValue resumeToken);
+}
@@ -0,0 +1,24 @@
+package com.bank.pe.mscredit.event;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.BsonValue;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreditEvent {
+    private String eventId; // Token de reanudación del change stream
+    private CreditEventType type;
+    private String creditId;
+    private String customerId; // null en CREDIT_DELETED: el change stream solo trae el _id
+    private Credit credit; // Documento completo después del cambio, null en CREDIT_DELETED
+    private Instant occurredAt;
+    @JsonIgnore
+    private BsonValue resumeToken;
+}
@@ -0,0 +1,76 @@
+package com.bank.pe.mscredit.event;
+
+import com.bank.pe.mscredit.config.EventProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sigue el change stream de credits, agrupa los eventos en lotes y los publica en el sink.
+ * El token de reanudación se guarda después de cada lote publicado: al reiniciar se continúa
+ * desde el último lote confirmado (entrega al menos una vez).
+ */
+public class CreditEventPublisher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CreditEventPublisher.class);
+
+    private final CreditChangeFeed changeFeed;
+    private final CreditEventSink sink;
+    private final ResumeTokenStore tokenStore;
+    private final EventProperties properties;
+    private volatile Disposable subscription;
+
+    public CreditEventPublisher(CreditChangeFeed changeFeed, CreditEventSink sink, ResumeTokenStore tokenStore,
+                                EventProperties properties) {
+        this.changeFeed = changeFeed;
+        this.sink = sink;
+        this.tokenStore = tokenStore;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        String stream = properties.getStreamName();
+        subscription = tokenStore.load(stream)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(token -> logger.info("Iniciando publicación de eventos de créditos, reanudando: {}",
+                        token.isPresent()))
+                .flatMapMany(token -> changeFeed.changes(token.orElse(null)))
+                .bufferTimeout(properties.getBatchSize(), properties.getMaxWait())
+                .concatMap(batch -> publishBatch(stream, batch))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> logger.warn("Reintentando publicación de eventos de créditos",
+                                signal.failure())))
+                .subscribe();
+    }
+
+    private Mono<Void> publishBatch(String stream, List<CreditEvent> batch) {
+        CreditEvent last = batch.get(batch.size() - 1);
+        return sink.publish(batch)
+                .then(last.getResumeToken() == null ? Mono.empty() : tokenStore.save(stream, last.getResumeToken()))
+                .doOnSuccess(ignored -> logger.debug("Publicados {} eventos de créditos", batch.size()));
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
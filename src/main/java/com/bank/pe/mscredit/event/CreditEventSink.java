@@ -0,0 +1,11 @@
+package com.bank.pe.mscredit.event;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface CreditEventSink {
+
+    // Publica un lote completo; el token del lote se guarda solo cuando este Mono completa
+    Mono<Void> publish(List<CreditEvent> events);
+}
@@ -0,0 +1,7 @@
+package com.bank.pe.mscredit.event;
+
+public enum CreditEventType {
+    CREDIT_CREATED,
+    CREDIT_UPDATED,
+    CREDIT_DELETED
+}
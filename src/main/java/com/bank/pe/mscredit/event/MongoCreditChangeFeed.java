@@ -0,0 +1,69 @@
+package com.bank.pe.mscredit.event;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.mongodb.client.model.changestream.FullDocument;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+/**
+ * Lee el change stream de credits. Los eventos salen del oplog, por lo que solo se publican escrituras
+ * confirmadas sin escribir a una segunda colección (requiere MongoDB en replica set).
+ */
+@RequiredArgsConstructor
+public class MongoCreditChangeFeed implements CreditChangeFeed {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<CreditEvent> changes(BsonValue resumeToken) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .filter(Aggregation.newAggregation(Aggregation.match(
+                        Criteria.where("operationType").in("insert", "update", "replace", "delete"))));
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        return mongoTemplate.changeStream("credits", options.build(), Credit.class)
+                .map(this::toCreditEvent);
+    }
+
+    private CreditEvent toCreditEvent(ChangeStreamEvent<Credit> change) {
+        Credit credit = change.getBody();
+        BsonDocument documentKey = change.getRaw().getDocumentKey();
+        String creditId = documentKey == null ? null : idAsString(documentKey.get("_id"));
+        BsonValue token = change.getResumeToken();
+        return new CreditEvent(
+                token == null ? null : token.asDocument().getString("_data").getValue(),
+                toType(change),
+                creditId,
+                credit == null ? null : credit.getCustomerId(),
+                credit,
+                change.getTimestamp(),
+                token);
+    }
+
+    private CreditEventType toType(ChangeStreamEvent<Credit> change) {
+        switch (change.getOperationType()) {
+            case INSERT:
+                return CreditEventType.CREDIT_CREATED;
+            case DELETE:
+                return CreditEventType.CREDIT_DELETED;
+            default:
+                return CreditEventType.CREDIT_UPDATED;
+        }
+    }
+
+    private String idAsString(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.pe.mscredit.event;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@RequiredArgsConstructor
+public class MongoResumeTokenStore implements ResumeTokenStore {
+
+    private static final String COLLECTION = "credit_event_offsets";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<BsonValue> load(String stream) {
+        return mongoTemplate.findById(stream, Document.class, COLLECTION)
+                .filter(document -> document.getString("token") != null)
+                .map(document -> new BsonDocument("_data", new BsonString(document.getString("token"))));
+    }
+
+    @Override
+    public Mono<Void> save(String stream, BsonValue resumeToken) {
+        Update update = new Update()
+                .set("token", resumeToken.asDocument().getString("_data").getValue())
+                .set("updatedAt", Instant.now());
+        return mongoTemplate.upsert(new Query(Criteria.where("_id").is(stream)), update, COLLECTION).then();
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.pe.mscredit.event;
+
+import org.bson.BsonValue;
+import reactor.core.publisher.Mono;
+
+public interface ResumeTokenStore {
+
+    Mono<BsonValue> load(String stream);
+
+    Mono<Void> save(String stream, BsonValue resumeToken);
+}
@@ -0,0 +1,155 @@
+package com.bank.pe.mscredit.execution;
+
+import com.bank.pe.mscredit.config.CreditExecutionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decide dónde corre el cómputo de cada operación de CreditService. Las operaciones configuradas en
+ * credits.execution.offloaded pasan a un scheduler propio (bounded elastic, o hilos virtuales en Java 21+) y el
+ * event loop de Netty queda libre para atender E/S; el resto corre en el hilo que llama, sin saltos de hilo.
+ * <p>
+ * Por operación: credits.execution.queued (tareas en espera), credits.execution.active (en ejecución) y
+ * credits.execution.wait (tiempo en cola). Con la cola llena se responde 503 en vez de acumular trabajo. threadCap
+ * y queueCap significan lo mismo en los dos ejecutores: threadCap tareas a la vez y queueCap en espera por hilo, es
+ * decir, hasta threadCap × queueCap en espera antes del 503.
+ */
+@Component
+public class ExecutionPolicy implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionPolicy.class);
+
+    private final Set<String> offloaded;
+    private final Scheduler scheduler;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    public ExecutionPolicy(CreditExecutionProperties properties, MeterRegistry meterRegistry) {
+        this.offloaded = Set.copyOf(properties.getOffloaded());
+        this.scheduler = scheduler(properties);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isOffloaded(String operation) {
+        return offloaded.contains(operation);
+    }
+
+    /**
+     * Ejecuta work en el scheduler de cómputo si la operación está configurada; si no, al suscribirse. Un
+     * resultado null completa vacío, como Mono.fromCallable.
+     */
+    public <T> Mono<T> compute(String operation, Callable<T> work) {
+        if (!isOffloaded(operation)) {
+            return Mono.fromCallable(work);
+        }
+        OperationMeters operationMeters = meters.computeIfAbsent(operation, this::register);
+        return Mono.defer(() -> {
+            long queuedAt = System.nanoTime();
+            AtomicBoolean dequeued = new AtomicBoolean();
+            operationMeters.queued.incrementAndGet();
+            return Mono.fromCallable(() -> {
+                        if (dequeued.compareAndSet(false, true)) {
+                            operationMeters.queued.decrementAndGet();
+                        }
+                        operationMeters.wait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                        operationMeters.active.incrementAndGet();
+                        try {
+                            return work.call();
+                        } finally {
+                            operationMeters.active.decrementAndGet();
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    // Cancelada o rechazada antes de empezar
+                    .doFinally(signal -> {
+                        if (dequeued.compareAndSet(false, true)) {
+                            operationMeters.queued.decrementAndGet();
+                        }
+                    })
+                    .onErrorMap(RejectedExecutionException.class, ex -> new ResponseStatusException(
+                            HttpStatus.SERVICE_UNAVAILABLE, "Servicio saturado, intente nuevamente"));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private OperationMeters register(String operation) {
+        OperationMeters operationMeters = new OperationMeters(Timer.builder("credits.execution.wait")
+                .description("Tiempo en cola antes de ejecutar el cómputo")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        Gauge.builder("credits.execution.queued", operationMeters.queued, AtomicInteger::get)
+                .tag("operation", operation).register(meterRegistry);
+        Gauge.builder("credits.execution.active", operationMeters.active, AtomicInteger::get)
+                .tag("operation", operation).register(meterRegistry);
+        return operationMeters;
+    }
+
+    private static Scheduler scheduler(CreditExecutionProperties properties) {
+        if (properties.getExecutor() == CreditExecutionProperties.Executor.VIRTUAL_THREADS) {
+            ThreadFactory virtualThreads = virtualThreadFactory();
+            if (virtualThreads != null) {
+                return Schedulers.fromExecutorService(
+                        bounded(virtualThreads, properties.getThreadCap(), properties.getQueueCap()),
+                        "credits-compute");
+            }
+            logger.warn("Hilos virtuales no disponibles en Java {}; se usa bounded elastic",
+                    Runtime.version().feature());
+        }
+        return Schedulers.newBoundedElastic(properties.getThreadCap(), properties.getQueueCap(), "credits-compute");
+    }
+
+    // Mismos límites que bounded elastic, que aplica queueCap por hilo: una sola cola de threadCap × queueCap
+    static ExecutorService bounded(ThreadFactory threadFactory, int threadCap, int queueCap) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE, (long) threadCap * queueCap);
+        return new ThreadPoolExecutor(threadCap, threadCap, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Por reflexión: el proyecto compila con release 11 y Thread.ofVirtual existe desde Java 21
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private static final class OperationMeters {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer wait;
+
+        private OperationMeters(Timer wait) {
+            this.wait = wait;
+        }
+    }
+}
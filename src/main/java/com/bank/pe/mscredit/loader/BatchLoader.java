@@ -0,0 +1,126 @@
+package com.bank.pe.mscredit.loader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Agrupa las lecturas por clave que llegan dentro de una ventana (tiempo o tamaño) en una sola consulta, al estilo
+ * DataLoader: la primera clave abre la ventana, que se despacha al vencer o al juntar maxBatchSize claves distintas.
+ * Las claves repetidas comparten resultado; una clave sin documento completa vacío.
+ * <p>
+ * Un lote de una sola clave usa la consulta individual. Con ventana cero no se agrupa nada.
+ */
+public class BatchLoader<K, V> {
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Function<K, Mono<V>> single;
+    private final Function<Collection<K>, Flux<V>> batch;
+    private final Function<V, K> keyOf;
+    private final Scheduler scheduler;
+    private final Counter requests;
+    private final DistributionSummary batchSize;
+    private Batch<K, V> open; // Lote que aún acepta claves; protegido por this
+
+    public BatchLoader(String name, Duration window, int maxBatchSize, Function<K, Mono<V>> single,
+                       Function<Collection<K>, Flux<V>> batch, Function<V, K> keyOf, MeterRegistry meterRegistry) {
+        this(name, window, maxBatchSize, single, batch, keyOf, meterRegistry, Schedulers.parallel());
+    }
+
+    BatchLoader(String name, Duration window, int maxBatchSize, Function<K, Mono<V>> single,
+                Function<Collection<K>, Flux<V>> batch, Function<V, K> keyOf, MeterRegistry meterRegistry,
+                Scheduler scheduler) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.single = single;
+        this.batch = batch;
+        this.keyOf = keyOf;
+        this.scheduler = scheduler;
+        this.requests = Counter.builder("loader.requests").tag("loader", name).register(meterRegistry);
+        // count: consultas a la base; total: claves consultadas
+        this.batchSize = DistributionSummary.builder("loader.batch.size").tag("loader", name)
+                .baseUnit("keys").register(meterRegistry);
+    }
+
+    public Mono<V> load(K key) {
+        if (window.isZero() || maxBatchSize <= 1) {
+            return Mono.defer(() -> {
+                requests.increment();
+                batchSize.record(1);
+                return single.apply(key);
+            });
+        }
+        return Mono.create(sink -> enqueue(key, sink));
+    }
+
+    private void enqueue(K key, MonoSink<V> sink) {
+        requests.increment();
+        Batch<K, V> full = null;
+        Batch<K, V> opened = null;
+        synchronized (this) {
+            if (open == null) {
+                open = new Batch<>();
+                opened = open;
+            }
+            Batch<K, V> current = open;
+            current.waiters.computeIfAbsent(key, k -> new ArrayList<>(1)).add(sink);
+            if (current.waiters.size() >= maxBatchSize) {
+                open = null;
+                full = current;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        } else if (opened != null) {
+            Batch<K, V> scheduled = opened;
+            scheduler.schedule(() -> flush(scheduled), window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Al vencer la ventana; si el lote ya salió por tamaño no hay nada que hacer
+    private void flush(Batch<K, V> expired) {
+        synchronized (this) {
+            if (open != expired) {
+                return;
+            }
+            open = null;
+        }
+        dispatch(expired);
+    }
+
+    // El lote ya no es visible para enqueue: solo lo tocan las señales de la consulta, que llegan en serie
+    private void dispatch(Batch<K, V> closed) {
+        Map<K, List<MonoSink<V>>> waiters = closed.waiters;
+        batchSize.record(waiters.size());
+        Flux<V> results = Flux.defer(() -> waiters.size() == 1
+                ? single.apply(waiters.keySet().iterator().next())
+                : batch.apply(new ArrayList<>(waiters.keySet())));
+        results.subscribe(value -> {
+                    List<MonoSink<V>> sinks = waiters.remove(keyOf.apply(value));
+                    if (sinks != null) {
+                        sinks.forEach(sink -> sink.success(value));
+                    }
+                },
+                ex -> waiters.values().forEach(sinks -> sinks.forEach(sink -> sink.error(ex))),
+                () -> waiters.values().forEach(sinks -> sinks.forEach(MonoSink::success)));
+    }
+
+    private static final class Batch<K, V> {
+        private final Map<K, List<MonoSink<V>>> waiters = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,479 @@
+package com.bank.pe.mscredit.mapper;
+
+import com.bank.pe.mscredit.money.Money;
+import org.bson.RawBsonDocument;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Escribe créditos en JSON directamente desde el BSON de MongoDB (RawBsonDocument) a los DataBuffer de la
+ * respuesta, sin armar Credit ni CreditDTO ni pasar por Jackson: recorre los bytes del documento una vez y copia
+ * los textos sin decodificarlos. La salida es la misma que la de Jackson para cada vista (mismo orden de campos,
+ * null para los ausentes, Money como decimal, fechas ISO en la zona del sistema como los conversores de Spring);
+ * los nombres de campo se codifican una sola vez.
+ */
+public final class CreditJsonWriter {
+
+    public static final CreditJsonWriter CREDIT = new CreditJsonWriter(
+            field("id", Kind.ID), field("customerId", Kind.STRING), field("amount", Kind.MONEY),
+            field("creditType", Kind.STRING), field("interestRate", Kind.DOUBLE), field("termMonths", Kind.NUMBER),
+            field("creditLimit", Kind.MONEY), field("currentDebt", Kind.MONEY), field("availableLimit", Kind.MONEY),
+            field("dueDate", Kind.DATE), field("outstandingAmount", Kind.MONEY), field("createdAt", Kind.DATE_TIME),
+            field("customerType", Kind.STRING), field("overdue", Kind.BOOLEAN), field("overdueSince", Kind.DATE),
+            field("lastAccrualDate", Kind.DATE), field("accruedInterest", Kind.MONEY), field("version", Kind.NUMBER));
+
+    // Mismos campos y orden que CreditDTO
+    public static final CreditJsonWriter CREDIT_DTO = new CreditJsonWriter(
+            field("id", Kind.ID), field("customerId", Kind.STRING), field("creditType", Kind.STRING),
+            field("amount", Kind.MONEY), field("creditLimit", Kind.MONEY), field("interestRate", Kind.DOUBLE),
+            field("termMonths", Kind.NUMBER));
+
+    private static final int FRACTION_DIGITS = Money.FRACTION_DIGITS;
+    private static final long MINOR_PER_UNIT = (long) Math.pow(10, FRACTION_DIGITS);
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+    private static final byte[] EMPTY_ARRAY = bytes("[]");
+    private static final byte[] HEX = bytes("0123456789abcdef");
+    private static final byte[] ESCAPE_HEX = bytes("0123456789ABCDEF");
+
+    private final Field[] fields;
+
+    private CreditJsonWriter(Field... fields) {
+        this.fields = fields;
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].prefix = bytes((i == 0 ? "{\"" : ",\"") + fields[i].name + "\":");
+        }
+    }
+
+    // Campos de la entidad que usa la vista, para proyectar la consulta
+    public List<String> getFields() {
+        return Arrays.stream(fields).map(field -> field.name).collect(Collectors.toList());
+    }
+
+    // Arreglo JSON; un flujo vacío escribe []
+    public Flux<DataBuffer> writeArray(Flux<RawBsonDocument> documents, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            Encoder encoder = new Encoder(bufferFactory);
+            return documents.map(document -> encoder.encode(document, encoder.written == 0 ? '[' : ',', 0))
+                    .concatWith(Mono.fromSupplier(() -> encoder.written == 0
+                            ? bufferFactory.wrap(EMPTY_ARRAY)
+                            : bufferFactory.allocateBuffer(1).write((byte) ']')));
+        });
+    }
+
+    // Un documento por línea (application/x-ndjson)
+    public Flux<DataBuffer> writeLines(Flux<RawBsonDocument> documents, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            Encoder encoder = new Encoder(bufferFactory);
+            return documents.map(document -> encoder.encode(document, 0, '\n'));
+        });
+    }
+
+    private static Field field(String name, Kind kind) {
+        return new Field(name, kind);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private enum Kind {
+        ID, STRING, MONEY, DOUBLE, NUMBER, BOOLEAN, DATE, DATE_TIME
+    }
+
+    private static final class Field {
+        final String name;
+        final byte[] bsonName;
+        final Kind kind;
+        byte[] prefix;
+
+        Field(String name, Kind kind) {
+            this.name = name;
+            this.bsonName = bytes(name.equals("id") ? "_id" : name);
+            this.kind = kind;
+        }
+    }
+
+    // Estado de un flujo de respuesta; los documentos llegan en serie, así que se reutiliza entre ellos
+    private final class Encoder {
+        private final DataBufferFactory bufferFactory;
+        private final int[] offsets = new int[fields.length];
+        private final byte[] types = new byte[fields.length];
+        private final byte[] digits = new byte[20];
+        private long written;
+
+        Encoder(DataBufferFactory bufferFactory) {
+            this.bufferFactory = bufferFactory;
+        }
+
+        DataBuffer encode(RawBsonDocument document, int before, int after) {
+            ByteBuffer source = document.getByteBuffer().asNIO();
+            byte[] bson;
+            int start;
+            if (source.hasArray()) {
+                bson = source.array();
+                start = source.arrayOffset() + source.position();
+            } else {
+                bson = new byte[source.remaining()];
+                source.duplicate().get(bson);
+                start = 0;
+            }
+            index(bson, start);
+
+            DataBuffer buffer = bufferFactory.allocateBuffer(source.remaining() + 64);
+            try {
+                if (before != 0) {
+                    buffer.write((byte) before);
+                }
+                for (int i = 0; i < fields.length; i++) {
+                    buffer.write(fields[i].prefix);
+                    writeValue(buffer, fields[i], bson, offsets[i], types[i]);
+                }
+                buffer.write((byte) '}');
+                if (after != 0) {
+                    buffer.write((byte) after);
+                }
+                written++;
+                return buffer;
+            } catch (RuntimeException ex) {
+                DataBufferUtils.release(buffer);
+                throw ex;
+            }
+        }
+
+        // Un solo recorrido: guarda dónde empieza el valor de cada campo de la vista y su tipo BSON
+        private void index(byte[] bson, int start) {
+            Arrays.fill(offsets, -1);
+            int end = start + readInt(bson, start) - 1;
+            int position = start + 4;
+            while (position < end) {
+                byte type = bson[position++];
+                int nameStart = position;
+                while (bson[position] != 0) {
+                    position++;
+                }
+                int field = match(bson, nameStart, position);
+                position++;
+                if (field >= 0) {
+                    offsets[field] = position;
+                    types[field] = type;
+                }
+                position = skip(bson, position, type);
+            }
+        }
+
+        private int match(byte[] bson, int from, int to) {
+            int length = to - from;
+            for (int i = 0; i < fields.length; i++) {
+                byte[] name = fields[i].bsonName;
+                if (name.length == length && Arrays.equals(name, 0, length, bson, from, to)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void writeValue(DataBuffer buffer, Field field, byte[] bson, int offset, byte type) {
+            if (offset < 0 || type == 0x0A) {
+                buffer.write(NULL);
+                return;
+            }
+            switch (field.kind) {
+                case ID:
+                    if (type == 0x07) {
+                        writeObjectId(buffer, bson, offset);
+                        return;
+                    }
+                    writeString(buffer, field, bson, offset, type);
+                    return;
+                case STRING:
+                    writeString(buffer, field, bson, offset, type);
+                    return;
+                case MONEY:
+                    if (type == 0x12 || type == 0x10) {
+                        writeMoney(buffer, type == 0x12 ? readLong(bson, offset) : readInt(bson, offset));
+                    } else if (type == 0x01) {
+                        // Documento aún sin migrar: mismo redondeo que la lectura de Money
+                        writeAscii(buffer, Money.of(readDouble(bson, offset)).toBigDecimal().toString());
+                    } else {
+                        throw unsupported(field, type);
+                    }
+                    return;
+                case DOUBLE:
+                    writeDouble(buffer, field, bson, offset, type);
+                    return;
+                case NUMBER:
+                    if (type == 0x12) {
+                        writeLong(buffer, readLong(bson, offset));
+                    } else if (type == 0x10) {
+                        writeLong(buffer, readInt(bson, offset));
+                    } else if (type == 0x01) {
+                        writeLong(buffer, (long) readDouble(bson, offset));
+                    } else {
+                        throw unsupported(field, type);
+                    }
+                    return;
+                case BOOLEAN:
+                    if (type != 0x08) {
+                        throw unsupported(field, type);
+                    }
+                    buffer.write(bson[offset] != 0 ? TRUE : FALSE);
+                    return;
+                case DATE:
+                case DATE_TIME:
+                    if (type != 0x09) {
+                        throw unsupported(field, type);
+                    }
+                    writeDate(buffer, field.kind, readLong(bson, offset));
+                    return;
+                default:
+                    throw unsupported(field, type);
+            }
+        }
+
+        private void writeObjectId(DataBuffer buffer, byte[] bson, int offset) {
+            buffer.write((byte) '"');
+            for (int i = 0; i < 12; i++) {
+                int value = bson[offset + i] & 0xFF;
+                buffer.write(HEX[value >>> 4]);
+                buffer.write(HEX[value & 0x0F]);
+            }
+            buffer.write((byte) '"');
+        }
+
+        // Copia los bytes UTF-8 tal cual; solo se escapan comillas, barra invertida y controles, como Jackson
+        private void writeString(DataBuffer buffer, Field field, byte[] bson, int offset, byte type) {
+            if (type != 0x02) {
+                throw unsupported(field, type);
+            }
+            int from = offset + 4;
+            int to = from + readInt(bson, offset) - 1;
+            buffer.write((byte) '"');
+            int run = from;
+            for (int i = from; i < to; i++) {
+                int value = bson[i] & 0xFF;
+                if (value >= 0x20 && value != '"' && value != '\\') {
+                    continue;
+                }
+                buffer.write(bson, run, i - run);
+                writeEscaped(buffer, value);
+                run = i + 1;
+            }
+            buffer.write(bson, run, to - run);
+            buffer.write((byte) '"');
+        }
+
+        private void writeEscaped(DataBuffer buffer, int value) {
+            buffer.write((byte) '\\');
+            switch (value) {
+                case '"':
+                case '\\':
+                    buffer.write((byte) value);
+                    return;
+                case '\b':
+                    buffer.write((byte) 'b');
+                    return;
+                case '\t':
+                    buffer.write((byte) 't');
+                    return;
+                case '\n':
+                    buffer.write((byte) 'n');
+                    return;
+                case '\f':
+                    buffer.write((byte) 'f');
+                    return;
+                case '\r':
+                    buffer.write((byte) 'r');
+                    return;
+                default:
+                    buffer.write((byte) 'u');
+                    buffer.write((byte) '0');
+                    buffer.write((byte) '0');
+                    buffer.write(ESCAPE_HEX[value >>> 4]);
+                    buffer.write(ESCAPE_HEX[value & 0x0F]);
+            }
+        }
+
+        // Como BigDecimal.toString de Money.toBigDecimal(): siempre con los decimales de la moneda
+        private void writeMoney(DataBuffer buffer, long minorUnits) {
+            if (minorUnits == Long.MIN_VALUE) {
+                writeAscii(buffer, Money.ofMinor(minorUnits).toBigDecimal().toString());
+                return;
+            }
+            if (minorUnits < 0) {
+                buffer.write((byte) '-');
+                minorUnits = -minorUnits;
+            }
+            writeLong(buffer, minorUnits / MINOR_PER_UNIT);
+            if (FRACTION_DIGITS > 0) {
+                buffer.write((byte) '.');
+                writePadded(buffer, minorUnits % MINOR_PER_UNIT, FRACTION_DIGITS);
+            }
+        }
+
+        // Jackson escribe los Double con Double.toString; los enteros guardados en BSON se leen como Double
+        private void writeDouble(DataBuffer buffer, Field field, byte[] bson, int offset, byte type) {
+            double value;
+            if (type == 0x01) {
+                value = readDouble(bson, offset);
+            } else if (type == 0x10) {
+                value = readInt(bson, offset);
+            } else if (type == 0x12) {
+                value = readLong(bson, offset);
+            } else {
+                throw unsupported(field, type);
+            }
+            if (Double.isFinite(value)) {
+                writeAscii(buffer, Double.toString(value));
+            } else {
+                writeAscii(buffer, "\"" + value + "\"");
+            }
+        }
+
+        // Date de BSON a la fecha u hora local de la zona del sistema, igual que los conversores JSR-310 de Spring
+        private void writeDate(DataBuffer buffer, Kind kind, long epochMillis) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+            if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+                writeAscii(buffer, "\"" + (kind == Kind.DATE ? dateTime.toLocalDate().toString()
+                        : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime)) + "\"");
+                return;
+            }
+            buffer.write((byte) '"');
+            writeLocalDate(buffer, dateTime.toLocalDate());
+            if (kind == Kind.DATE_TIME) {
+                buffer.write((byte) 'T');
+                writePadded(buffer, dateTime.getHour(), 2);
+                buffer.write((byte) ':');
+                writePadded(buffer, dateTime.getMinute(), 2);
+                buffer.write((byte) ':');
+                writePadded(buffer, dateTime.getSecond(), 2);
+                int millis = dateTime.getNano() / 1_000_000;
+                if (millis > 0) {
+                    // ISO_LOCAL_DATE_TIME omite los ceros finales de la fracción
+                    int digitCount = millis % 100 == 0 ? 1 : millis % 10 == 0 ? 2 : 3;
+                    buffer.write((byte) '.');
+                    writePadded(buffer, millis / (digitCount == 1 ? 100 : digitCount == 2 ? 10 : 1), digitCount);
+                }
+            }
+            buffer.write((byte) '"');
+        }
+
+        private void writeLocalDate(DataBuffer buffer, LocalDate date) {
+            writePadded(buffer, date.getYear(), 4);
+            buffer.write((byte) '-');
+            writePadded(buffer, date.getMonthValue(), 2);
+            buffer.write((byte) '-');
+            writePadded(buffer, date.getDayOfMonth(), 2);
+        }
+
+        private void writeLong(DataBuffer buffer, long value) {
+            if (value == Long.MIN_VALUE) {
+                writeAscii(buffer, Long.toString(value));
+                return;
+            }
+            if (value < 0) {
+                buffer.write((byte) '-');
+                value = -value;
+            }
+            int position = digits.length;
+            do {
+                digits[--position] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            buffer.write(digits, position, digits.length - position);
+        }
+
+        private void writePadded(DataBuffer buffer, long value, int width) {
+            int position = digits.length;
+            for (int i = 0; i < width || value > 0; i++) {
+                digits[--position] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            buffer.write(digits, position, digits.length - position);
+        }
+
+        private void writeAscii(DataBuffer buffer, String value) {
+            buffer.write(value.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    // Salta el valor de un elemento BSON de cualquier tipo que pueda aparecer en un documento
+    private static int skip(byte[] bson, int position, byte type) {
+        switch (type) {
+            case 0x01:
+            case 0x09:
+            case 0x11:
+            case 0x12:
+                return position + 8;
+            case 0x02:
+            case 0x0D:
+            case 0x0E:
+                return position + 4 + readInt(bson, position);
+            case 0x03:
+            case 0x04:
+            case 0x0F:
+                return position + readInt(bson, position);
+            case 0x05:
+                return position + 5 + readInt(bson, position);
+            case 0x06:
+            case 0x0A:
+            case (byte) 0xFF:
+            case 0x7F:
+                return position;
+            case 0x07:
+                return position + 12;
+            case 0x08:
+                return position + 1;
+            case 0x0B:
+                while (bson[position++] != 0) {
+                    // patrón
+                }
+                while (bson[position++] != 0) {
+                    // opciones
+                }
+                return position;
+            case 0x0C:
+                return position + 4 + readInt(bson, position) + 12;
+            case 0x10:
+                return position + 4;
+            case 0x13:
+                return position + 16;
+            default:
+                throw new IllegalStateException("Tipo BSON desconocido: " + type);
+        }
+    }
+
+    private static IllegalStateException unsupported(Field field, byte type) {
+        return new IllegalStateException("Tipo BSON " + type + " no soportado en el campo " + field.name);
+    }
+
+    private static int readInt(byte[] bson, int position) {
+        return (bson[position] & 0xFF)
+                | (bson[position + 1] & 0xFF) << 8
+                | (bson[position + 2] & 0xFF) << 16
+                | (bson[position + 3] & 0xFF) << 24;
+    }
+
+    private static long readLong(byte[] bson, int position) {
+        return (readInt(bson, position) & 0xFFFFFFFFL) | ((long) readInt(bson, position + 4) << 32);
+    }
+
+    private static double readDouble(byte[] bson, int position) {
+        return Double.longBitsToDouble(readLong(bson, position));
+    }
+}
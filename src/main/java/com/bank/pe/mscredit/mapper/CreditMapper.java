@@ -0,0 +1,100 @@
+package com.bank.pe.mscredit.mapper;
+
+import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+public final class CreditMapper {
+
+    private CreditMapper() {
+    }
+
+    public static CreditDTO toDTO(Credit credit) {
+        return new CreditDTO(
+                credit.getId(),
+                credit.getCustomerId(),
+                credit.getCreditType(),
+                credit.getAmount(),
+                credit.getCreditLimit(),
+                credit.getInterestRate(),
+                credit.getTermMonths());
+    }
+
+    // Crédito nuevo: sin deuda y creado ahora. Credit no fija createdAt por defecto: un documento leído con
+    // proyección quedaría con la hora de lectura
+    public static Credit toEntity(CreditDTO creditDTO) {
+        Credit credit = new Credit();
+        credit.setCreatedAt(LocalDateTime.now());
+        credit.setCustomerId(creditDTO.getCustomerId());
+        credit.setAmount(creditDTO.getAmount());
+        credit.setCreditType(creditDTO.getCreditType());
+        credit.setCreditLimit(creditDTO.getCreditLimit());
+        credit.setInterestRate(creditDTO.getInterestRate());
+        credit.setTermMonths(creditDTO.getTermMonths());
+        credit.setCurrentDebt(Money.ZERO);
+        credit.setAvailableLimit(Money.ZERO);
+        credit.setOutstandingAmount(Money.ZERO);
+        return credit;
+    }
+
+    // Fila CSV sin comillas; las columnas se toman por nombre de la cabecera. Un número inválido queda en null
+    public static CreditDTO fromCsv(String[] header, String line) {
+        String[] values = line.split(",", -1);
+        CreditDTO creditDTO = new CreditDTO();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String value = values[i].trim();
+            switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                case "customerid":
+                    creditDTO.setCustomerId(value.isEmpty() ? null : value);
+                    break;
+                case "credittype":
+                    creditDTO.setCreditType(value.isEmpty() ? null : value);
+                    break;
+                case "amount":
+                    creditDTO.setAmount(parseMoney(value));
+                    break;
+                case "creditlimit":
+                    creditDTO.setCreditLimit(parseMoney(value));
+                    break;
+                case "interestrate":
+                    creditDTO.setInterestRate(parseDouble(value));
+                    break;
+                case "termmonths":
+                    creditDTO.setTermMonths(parseInteger(value));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return creditDTO;
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return value.isEmpty() ? null : Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    // Sin pasar por double: "0.10" queda en 10 céntimos exactos
+    private static Money parseMoney(String value) {
+        try {
+            return value.isEmpty() ? null : Money.of(new BigDecimal(value));
+        } catch (NumberFormatException | ArithmeticException ex) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return value.isEmpty() ? null : Double.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.pe.mscredit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Timers y contadores de error por operación de CreditService.
+ * <p>
+ * credits.operations (operation, outcome) mide desde la suscripción hasta la señal terminal, con histograma
+ * de percentiles para Prometheus; credits.operations.errors (operation, status, exception) cuenta los fallos.
+ * credits.limit.flush.size cuenta los consumos y pagos que entraron en cada $inc sobre la línea de un crédito.
+ */
+@Component
+public class CreditMetrics {
+
+    static final String TIMER = "credits.operations";
+    static final String ERRORS = "credits.operations.errors";
+    static final String LIMIT_FLUSH = "credits.limit.flush.size";
+
+    private final MeterRegistry meterRegistry;
+
+    public CreditMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> timed(String operation, Mono<T> source) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return source
+                    .doOnSuccess(value -> stop(sample, operation, "success"))
+                    .doOnError(ex -> failed(sample, operation, ex))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled"));
+        });
+    }
+
+    public <T> Flux<T> timed(String operation, Flux<T> source) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return source
+                    .doOnComplete(() -> stop(sample, operation, "success"))
+                    .doOnError(ex -> failed(sample, operation, ex))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled"));
+        });
+    }
+
+    public void recordLimitFlush(int movements) {
+        DistributionSummary.builder(LIMIT_FLUSH)
+                .description("Movimientos de línea escritos en un mismo $inc")
+                .register(meterRegistry)
+                .record(movements);
+    }
+
+    private void failed(Timer.Sample sample, String operation, Throwable ex) {
+        stop(sample, operation, "error");
+        String status = ex instanceof ResponseStatusException
+                ? String.valueOf(((ResponseStatusException) ex).getRawStatusCode())
+                : "500";
+        Counter.builder(ERRORS)
+                .description("Operaciones de créditos que terminaron en error")
+                .tag("operation", operation)
+                .tag("status", status)
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void stop(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder(TIMER)
+                .description("Latencia de las operaciones de créditos")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,143 @@
+package com.bank.pe.mscredit.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Monto en soles, en unidades mínimas (céntimos) en un long: sumas y restas exactas, sin el error acumulado del
+ * double. En MongoDB se guarda como Int64 en unidades mínimas (MoneyConverters); en JSON como número decimal en
+ * soles, igual que antes. Todos los montos del servicio son en PEN: la moneda no se guarda ni se transporta.
+ */
+@Schema(type = "number", example = "1500.00")
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final Currency CURRENCY = Currency.getInstance("PEN");
+    public static final int FRACTION_DIGITS = CURRENCY.getDefaultFractionDigits();
+    public static final Money ZERO = new Money(0L);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    // El cero se comparte: es el valor más común (deuda de un crédito nuevo)
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    // Redondea half-even a los decimales del sol
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(FRACTION_DIGITS, RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact());
+    }
+
+    // Desde un double: se toma su representación decimal más corta (0.1 es 0.1, no 0.1000000000000000055...)
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, FRACTION_DIGITS);
+    }
+
+    // Solo para agregados y reportes que ya trabajan en double
+    public double doubleValue() {
+        return minorUnits / Math.pow(10, FRACTION_DIGITS);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Money)) {
+            return false;
+        }
+        return minorUnits == ((Money) other).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + CURRENCY.getCurrencyCode();
+    }
+
+    static final class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money money, JsonGenerator json, SerializerProvider provider) throws IOException {
+            json.writeNumber(money.toBigDecimal());
+        }
+    }
+
+    // Acepta número o texto en soles
+    static final class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return of(parser.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                String text = parser.getText().trim();
+                try {
+                    return text.isEmpty() ? null : of(new BigDecimal(text));
+                } catch (NumberFormatException ex) {
+                    return (Money) context.handleWeirdStringValue(Money.class, text, "monto inválido");
+                }
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bank.pe.mscredit.money;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Conversión de Money para MongoDB: se escribe como Int64 en céntimos. Solo el Int64 está en céntimos: los double
+ * y los Int32 (insertados a mano o anteriores a MoneyMigration) están en soles y se leen como tales hasta que la
+ * migración los reescriba.
+ */
+public final class MoneyConverters {
+
+    private MoneyConverters() {
+    }
+
+    public static List<Converter<?, ?>> converters() {
+        return List.of(new MoneyToLong(), new LongToMoney(), new IntegerToMoney(), new DoubleToMoney());
+    }
+
+    @WritingConverter
+    static final class MoneyToLong implements Converter<Money, Long> {
+        @Override
+        public Long convert(Money money) {
+            return money.getMinorUnits();
+        }
+    }
+
+    @ReadingConverter
+    static final class LongToMoney implements Converter<Long, Money> {
+        @Override
+        public Money convert(Long minorUnits) {
+            return Money.ofMinor(minorUnits);
+        }
+    }
+
+    // Montos enteros en soles: MoneyToLong nunca escribe Int32
+    @ReadingConverter
+    static final class IntegerToMoney implements Converter<Integer, Money> {
+        @Override
+        public Money convert(Integer amount) {
+            return Money.of(BigDecimal.valueOf(amount));
+        }
+    }
+
+    // Documentos aún no migrados
+    @ReadingConverter
+    static final class DoubleToMoney implements Converter<Double, Money> {
+        @Override
+        public Money convert(Double amount) {
+            return Money.of(amount);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BatchJobRepository extends ReactiveMongoRepository<BatchJob, String>,
+        BatchJobRepositoryCustom {
+}
@@ -0,0 +1,23 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public interface BatchJobRepositoryCustom {
+
+    // Toma el lease si está libre, vencido o ya es de owner; vacío si otra instancia lo tiene
+    Mono<BatchJob> acquire(String id, String owner, Instant now, Instant leaseUntil);
+
+    Mono<Void> start(String id, String owner, LocalDate runDate, LocalDate fromDate, Instant startedAt);
+
+    // Suma el avance de un lote y renueva el lease; false si owner ya no tiene el lease. shard puede ser null
+    Mono<Boolean> recordProgress(String id, String owner, String shard, long scanned, long updated,
+                                 Instant leaseUntil);
+
+    Mono<Void> complete(String id, String owner, LocalDate runDate, Instant completedAt, long durationMs);
+
+    Mono<Void> release(String id, String owner);
+}
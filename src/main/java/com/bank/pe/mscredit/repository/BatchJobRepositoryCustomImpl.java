@@ -0,0 +1,84 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class BatchJobRepositoryCustomImpl implements BatchJobRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<BatchJob> acquire(String id, String owner, Instant now, Instant leaseUntil) {
+        Query query = new Query(Criteria.where("id").is(id).orOperator(
+                Criteria.where("leaseUntil").is(null),
+                Criteria.where("leaseUntil").lt(now),
+                Criteria.where("owner").is(owner)));
+        Update update = new Update().set("owner", owner).set("leaseUntil", leaseUntil);
+        // Con el lease tomado el filtro no coincide y el upsert choca con el _id existente
+        return mongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), BatchJob.class)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.empty());
+    }
+
+    @Override
+    public Mono<Void> start(String id, String owner, LocalDate runDate, LocalDate fromDate, Instant startedAt) {
+        Update update = new Update()
+                .set("runDate", runDate)
+                .set("fromDate", fromDate)
+                .set("status", BatchJob.RUNNING)
+                .set("startedAt", startedAt)
+                .set("scanned", 0L)
+                .set("updated", 0L)
+                .set("updatedByShard", Map.of())
+                .unset("completedAt")
+                .unset("durationMs");
+        return mongoTemplate.updateFirst(owned(id, owner), update, BatchJob.class).then();
+    }
+
+    @Override
+    public Mono<Boolean> recordProgress(String id, String owner, String shard, long scanned, long updated,
+                                        Instant leaseUntil) {
+        Update update = new Update()
+                .inc("scanned", scanned)
+                .inc("updated", updated)
+                .set("leaseUntil", leaseUntil);
+        if (shard != null) {
+            update.inc("updatedByShard." + shard, updated);
+        }
+        return mongoTemplate.updateFirst(owned(id, owner), update, BatchJob.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Void> complete(String id, String owner, LocalDate runDate, Instant completedAt, long durationMs) {
+        Update update = new Update()
+                .set("status", BatchJob.COMPLETED)
+                .set("lastCompletedDate", runDate)
+                .set("completedAt", completedAt)
+                .set("durationMs", durationMs)
+                .set("leaseUntil", null);
+        return mongoTemplate.updateFirst(owned(id, owner), update, BatchJob.class).then();
+    }
+
+    @Override
+    public Mono<Void> release(String id, String owner) {
+        return mongoTemplate.updateFirst(owned(id, owner), new Update().set("leaseUntil", null), BatchJob.class)
+                .then();
+    }
+
+    private static Query owned(String id, String owner) {
+        return new Query(Criteria.where("id").is(id).and("owner").is(owner));
+    }
+}
@@ -4,10 +4,17 @@ import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import com.bank.pe.mscredit.entity.Credit;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
 
 @Repository
-public interface CreditRepository extends ReactiveMongoRepository<Credit, String> {
+public interface CreditRepository extends ReactiveMongoRepository<Credit, String>, CreditRepositoryCustom {
     Flux<Credit> findByCustomerId(String customerId);
 
+    // exists: consulta con limit 1 y proyección a _id, resuelta con el índice customerId + dueDate + outstandingAmount
+    Mono<Boolean> existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+            String customerId, LocalDate dueDate, Double outstandingAmount);
+
 }
 
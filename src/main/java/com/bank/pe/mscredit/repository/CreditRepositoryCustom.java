@@ -0,0 +1,73 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.accrual.InterestAccrual;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import org.bson.RawBsonDocument;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CreditRepositoryCustom {
+
+    // Devuelve solo los clientes del lote que tienen al menos un crédito vencido con deuda pendiente
+    Flux<String> findCustomerIdsWithOverdueDebt(Collection<String> customerIds, LocalDate today);
+
+    // Igual que la anterior, pero con el flag overdue: la consulta se resuelve solo con customer_overdue_idx
+    Flux<String> findCustomerIdsFlaggedOverdue(Collection<String> customerIds);
+
+    Mono<Boolean> existsFlaggedOverdue(String customerId);
+
+    // Vencidos con deuda pendiente aún sin flag, con dueDate en [from, today); from = null no pone límite inferior.
+    // Solo trae id, customerId, dueDate y version
+    Flux<Credit> findOverdueCandidates(LocalDate from, LocalDate today);
+
+    // Marca overdue en un bulkWrite; cada documento vuelve a comprobar la condición al escribirse.
+    // Devuelve los modificados
+    Mono<Long> markOverdue(List<Credit> credits, LocalDate today);
+
+    // Corrige el flag tras una escritura; no cambia la versión porque se deriva de otros campos
+    Mono<Void> setOverdue(String id, Long version, boolean overdue, LocalDate overdueSince);
+
+    // Créditos con deuda y tasa que aún no devengaron accrualDate. Solo trae lo necesario para calcular el interés
+    // e invalidar las cachés
+    Flux<Credit> findAccrualCandidates(LocalDate accrualDate);
+
+    // Aplica los devengos en un bulkWrite no ordenado; cada uno exige la versión leída y que accrualDate no se haya
+    // devengado ya. Devuelve los modificados
+    Mono<Long> applyAccruals(List<InterestAccrual> accruals, LocalDate accrualDate);
+
+    // Un solo $group por creditType; vacío si el cliente no tiene créditos
+    Mono<CustomerCreditSummary> summarizeByCustomer(String customerId, LocalDate today);
+
+    // Recorre toda la colección: solo para la reconciliación de portfolio_stats
+    Flux<PortfolioStats> aggregatePortfolio(LocalDate today, String unknownType);
+
+    // Paginación por clave sobre _id (el ObjectId crece con la fecha de creación); limit y fields son opcionales.
+    // Devuelve el BSON tal como llega del driver, sin mapear a Credit
+    Flux<RawBsonDocument> findPageDocuments(String afterId, Integer limit, Collection<String> fields);
+
+    // Créditos del cliente como BSON sin mapear, proyectados a fields (nombres de propiedad de Credit)
+    Flux<RawBsonDocument> findDocumentsByCustomerId(String customerId, Collection<String> fields);
+
+    // findAndModify atómico que incrementa la versión; vacío si no existe o si expectedVersion no coincide.
+    // Devuelve el documento anterior y el resultante (T1 = antes, T2 = después)
+    Mono<Tuple2<Credit, Credit>> findAndModifyWithPrevious(String id, Long expectedVersion, Update update);
+
+    // Borra por id sin condición de versión y devuelve el documento borrado; vacío si no existía
+    Mono<Credit> findAndRemove(String id);
+
+    // $inc atómico de currentDebt (+amount) y availableLimit (-amount), con la misma salida que el anterior. Un
+    // consumo (amount > 0) exige availableLimit >= amount y un pago, currentDebt >= -amount; vacío si no se cumple
+    Mono<Tuple2<Credit, Credit>> findAndMoveLimit(String id, long amount);
+
+    // insertMany no ordenado: un documento rechazado no detiene al resto. Devuelve posición -> código de error Mongo
+    Mono<Map<Integer, Integer>> insertUnordered(List<Credit> credits);
+}
@@ -0,0 +1,403 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.accrual.InterestAccrual;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class CreditRepositoryCustomImpl implements CreditRepositoryCustom {
+
+    private static final int CURSOR_BATCH_SIZE = 256; // Documentos por getMore del cursor
+    // Montos en soles anteriores a MoneyMigration: un $inc en céntimos sobre ellos mezclaría escalas
+    private static final JsonSchemaObject.Type[] LEGACY_AMOUNT_TYPES = {
+            JsonSchemaObject.Type.doubleType(), JsonSchemaObject.Type.intType()};
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<String> findCustomerIdsWithOverdueDebt(Collection<String> customerIds, LocalDate today) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("customerId").in(customerIds)
+                        .and("dueDate").lt(today)
+                        .and("outstandingAmount").gt(0)),
+                Aggregation.group("customerId"));
+
+        return mongoTemplate.aggregate(aggregation, Credit.class, Document.class)
+                .map(document -> document.getString("_id"));
+    }
+
+    @Override
+    public Flux<String> findCustomerIdsFlaggedOverdue(Collection<String> customerIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("customerId").in(customerIds).and("overdue").is(true)),
+                Aggregation.group("customerId"));
+
+        return mongoTemplate.aggregate(aggregation, Credit.class, Document.class)
+                .map(document -> document.getString("_id"));
+    }
+
+    @Override
+    public Mono<Boolean> existsFlaggedOverdue(String customerId) {
+        // Sin _id en la proyección el plan queda cubierto por el índice (PROJECTION_COVERED)
+        Query query = new Query(Criteria.where("customerId").is(customerId).and("overdue").is(true)).limit(1);
+        query.fields().include("customerId").exclude("id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Credit.class))
+                .hasElements();
+    }
+
+    @Override
+    public Flux<Credit> findOverdueCandidates(LocalDate from, LocalDate today) {
+        Criteria dueDate = Criteria.where("dueDate").lt(today);
+        if (from != null) {
+            dueDate.gte(from);
+        }
+        Query query = new Query(dueDate.and("outstandingAmount").gt(0).and("overdue").ne(true))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+        query.fields().include("customerId", "dueDate", "version");
+        return mongoTemplate.find(query, Credit.class);
+    }
+
+    @Override
+    public Mono<Long> markOverdue(List<Credit> credits, LocalDate today) {
+        if (credits.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Date todayDate = toDate(today);
+        List<WriteModel<Document>> writes = credits.stream()
+                .map(credit -> new UpdateOneModel<Document>(
+                        Filters.and(Filters.eq("_id", toObjectId(credit.getId())),
+                                Filters.lt("dueDate", todayDate),
+                                Filters.gt("outstandingAmount", 0),
+                                Filters.ne("overdue", true)),
+                        Updates.combine(Updates.set("overdue", true),
+                                Updates.set("overdueSince", toDate(credit.getDueDate().plusDays(1))))))
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false))))
+                .map(result -> (long) result.getModifiedCount());
+    }
+
+    @Override
+    public Mono<Void> setOverdue(String id, Long version, boolean overdue, LocalDate overdueSince) {
+        Query query = new Query(Criteria.where("id").is(id).and("version").is(version));
+        Update update = overdue
+                ? new Update().set("overdue", true).set("overdueSince", overdueSince)
+                : new Update().set("overdue", false).unset("overdueSince");
+        return mongoTemplate.updateFirst(query, update, Credit.class).then();
+    }
+
+    @Override
+    public Flux<Credit> findAccrualCandidates(LocalDate accrualDate) {
+        Query query = new Query(Criteria.where("lastAccrualDate").not().gte(accrualDate)
+                .and("outstandingAmount").gt(0)
+                .and("interestRate").gt(0))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+        query.fields().include("version", "customerId", "creditType", "dueDate", "outstandingAmount",
+                "interestRate", "lastAccrualDate", "accruedInterest");
+        return mongoTemplate.find(query, Credit.class);
+    }
+
+    @Override
+    public Mono<Long> applyAccruals(List<InterestAccrual> accruals, LocalDate accrualDate) {
+        if (accruals.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Date accrualDay = toDate(accrualDate);
+        List<WriteModel<Document>> writes = accruals.stream()
+                .map(accrual -> new UpdateOneModel<Document>(
+                        Filters.and(Filters.eq("_id", toObjectId(accrual.getCreditId())),
+                                Filters.eq("version", accrual.getVersion()),
+                                Filters.not(Filters.gte("lastAccrualDate", accrualDay)),
+                                Filters.not(Filters.type("accruedInterest", BsonType.DOUBLE)),
+                                Filters.not(Filters.type("accruedInterest", BsonType.INT32))),
+                        Updates.combine(
+                                Updates.set("outstandingAmount", accrual.getOutstandingAmount().getMinorUnits()),
+                                Updates.set("lastAccrualDate", accrualDay),
+                                Updates.inc("accruedInterest", accrual.getInterest().getMinorUnits()),
+                                Updates.inc("version", 1L))))
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false))))
+                .map(result -> (long) result.getModifiedCount());
+    }
+
+    @Override
+    public Mono<CustomerCreditSummary> summarizeByCustomer(String customerId, LocalDate today) {
+        Date todayDate = toDate(today);
+        Document overdue = isOverdue(todayDate);
+        Document upcomingDueDate = new Document("$cond", Arrays.asList(
+                new Document("$gte", Arrays.asList("$dueDate", todayDate)), "$dueDate", null));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("customerId").is(customerId)),
+                context -> new Document("$group", new Document("_id", "$creditType")
+                        .append("count", new Document("$sum", 1))
+                        .append("amount", new Document("$sum", "$amount"))
+                        .append("creditLimit", new Document("$sum", "$creditLimit"))
+                        .append("currentDebt", new Document("$sum", "$currentDebt"))
+                        .append("availableLimit", new Document("$sum", "$availableLimit"))
+                        .append("outstandingAmount", new Document("$sum", "$outstandingAmount"))
+                        .append("nextDueDate", new Document("$min", upcomingDueDate))
+                        .append("overdue", new Document("$max", overdue))));
+
+        // Una fila por tipo de crédito: se combinan en memoria
+        return mongoTemplate.aggregate(aggregation, Credit.class, Document.class)
+                .reduce(new CustomerCreditSummary(customerId, 0, new LinkedHashMap<>(), 0, 0, 0, 0, 0, null, false),
+                        (summary, group) -> {
+                            long count = ((Number) group.get("count")).longValue();
+                            summary.setCreditCount(summary.getCreditCount() + count);
+                            summary.getCreditsByType().put(String.valueOf(group.get("_id")), count);
+                            summary.setTotalAmount(summary.getTotalAmount() + money(group, "amount"));
+                            summary.setTotalCreditLimit(summary.getTotalCreditLimit() + money(group, "creditLimit"));
+                            summary.setTotalCurrentDebt(summary.getTotalCurrentDebt() + money(group, "currentDebt"));
+                            summary.setTotalAvailableLimit(
+                                    summary.getTotalAvailableLimit() + money(group, "availableLimit"));
+                            summary.setTotalOutstandingAmount(
+                                    summary.getTotalOutstandingAmount() + money(group, "outstandingAmount"));
+                            Date due = group.getDate("nextDueDate");
+                            if (due != null) {
+                                LocalDate dueDate = due.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                                if (summary.getNextDueDate() == null || dueDate.isBefore(summary.getNextDueDate())) {
+                                    summary.setNextDueDate(dueDate);
+                                }
+                            }
+                            summary.setHasOverdueDebt(summary.isHasOverdueDebt()
+                                    || Boolean.TRUE.equals(group.getBoolean("overdue")));
+                            return summary;
+                        })
+                .filter(summary -> summary.getCreditCount() > 0);
+    }
+
+    @Override
+    public Flux<PortfolioStats> aggregatePortfolio(LocalDate today, String unknownType) {
+        Document overdue = isOverdue(toDate(today));
+        Aggregation aggregation = Aggregation.newAggregation(
+                context -> new Document("$group",
+                        new Document("_id", new Document("$ifNull", Arrays.asList("$creditType", unknownType)))
+                                .append("creditCount", new Document("$sum", 1))
+                                .append("totalAmount", new Document("$sum", "$amount"))
+                                .append("totalCreditLimit", new Document("$sum", "$creditLimit"))
+                                .append("totalCurrentDebt", new Document("$sum", "$currentDebt"))
+                                .append("totalOutstandingAmount", new Document("$sum", "$outstandingAmount"))
+                                .append("overdueCount", new Document("$sum",
+                                        new Document("$cond", Arrays.asList(overdue, 1, 0))))
+                                .append("overdueAmount", new Document("$sum",
+                                        new Document("$cond", Arrays.asList(overdue, "$outstandingAmount", 0))))));
+
+        Instant now = Instant.now();
+        return mongoTemplate.aggregate(aggregation.withOptions(
+                        AggregationOptions.builder().allowDiskUse(true).build()), Credit.class, Document.class)
+                .map(group -> new PortfolioStats(group.getString("_id"),
+                        ((Number) group.get("creditCount")).longValue(),
+                        money(group, "totalAmount"),
+                        money(group, "totalCreditLimit"),
+                        money(group, "totalCurrentDebt"),
+                        money(group, "totalOutstandingAmount"),
+                        ((Number) group.get("overdueCount")).longValue(),
+                        money(group, "overdueAmount"),
+                        now));
+    }
+
+    // Spring guarda como ObjectId los id String con formato de ObjectId
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    // LocalDate se guarda como Date a medianoche de la zona del sistema (conversor JSR-310 de Spring)
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    // Vencido con deuda pendiente, como existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan
+    private static Document isOverdue(Date today) {
+        return new Document("$and", Arrays.asList(
+                new Document("$gt", Arrays.asList("$dueDate", null)),
+                new Document("$lt", Arrays.asList("$dueDate", today)),
+                new Document("$gt", Arrays.asList("$outstandingAmount", 0))));
+    }
+
+    // Las sumas de Money llegan en unidades mínimas
+    private static long money(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    @Override
+    public Flux<RawBsonDocument> findPageDocuments(String afterId, Integer limit, Collection<String> fields) {
+        Bson filter = afterId == null ? new Document() : Filters.gt("_id", new ObjectId(afterId));
+        int batchSize = limit == null ? CURSOR_BATCH_SIZE : Math.min(limit, CURSOR_BATCH_SIZE);
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMapMany(collection -> {
+                    FindPublisher<RawBsonDocument> find = collection.withDocumentClass(RawBsonDocument.class)
+                            .find(filter)
+                            .projection(projection(fields))
+                            .sort(Sorts.ascending("_id"))
+                            .batchSize(batchSize);
+                    return limit == null ? find : find.limit(limit);
+                });
+    }
+
+    @Override
+    public Flux<RawBsonDocument> findDocumentsByCustomerId(String customerId, Collection<String> fields) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMapMany(collection -> collection.withDocumentClass(RawBsonDocument.class)
+                        .find(Filters.eq("customerId", customerId))
+                        .projection(projection(fields))
+                        .batchSize(CURSOR_BATCH_SIZE));
+    }
+
+    // Sin fields se traen todos los campos; el id de Credit se guarda como _id
+    private static Bson projection(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        return Projections.include(fields.stream()
+                .map(field -> field.equals("id") ? "_id" : field)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Mono<Tuple2<Credit, Credit>> findAndModifyWithPrevious(String id, Long expectedVersion, Update update) {
+        Query query = new Query(Criteria.where("id").is(id));
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+        excludeLegacyAmounts(query, update);
+        return findAndModifyWithPrevious(query, update);
+    }
+
+    @Override
+    public Mono<Credit> findAndRemove(String id) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Credit.class);
+    }
+
+    @Override
+    public Mono<Tuple2<Credit, Credit>> findAndMoveLimit(String id, long amount) {
+        Criteria debt = Criteria.where("currentDebt");
+        Criteria available = Criteria.where("availableLimit");
+        // La condición va en el mismo campo que excluye los montos antiguos: Query no admite dos criterios por campo
+        if (amount > 0) {
+            available.gte(amount);
+        } else if (amount < 0) {
+            debt.gte(-amount);
+        }
+        Query query = new Query(Criteria.where("id").is(id))
+                .addCriteria(debt.not().type(LEGACY_AMOUNT_TYPES))
+                .addCriteria(available.not().type(LEGACY_AMOUNT_TYPES));
+        return findAndModifyWithPrevious(query, new Update()
+                .inc("currentDebt", amount)
+                .inc("availableLimit", -amount));
+    }
+
+    private Mono<Tuple2<Credit, Credit>> findAndModifyWithPrevious(Query query, Update update) {
+        update.inc("version", 1);
+        // La imagen anterior es exacta (findAndModify es atómico); la posterior se obtiene aplicándole
+        // los mismos $set/$inc en memoria, sin una segunda lectura que podría ver otra escritura
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Credit.class)
+                .map(before -> Tuples.of(before, apply(before, update)));
+    }
+
+    // Los documentos con montos en soles (LEGACY_AMOUNT_TYPES) no coinciden hasta que se migren
+    private static void excludeLegacyAmounts(Query query, Update update) {
+        Document inc = update.getUpdateObject().get("$inc", Document.class);
+        if (inc != null) {
+            inc.keySet().forEach(field -> query.addCriteria(
+                    Criteria.where(field).not().type(LEGACY_AMOUNT_TYPES)));
+        }
+    }
+
+    private Credit apply(Credit credit, Update update) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(credit, document);
+        Document operations = update.getUpdateObject();
+        Document set = operations.get("$set", Document.class);
+        if (set != null) {
+            set.forEach((field, value) -> document.put(field, mongoTemplate.getConverter().convertToMongoType(value)));
+        }
+        Document inc = operations.get("$inc", Document.class);
+        if (inc != null) {
+            inc.forEach((field, delta) -> document.put(field, add((Number) document.get(field), (Number) delta)));
+        }
+        return mongoTemplate.getConverter().read(Credit.class, document);
+    }
+
+    private static Number add(Number current, Number delta) {
+        if (current == null) {
+            return delta;
+        }
+        if ((current instanceof Long || current instanceof Integer)
+                && (delta instanceof Long || delta instanceof Integer)) {
+            return current.longValue() + delta.longValue();
+        }
+        return current.doubleValue() + delta.doubleValue();
+    }
+
+    @Override
+    public Mono<Map<Integer, Integer>> insertUnordered(List<Credit> credits) {
+        if (credits.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        // Los IDs se asignan antes de escribir para poder reportar cada fila aunque el lote falle en parte
+        List<Document> documents = credits.stream()
+                .map(credit -> {
+                    if (credit.getId() == null) {
+                        credit.setId(new ObjectId().toHexString());
+                    }
+                    if (credit.getVersion() == null) {
+                        credit.setVersion(0L);
+                    }
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(credit, document);
+                    return document;
+                })
+                .collect(Collectors.toList());
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents,
+                        new InsertManyOptions().ordered(false))))
+                .<Map<Integer, Integer>>thenReturn(Map.of())
+                .onErrorResume(MongoBulkWriteException.class, ex -> Mono.just(ex.getWriteErrors().stream()
+                        .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getCode))));
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.CustomerType;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerTypeRepository extends ReactiveMongoRepository<CustomerType, String>,
+        CustomerTypeRepositoryCustom {
+}
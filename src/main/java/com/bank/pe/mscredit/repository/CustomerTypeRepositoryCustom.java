@@ -0,0 +1,16 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.CustomerType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CustomerTypeRepositoryCustom {
+
+    // Upsert no ordenado en un solo bulkWrite; ignora los cambios más antiguos que lo guardado. Devuelve los aplicados
+    Mono<Long> upsertAll(List<CustomerType> customerTypes);
+
+    Flux<CustomerType> findSyncedSince(Instant since);
+}
@@ -0,0 +1,69 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.CustomerType;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class CustomerTypeRepositoryCustomImpl implements CustomerTypeRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Long> upsertAll(List<CustomerType> customerTypes) {
+        if (customerTypes.isEmpty()) {
+            return Mono.just(0L);
+        }
+        // Si el documento ya tiene una versión igual o más reciente el filtro no coincide, el upsert choca con
+        // el _id existente (E11000) y ese cambio se descarta
+        List<WriteModel<Document>> writes = customerTypes.stream()
+                .map(customerType -> new UpdateOneModel<Document>(
+                        Filters.and(Filters.eq("_id", customerType.getId()),
+                                Filters.lt("updatedAt", Date.from(customerType.getUpdatedAt()))),
+                        Updates.combine(
+                                Updates.set("type", customerType.getType()),
+                                Updates.set("updatedAt", Date.from(customerType.getUpdatedAt())),
+                                Updates.currentDate("syncedAt")),
+                        new UpdateOptions().upsert(true)))
+                .collect(Collectors.toList());
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(CustomerType.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false))))
+                .map(CustomerTypeRepositoryCustomImpl::applied)
+                .onErrorResume(MongoBulkWriteException.class, ex -> ex.getWriteErrors().stream()
+                        .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY)
+                        ? Mono.just(applied(ex.getWriteResult()))
+                        : Mono.error(ex));
+    }
+
+    private static long applied(BulkWriteResult result) {
+        return result.getUpserts().size() + (long) result.getModifiedCount();
+    }
+
+    @Override
+    public Flux<CustomerType> findSyncedSince(Instant since) {
+        Query query = new Query(Criteria.where("syncedAt").gt(since))
+                .with(Sort.by(Sort.Direction.ASC, "syncedAt"));
+        return mongoTemplate.find(query, CustomerType.class);
+    }
+}
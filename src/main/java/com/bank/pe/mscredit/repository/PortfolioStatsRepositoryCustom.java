@@ -0,0 +1,15 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface PortfolioStatsRepositoryCustom {
+
+    // Suma cada delta a su documento con $inc (upsert) en un solo bulkWrite
+    Mono<Void> increment(Collection<PortfolioStats> deltas);
+
+    // Reemplaza los agregados por los recalculados y borra los tipos que ya no tienen créditos
+    Mono<Void> replaceAll(Collection<PortfolioStats> stats);
+}
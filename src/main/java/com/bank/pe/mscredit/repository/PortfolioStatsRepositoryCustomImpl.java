@@ -0,0 +1,72 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class PortfolioStatsRepositoryCustomImpl implements PortfolioStatsRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> increment(Collection<PortfolioStats> deltas) {
+        List<WriteModel<Document>> writes = deltas.stream()
+                .filter(delta -> !delta.isEmpty())
+                .map(delta -> new UpdateOneModel<Document>(
+                        Filters.eq("_id", delta.getId()),
+                        new Document("$inc", new Document("creditCount", delta.getCreditCount())
+                                .append("totalAmount", delta.getTotalAmount())
+                                .append("totalCreditLimit", delta.getTotalCreditLimit())
+                                .append("totalCurrentDebt", delta.getTotalCurrentDebt())
+                                .append("totalOutstandingAmount", delta.getTotalOutstandingAmount())
+                                .append("overdueCount", delta.getOverdueCount())
+                                .append("overdueAmount", delta.getOverdueAmount())),
+                        new UpdateOptions().upsert(true)))
+                .collect(Collectors.toList());
+        return bulkWrite(writes);
+    }
+
+    @Override
+    public Mono<Void> replaceAll(Collection<PortfolioStats> stats) {
+        List<WriteModel<Document>> writes = stats.stream()
+                .map(typeStats -> {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(typeStats, document);
+                    return new ReplaceOneModel<>(Filters.eq("_id", typeStats.getId()), document,
+                            new ReplaceOptions().upsert(true));
+                })
+                .collect(Collectors.toList());
+        List<String> types = stats.stream().map(PortfolioStats::getId).collect(Collectors.toList());
+        return bulkWrite(writes)
+                .then(collection().flatMap(collection -> Mono.from(collection.deleteMany(Filters.nin("_id", types)))))
+                .then();
+    }
+
+    private Mono<Void> bulkWrite(List<WriteModel<Document>> writes) {
+        if (writes.isEmpty()) {
+            return Mono.empty();
+        }
+        return collection()
+                .flatMap(collection -> Mono.from(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false))))
+                .then();
+    }
+
+    private Mono<MongoCollection<Document>> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(PortfolioStats.class));
+    }
+}
@@ -0,0 +1,51 @@
+package com.bank.pe.mscredit.schedule;
+
+import com.bank.pe.mscredit.money.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Cronograma de cuotas fijas (sistema francés) con tasa mensual = tasa anual / 12. Los montos van en céntimos
+ * sobre arreglos de long: cada cuota redondea su interés half-even y la última absorbe la diferencia para que
+ * el capital amortizado sume exactamente el monto del crédito.
+ */
+public final class AmortizationCalculator {
+
+    public static final int MAX_TERM_MONTHS = 600;
+
+    private AmortizationCalculator() {
+    }
+
+    public static AmortizationSchedule compute(String creditId, Long version, Money amount,
+                                               double annualRatePercent, int termMonths, LocalDate startDate) {
+        long[] payment = new long[termMonths];
+        long[] principal = new long[termMonths];
+        long[] interest = new long[termMonths];
+        long[] balance = new long[termMonths];
+        fill(amount.getMinorUnits(), annualRatePercent / 1_200, termMonths, payment, principal, interest, balance);
+        return new AmortizationSchedule(creditId, version, startDate, payment, principal, interest, balance);
+    }
+
+    // Llena las primeras termMonths posiciones de cada arreglo; devuelve el interés total en céntimos
+    public static long fill(long amountCents, double monthlyRate, int termMonths,
+                            long[] payment, long[] principal, long[] interest, long[] balance) {
+        long installment = monthlyRate == 0
+                ? (long) Math.rint((double) amountCents / termMonths)
+                : (long) Math.rint(amountCents * monthlyRate / (1 - Math.pow(1 + monthlyRate, -termMonths)));
+        long remaining = amountCents;
+        long totalInterest = 0;
+        for (int i = 0; i < termMonths; i++) {
+            long periodInterest = (long) Math.rint(remaining * monthlyRate);
+            long periodPrincipal = i == termMonths - 1
+                    ? remaining
+                    : Math.min(remaining, installment - periodInterest);
+            remaining -= periodPrincipal;
+            interest[i] = periodInterest;
+            principal[i] = periodPrincipal;
+            payment[i] = periodPrincipal + periodInterest;
+            balance[i] = remaining;
+            totalInterest += periodInterest;
+        }
+        return totalInterest;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bank.pe.mscredit.schedule;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Cronograma de un crédito en una versión dada. Se guarda en caché como arreglos de céntimos y se serializa
+ * fila por fila directamente desde ellos, sin crear un objeto por cuota.
+ */
+@JsonSerialize(using = AmortizationSchedule.Serializer.class)
+public final class AmortizationSchedule {
+
+    private final String creditId;
+    private final Long version;
+    private final LocalDate startDate; // La cuota i vence i meses después
+    private final long[] payment;
+    private final long[] principal;
+    private final long[] interest;
+    private final long[] balance; // Saldo de capital tras pagar la cuota
+
+    AmortizationSchedule(String creditId, Long version, LocalDate startDate,
+                         long[] payment, long[] principal, long[] interest, long[] balance) {
+        this.creditId = creditId;
+        this.version = version;
+        this.startDate = startDate;
+        this.payment = payment;
+        this.principal = principal;
+        this.interest = interest;
+        this.balance = balance;
+    }
+
+    public String getCreditId() {
+        return creditId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public int getInstallments() {
+        return payment.length;
+    }
+
+    public LocalDate getDueDate(int installment) {
+        return startDate.plusMonths(installment + 1L);
+    }
+
+    public double getPayment(int installment) {
+        return payment[installment] / 100.0;
+    }
+
+    public double getPrincipal(int installment) {
+        return principal[installment] / 100.0;
+    }
+
+    public double getInterest(int installment) {
+        return interest[installment] / 100.0;
+    }
+
+    public double getBalance(int installment) {
+        return balance[installment] / 100.0;
+    }
+
+    public double getTotalInterest() {
+        return sum(interest) / 100.0;
+    }
+
+    public double getTotalPayment() {
+        return sum(payment) / 100.0;
+    }
+
+    private static long sum(long[] cents) {
+        long total = 0;
+        for (long value : cents) {
+            total += value;
+        }
+        return total;
+    }
+
+    static final class Serializer extends JsonSerializer<AmortizationSchedule> {
+
+        @Override
+        public void serialize(AmortizationSchedule schedule, JsonGenerator json, SerializerProvider provider)
+                throws IOException {
+            json.writeStartObject();
+            json.writeStringField("creditId", schedule.creditId);
+            if (schedule.version != null) {
+                json.writeNumberField("version", schedule.version);
+            }
+            json.writeNumberField("installments", schedule.getInstallments());
+            json.writeNumberField("totalInterest", schedule.getTotalInterest());
+            json.writeNumberField("totalPayment", schedule.getTotalPayment());
+            json.writeArrayFieldStart("schedule");
+            for (int i = 0; i < schedule.getInstallments(); i++) {
+                json.writeStartObject();
+                json.writeNumberField("number", i + 1);
+                json.writeStringField("dueDate", schedule.getDueDate(i).toString());
+                json.writeNumberField("payment", schedule.getPayment(i));
+                json.writeNumberField("principal", schedule.getPrincipal(i));
+                json.writeNumberField("interest", schedule.getInterest(i));
+                json.writeNumberField("balance", schedule.getBalance(i));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+}
@@ -1,16 +1,33 @@
 package com.bank.pe.mscredit.service;
 
+import com.bank.pe.mscredit.dto.CreditImportResult;
+import com.bank.pe.mscredit.dto.CreditPatchDTO;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.dto.OverdueDebtStatus;
 import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.schedule.AmortizationSchedule;
+import org.bson.RawBsonDocument;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface CreditService {
 
-    public Flux<Credit> listCredits();
+    public Flux<RawBsonDocument> listCreditDocuments(String after, Integer limit, List<String> fields);
     public Mono<Credit> getCredit(String id);
     public Mono<Void> deleteCredit(String id);
     public Mono<Credit> createCredit(Credit Credit);
+    public Flux<CreditImportResult> importCredits(Flux<Credit> credits);
     public Mono<Credit> updateCredit(String id, Credit updatedCredit);
+    public Mono<Credit> patchCredit(String id, CreditPatchDTO patch);
+    public Mono<Credit> consume(String id, Money amount);
+    public Mono<Credit> repay(String id, Money amount);
     public Flux<Credit> getCreditProductsByCustomer(String id);
+    public Flux<RawBsonDocument> getCreditDocumentsByCustomer(String id);
+    public Mono<CustomerCreditSummary> getCustomerSummary(String customerId);
+    public Mono<AmortizationSchedule> getSchedule(String id);
     public Mono<Boolean> hasOverdueDebt(String customerId);
+    public Flux<OverdueDebtStatus> hasOverdueDebt(Flux<String> customerIds);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.bank.pe.mscredit.service;
+
+import com.bank.pe.mscredit.entity.CustomerType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CustomerTypeService {
+
+    Mono<String> resolveType(String customerId);
+
+    Mono<Long> upsert(Flux<CustomerType> customerTypes);
+}
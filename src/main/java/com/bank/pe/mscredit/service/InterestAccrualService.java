@@ -0,0 +1,9 @@
+package com.bank.pe.mscredit.service;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import reactor.core.publisher.Mono;
+
+public interface InterestAccrualService {
+
+    Mono<BatchJob> getProgress();
+}
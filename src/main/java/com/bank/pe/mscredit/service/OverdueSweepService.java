@@ -0,0 +1,14 @@
+package com.bank.pe.mscredit.service;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface OverdueSweepService {
+
+    // true si el barrido de today terminó: el flag overdue de credits está al día
+    boolean isCurrent(LocalDate today);
+
+    Mono<BatchJob> getProgress();
+}
@@ -0,0 +1,21 @@
+package com.bank.pe.mscredit.service;
+
+import com.bank.pe.mscredit.dto.PortfolioStatsDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.Collection;
+
+public interface PortfolioStatsService {
+
+    Mono<PortfolioStatsDTO> getStats();
+
+    // Aplica la diferencia entre dos versiones de un crédito; before = null al crear, after = null al borrar
+    Mono<Void> record(Credit before, Credit after);
+
+    Mono<Void> recordCreated(Collection<Credit> credits);
+
+    // Como record, para un lote de cambios (antes, después) en un solo $inc por tipo
+    Mono<Void> recordChanges(Collection<Tuple2<Credit, Credit>> changes);
+}
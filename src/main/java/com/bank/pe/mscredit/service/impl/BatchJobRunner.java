@@ -0,0 +1,98 @@
+package com.bank.pe.mscredit.service.impl;
+
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Corre un proceso diario una sola vez por día entre todas las instancias, con el lease y el avance en
+ * batch_jobs. Si la corrida del día quedó a medias se reanuda con la misma ventana y la misma hora de inicio:
+ * el trabajo debe ser idempotente, porque lo ya escrito se vuelve a recorrer.
+ */
+class BatchJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobRunner.class);
+
+    private final String jobId;
+    private final BatchJobRepository jobRepository;
+    private final Duration lease;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile LocalDate lastCompletedDate;
+
+    BatchJobRunner(String jobId, BatchJobRepository jobRepository, Duration lease, Clock clock) {
+        this.jobId = jobId;
+        this.jobRepository = jobRepository;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    boolean isCompleted(LocalDate day) {
+        LocalDate completed = lastCompletedDate;
+        return completed != null && !completed.isBefore(day);
+    }
+
+    LocalDate lastCompletedDate() {
+        return lastCompletedDate;
+    }
+
+    Mono<BatchJob> state() {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * Ejecuta {@code work} para {@code day} si nadie lo completó ni lo está ejecutando. {@code work} recibe el
+     * inicio de la ventana: el último día completado, o null si el proceso nunca terminó una corrida.
+     */
+    Mono<BatchJob> run(LocalDate day, Function<LocalDate, Mono<Void>> work) {
+        Instant now = clock.instant();
+        return jobRepository.acquire(jobId, owner, now, now.plus(lease))
+                .flatMap(state -> {
+                    remember(state.getLastCompletedDate());
+                    if (isCompleted(day)) {
+                        return jobRepository.release(jobId, owner).thenReturn(state);
+                    }
+                    boolean resume = day.equals(state.getRunDate()) && BatchJob.RUNNING.equals(state.getStatus());
+                    LocalDate from = resume ? state.getFromDate() : state.getLastCompletedDate();
+                    Instant startedAt = resume ? state.getStartedAt() : now;
+                    logger.info("{} {} del {} (ventana desde {})",
+                            resume ? "Reanudando" : "Iniciando", jobId, day, from);
+                    return (resume ? Mono.<Void>empty() : jobRepository.start(jobId, owner, day, from, now))
+                            .then(Mono.defer(() -> work.apply(from)))
+                            .then(Mono.defer(() -> {
+                                long elapsed = Duration.between(startedAt, clock.instant()).toMillis();
+                                return jobRepository.complete(jobId, owner, day, clock.instant(), elapsed);
+                            }))
+                            .doOnSuccess(ignored -> remember(day))
+                            .then(Mono.defer(this::state))
+                            .doOnNext(done -> logger.info(
+                                    "{} del {} completado: {} revisados, {} actualizados en {} ms",
+                                    jobId, day, done.getScanned(), done.getUpdated(), done.getDurationMs()));
+                })
+                // Otra instancia tiene el lease: solo se actualiza la fecha del último día completado
+                .switchIfEmpty(Mono.defer(() -> state().doOnNext(state -> remember(state.getLastCompletedDate()))));
+    }
+
+    // Suma el avance de un lote y renueva el lease; si otra instancia lo tomó, la corrida se detiene
+    Mono<Void> progress(String shard, long scanned, long updated) {
+        return jobRepository.recordProgress(jobId, owner, shard, scanned, updated, clock.instant().plus(lease))
+                .flatMap(owned -> owned
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("Se perdió el lease de " + jobId)));
+    }
+
+    private void remember(LocalDate completed) {
+        if (completed != null && (lastCompletedDate == null || completed.isAfter(lastCompletedDate))) {
+            lastCompletedDate = completed;
+        }
+    }
+}
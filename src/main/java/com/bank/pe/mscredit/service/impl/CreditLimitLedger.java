@@ -0,0 +1,251 @@
+package com.bank.pe.mscredit.service.impl;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Reservas en memoria sobre la línea de cada crédito para consume/repay, en unidades mínimas.
+ * <p>
+ * Cada crédito activo tiene una cuenta con dos saldos atómicos: headroom (availableLimit persistido menos consumos
+ * pendientes) y repayable (deuda persistida más consumos pendientes menos pagos pendientes). Un movimiento se
+ * admite con un CAS sobre su saldo, sin locks ni lecturas a Mongo, o se rechaza en el acto. Los admitidos esperan
+ * en cola y se escriben en un solo $inc condicionado por tanda, con una sola tanda en vuelo por crédito: mientras
+ * viaja una, la siguiente se acumula. Cada movimiento se confirma solo cuando su $inc quedó escrito.
+ * <p>
+ * Un pago no libera línea hasta persistirse. Si la condición del $inc falla (otra instancia u otra escritura movió
+ * el crédito), se relee el documento y los movimientos de la tanda vuelven a admitirse contra el saldo real, hasta
+ * MAX_RELOADS veces; después se rechazan con 409. La cuenta se descarta al quedar sin movimientos, así la
+ * siguiente ráfaga parte del documento actual.
+ */
+final class CreditLimitLedger {
+
+    // Un documento con montos aún en soles nunca cumple la condición del $inc: sin tope se releería para siempre
+    static final int MAX_RELOADS = 3;
+
+    private final Function<String, Mono<Credit>> loader;
+    private final BiFunction<String, Long, Mono<Credit>> flusher; // Vacío si la condición del $inc no se cumple
+    private final IntConsumer flushListener; // Movimientos por $inc
+    private final ConcurrentMap<String, Mono<Account>> accounts = new ConcurrentHashMap<>();
+
+    CreditLimitLedger(Function<String, Mono<Credit>> loader, BiFunction<String, Long, Mono<Credit>> flusher,
+                      IntConsumer flushListener) {
+        this.loader = loader;
+        this.flusher = flusher;
+        this.flushListener = flushListener;
+    }
+
+    Mono<Credit> consume(String id, long amount) {
+        return submit(id, amount);
+    }
+
+    Mono<Credit> repay(String id, long amount) {
+        return submit(id, -amount);
+    }
+
+    // Créditos con movimientos en curso
+    int activeAccounts() {
+        return accounts.size();
+    }
+
+    private Mono<Credit> submit(String id, long delta) {
+        return Mono.defer(() -> accounts.computeIfAbsent(id, this::load))
+                .flatMap(account -> Mono.create(sink -> account.admit(new Movement(delta, sink))));
+    }
+
+    // La carga se comparte entre los movimientos que llegan mientras viaja; un error no queda en el mapa
+    private Mono<Account> load(String id) {
+        AtomicReference<Mono<Account>> entry = new AtomicReference<>();
+        Mono<Account> account = loader.apply(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Crédito no encontrado")))
+                .flatMap(credit -> credit.getAvailableLimit() == null
+                        ? Mono.<Account>error(new ResponseStatusException(
+                                HttpStatus.CONFLICT, "El crédito no tiene línea disponible"))
+                        : Mono.just(new Account(id, credit, entry)))
+                .doOnError(ex -> accounts.remove(id, entry.get()))
+                .cache();
+        entry.set(account);
+        return account;
+    }
+
+    private static long minorUnits(Money money) {
+        return money == null ? 0L : money.getMinorUnits();
+    }
+
+    private static boolean take(AtomicLong balance, long amount) {
+        long current;
+        do {
+            current = balance.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - amount));
+        return true;
+    }
+
+    private static ResponseStatusException rejection(long delta) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, delta > 0
+                ? "Línea de crédito insuficiente"
+                : "El pago excede la deuda del crédito");
+    }
+
+    private final class Account {
+        private final String id;
+        private final AtomicReference<Mono<Account>> entry;
+        private final AtomicLong headroom = new AtomicLong();
+        private final AtomicLong repayable = new AtomicLong();
+        private final Queue<Movement> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        // Últimos valores persistidos; solo los cambia quien tiene flushing
+        private long available;
+        private long debt;
+
+        private Account(String id, Credit credit, AtomicReference<Mono<Account>> entry) {
+            this.id = id;
+            this.entry = entry;
+            sync(credit);
+        }
+
+        private void admit(Movement movement) {
+            if (reserve(movement.delta)) {
+                pending.add(movement);
+            } else {
+                movement.sink.error(rejection(movement.delta));
+            }
+            // Sin nada que escribir, flush solo retira la cuenta
+            if (flushing.compareAndSet(false, true)) {
+                flush();
+            }
+        }
+
+        private boolean reserve(long delta) {
+            if (delta > 0) {
+                if (!take(headroom, delta)) {
+                    return false;
+                }
+                repayable.addAndGet(delta);
+                return true;
+            }
+            return take(repayable, -delta);
+        }
+
+        // Deshace las reservas de una tanda que no llegó a escribirse
+        private void release(List<Movement> batch) {
+            for (Movement movement : batch) {
+                if (movement.delta > 0) {
+                    headroom.addAndGet(movement.delta);
+                }
+                repayable.addAndGet(-movement.delta);
+            }
+        }
+
+        // Los saldos se corrigen con la diferencia, no se reasignan: los CAS concurrentes no se pierden
+        private void sync(Credit credit) {
+            long newAvailable = minorUnits(credit.getAvailableLimit());
+            long newDebt = minorUnits(credit.getCurrentDebt());
+            headroom.addAndGet(newAvailable - available);
+            repayable.addAndGet(newDebt - debt);
+            available = newAvailable;
+            debt = newDebt;
+        }
+
+        private void flush() {
+            List<Movement> batch = new ArrayList<>();
+            for (Movement movement = pending.poll(); movement != null; movement = pending.poll()) {
+                batch.add(movement);
+            }
+            if (batch.isEmpty()) {
+                flushing.set(false);
+                // Un movimiento pudo encolarse después del poll y antes de soltar flushing
+                if (!pending.isEmpty() && flushing.compareAndSet(false, true)) {
+                    flush();
+                } else if (pending.isEmpty()) {
+                    accounts.remove(id, entry.get());
+                }
+                return;
+            }
+            long net = batch.stream().mapToLong(movement -> movement.delta).sum();
+            flushListener.accept(batch.size());
+            flusher.apply(id, net)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .subscribe(written -> {
+                        if (written.isPresent()) {
+                            persisted(batch, written.get());
+                        } else {
+                            reload(batch);
+                        }
+                    }, ex -> {
+                        release(batch);
+                        failed(batch, ex);
+                    });
+        }
+
+        private void persisted(List<Movement> batch, Credit credit) {
+            release(batch);
+            sync(credit);
+            batch.forEach(movement -> movement.sink.success(credit));
+            flush();
+        }
+
+        private void reload(List<Movement> batch) {
+            release(batch);
+            loader.apply(id)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .subscribe(current -> {
+                        if (current.isEmpty()) {
+                            failed(batch, new ResponseStatusException(HttpStatus.NOT_FOUND, "Crédito no encontrado"));
+                            return;
+                        }
+                        sync(current.get());
+                        // flushing sigue tomado: admit solo encola y la tanda siguiente los incluye
+                        for (Movement movement : batch) {
+                            if (++movement.reloads > MAX_RELOADS) {
+                                movement.sink.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                                        "No se pudo aplicar el movimiento: el crédito cambió o no está migrado"));
+                            } else {
+                                admit(movement);
+                            }
+                        }
+                        flush();
+                    }, ex -> failed(batch, ex));
+        }
+
+        // Resultado incierto: la cuenta deja de recibir movimientos nuevos y la siguiente parte del documento
+        private void failed(List<Movement> batch, Throwable ex) {
+            accounts.remove(id, entry.get());
+            batch.forEach(movement -> movement.sink.error(ex));
+            flush();
+        }
+    }
+
+    private static final class Movement {
+        private final long delta; // > 0 consumo, < 0 pago
+        private final MonoSink<Credit> sink;
+        private int reloads; // Condiciones fallidas; solo lo toca quien tiene flushing
+
+        private Movement(long delta, MonoSink<Credit> sink) {
+            this.delta = delta;
+            this.sink = sink;
+        }
+    }
+}
@@ -1,110 +1,521 @@
 package com.bank.pe.mscredit.service.impl;
 
-import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.dto.CreditImportResult;
+import com.bank.pe.mscredit.dto.CreditPatchDTO;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.dto.OverdueDebtStatus;
+import com.bank.pe.mscredit.execution.ExecutionPolicy;
+import com.bank.pe.mscredit.loader.BatchLoader;
+import com.bank.pe.mscredit.mapper.CreditJsonWriter;
+import com.bank.pe.mscredit.metrics.CreditMetrics;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.schedule.AmortizationCalculator;
+import com.bank.pe.mscredit.schedule.AmortizationSchedule;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import com.bank.pe.mscredit.client.CustomerClient;
-import com.bank.pe.mscredit.dto.CustomerDTO;
 import com.bank.pe.mscredit.entity.Credit;
 import com.bank.pe.mscredit.repository.CreditRepository;
 import com.bank.pe.mscredit.service.CreditService;
+import com.bank.pe.mscredit.service.CustomerTypeService;
+import com.bank.pe.mscredit.service.OverdueSweepService;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CreditServiceImpl implements CreditService {
 
+    private static final int OVERDUE_BATCH_SIZE = 500; // Clientes por agregación
+    private static final int IMPORT_CHUNK_SIZE = 1_000; // Filas por insertMany
+    private static final int IMPORT_CONCURRENCY = 4; // Lotes de importación en paralelo
+    private static final int CUSTOMER_LOOKUP_CONCURRENCY = 32;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String PERSONAL_LIMIT_MESSAGE = "Un cliente personal solo puede tener un crédito.";
+    private static final Set<String> CREDIT_FIELDS = Arrays.stream(Credit.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toSet());
+    // El endpoint del cliente solo escribe los campos de CreditDTO: la caché guarda ese documento, no el completo
+    private static final List<String> CUSTOMER_CREDIT_FIELDS = CreditJsonWriter.CREDIT_DTO.getFields();
+
     private final CreditRepository creditRepository;
-    private final CustomerClient customerClient; // Feign Client para llamar a ms-customer
+    private final CustomerTypeService customerTypeService; // Proyección local de ms-customer
+    private final CreditMetrics creditMetrics;
+    private final ReactiveCache<String, CustomerCreditSummary> summaryCache; // Resumen por cliente
+    private final PortfolioStatsService portfolioStatsService; // Agregados de la cartera, con $inc por escritura
+    private final OverdueSweepService overdueSweepService; // Indica si el flag overdue está al día
+    private final ReactiveCache<String, AmortizationSchedule> scheduleCache; // Cronograma por (id, versión)
+    private final TieredCache<Credit> creditCache; // Crédito por id, versionado con su campo version
+    private final TieredCache<List<RawBsonDocument>> customerCreditsCache; // Documentos de cada cliente
+    private final BatchLoader<String, Credit> creditLoader; // findById agrupados en $in por ventana
+    private final ExecutionPolicy executionPolicy; // Saca del event loop el cómputo de las operaciones configuradas
+    // Reservas de línea para consume/repay; las referencias a métodos leen los campos ya inyectados
+    private final CreditLimitLedger limitLedger = new CreditLimitLedger(
+            this::loadForLimit, this::moveLimit, this::recordLimitFlush);
+
+    public Mono<Credit> validateAndCreateCredit(String customerType, Credit credit) {
+        return executionPolicy.compute("create", () -> {
+            String normalized = normalizeCustomerType(customerType);
+            if (normalized == null) {
+                throw new RuntimeException("Tipo de cliente no válido.");
+            }
+            credit.setCustomerType(normalized);
+            applyOverdueFlag(credit, LocalDate.now());
+            startAccrual(credit);
+            return credit;
+        }).flatMap(this::insertCredit);
+    }
 
-    public Mono<Credit> validateAndCreateCredit(CustomerDTO customer, Credit credit) {
-        if (customer.getType().equalsIgnoreCase("PERSONAL")) {
-            return validatePersonalCredit(credit);
-        } else if (customer.getType().equalsIgnoreCase("EMPRESARIAL")) {
-            return creditRepository.save(credit);
-        } else {
-            return Mono.error(new RuntimeException("Tipo de cliente no válido."));
+    private static String normalizeCustomerType(String customerType) {
+        if ("PERSONAL".equalsIgnoreCase(customerType)) {
+            return "PERSONAL";
+        } else if ("EMPRESARIAL".equalsIgnoreCase(customerType)) {
+            return "EMPRESARIAL";
         }
+        return null;
     }
 
-    private Mono<Credit> validatePersonalCredit(Credit credit) {
-        return creditRepository.findByCustomerId(credit.getCustomerId())
-                .count()
-                .flatMap(count -> {
-                    if (count > 0) {
-                        return Mono.error(new RuntimeException("Un cliente personal solo puede tener un crédito."));
-                    }
-                    return creditRepository.save(credit);
-                });
+    // Una sola escritura: el índice único parcial rechaza el segundo crédito de un cliente personal
+    private Mono<Credit> insertCredit(Credit credit) {
+        return creditRepository.insert(credit)
+                .doOnNext(saved -> summaryCache.invalidate(saved.getCustomerId()))
+                .flatMap(saved -> customerCreditsCache.invalidate(saved.getCustomerId())
+                        .then(portfolioStatsService.record(null, saved))
+                        .thenReturn(saved))
+                .onErrorMap(DuplicateKeyException.class, ex -> new ResponseStatusException(
+                        HttpStatus.CONFLICT, PERSONAL_LIMIT_MESSAGE));
     }
 
     @Override
-    public Flux<Credit> listCredits() {
-        return creditRepository.findAll();
+    public Flux<RawBsonDocument> listCreditDocuments(String after, Integer limit, List<String> fields) {
+        ResponseStatusException invalid = validatePage(after, limit, fields);
+        return creditMetrics.timed("list", invalid != null
+                ? Flux.error(invalid)
+                : creditRepository.findPageDocuments(after, limit, fields));
+    }
+
+    private ResponseStatusException validatePage(String after, Integer limit, List<String> fields) {
+        if (after != null && !ObjectId.isValid(after)) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+        if (limit != null && limit < 1) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "El límite debe ser mayor a cero");
+        }
+        if (fields != null && !CREDIT_FIELDS.containsAll(fields)) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campos no válidos");
+        }
+        return null;
     }
 
     @Override
     public Mono<Credit> getCredit(String id) {
-        return creditRepository.findById(id)
+        return creditMetrics.timed("get", creditCache.get(id, creditLoader::load)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Crédito no encontrado")));
+                        HttpStatus.NOT_FOUND, "Crédito no encontrado"))));
     }
 
+    // Un solo findAndRemove por id: sin la versión en el filtro, una escritura concurrente no hace fallar el
+    // borrado, y las estadísticas y cachés usan el documento tal como se borró
     @Override
     public Mono<Void> deleteCredit(String id) {
-        return creditRepository.findById(id)
+        return creditMetrics.timed("delete", creditRepository.findAndRemove(id)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Crédito no encontrado")))
-                .flatMap(creditRepository::delete);
+                .flatMap(credit -> {
+                    summaryCache.invalidate(credit.getCustomerId());
+                    scheduleCache.invalidate(scheduleKey(credit));
+                    return creditCache.invalidate(credit.getId())
+                            .then(customerCreditsCache.invalidate(credit.getCustomerId()))
+                            .then(portfolioStatsService.record(credit, null));
+                }));
     }
 
     @Override
     public Mono<Credit> createCredit(Credit Credit) {
         if (Credit == null || Credit.getCustomerId() == null) {
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Datos inválidos"));
+            return creditMetrics.timed("create",
+                    Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Datos inválidos")));
         }
-        return customerClient.getCustomerById(Credit.getCustomerId())
+        return creditMetrics.timed("create", customerTypeService.resolveType(Credit.getCustomerId())
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado")))
-                .flatMap(customer -> creditRepository.findByCustomerId(Credit.getCustomerId()).collectList()
-                        .flatMap(existingAccounts -> validateAndCreateCredit( customer, Credit))
-                      //  .flatMap(creditRepository::save)
-                );
+                .flatMap(customerType -> validateAndCreateCredit(customerType, Credit)));
+    }
+
+    // Lotes en paralelo con el reporte en el orden de entrada; el límite personal se valida en memoria dentro
+    // del lote y el índice único lo garantiza entre lotes y contra los créditos existentes
+    @Override
+    public Flux<CreditImportResult> importCredits(Flux<Credit> credits) {
+        return creditMetrics.timed("import", credits
+                .index((index, credit) -> Tuples.of(index + 1, credit))
+                .buffer(IMPORT_CHUNK_SIZE)
+                .flatMapSequential(this::importChunk, IMPORT_CONCURRENCY)
+                .doOnNext(result -> {
+                    if (result.getId() != null) {
+                        summaryCache.invalidate(result.getCustomerId());
+                    }
+                }));
+    }
+
+    private Flux<CreditImportResult> importChunk(List<Tuple2<Long, Credit>> rows) {
+        Map<String, String> lookupErrors = new ConcurrentHashMap<>();
+        return Flux.fromIterable(rows.stream()
+                        .map(row -> row.getT2().getCustomerId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .flatMap(customerId -> customerTypeService.resolveType(customerId)
+                        .map(type -> Tuples.of(customerId, type))
+                        .onErrorResume(ex -> {
+                            lookupErrors.put(customerId, ex instanceof ResponseStatusException
+                                    ? ((ResponseStatusException) ex).getReason()
+                                    : String.valueOf(ex.getMessage()));
+                            return Mono.empty();
+                        }), CUSTOMER_LOOKUP_CONCURRENCY)
+                .collectMap(Tuple2::getT1, Tuple2::getT2)
+                .flatMapMany(types -> insertChunk(rows, types, lookupErrors));
+    }
+
+    private Flux<CreditImportResult> insertChunk(List<Tuple2<Long, Credit>> rows, Map<String, String> types,
+                                                 Map<String, String> lookupErrors) {
+        CreditImportResult[] results = new CreditImportResult[rows.size()];
+        List<Credit> accepted = new ArrayList<>();
+        List<Integer> acceptedPositions = new ArrayList<>();
+        // Validar el lote recorre todas sus filas: es el cómputo que la política puede sacar del event loop
+        return executionPolicy.compute("import", () -> {
+                    Set<String> personalCustomers = new HashSet<>();
+                    for (int i = 0; i < rows.size(); i++) {
+                        Credit credit = rows.get(i).getT2();
+                        String error = validateImportRow(credit, types, lookupErrors, personalCustomers);
+                        if (error == null) {
+                            accepted.add(credit);
+                            acceptedPositions.add(i);
+                        } else {
+                            results[i] = CreditImportResult.rejected(rows.get(i).getT1(), credit.getCustomerId(),
+                                    error);
+                        }
+                    }
+                    return accepted;
+                })
+                .flatMap(creditRepository::insertUnordered)
+                .flatMap(failures -> {
+                    List<Credit> inserted = inserted(accepted, failures);
+                    return Flux.fromIterable(inserted.stream().map(Credit::getCustomerId).collect(Collectors.toSet()))
+                            .flatMap(customerCreditsCache::invalidate)
+                            .then(portfolioStatsService.recordCreated(inserted))
+                            .thenReturn(failures);
+                })
+                .flatMapMany(failures -> {
+                    for (int j = 0; j < accepted.size(); j++) {
+                        int position = acceptedPositions.get(j);
+                        Credit credit = accepted.get(j);
+                        Integer code = failures.get(j);
+                        results[position] = code == null
+                                ? CreditImportResult.created(rows.get(position).getT1(), credit.getId(),
+                                        credit.getCustomerId())
+                                : CreditImportResult.rejected(rows.get(position).getT1(), credit.getCustomerId(),
+                                        code == DUPLICATE_KEY ? PERSONAL_LIMIT_MESSAGE : "Error de MongoDB " + code);
+                    }
+                    return Flux.fromArray(results);
+                });
+    }
+
+    private static List<Credit> inserted(List<Credit> accepted, Map<Integer, Integer> failures) {
+        List<Credit> inserted = new ArrayList<>(accepted.size() - failures.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            if (!failures.containsKey(j)) {
+                inserted.add(accepted.get(j));
+            }
+        }
+        return inserted;
+    }
+
+    private String validateImportRow(Credit credit, Map<String, String> types, Map<String, String> lookupErrors,
+                                     Set<String> personalCustomers) {
+        String customerId = credit.getCustomerId();
+        if (customerId == null || credit.getCreditType() == null || credit.getAmount() == null) {
+            return "Datos inválidos";
+        }
+        String customerType = types.get(customerId);
+        if (customerType == null) {
+            return lookupErrors.getOrDefault(customerId, "Cliente no encontrado");
+        }
+        String normalized = normalizeCustomerType(customerType);
+        if (normalized == null) {
+            return "Tipo de cliente no válido.";
+        }
+        if (normalized.equals("PERSONAL") && !personalCustomers.add(customerId)) {
+            return PERSONAL_LIMIT_MESSAGE;
+        }
+        credit.setCustomerType(normalized);
+        applyOverdueFlag(credit, LocalDate.now());
+        startAccrual(credit);
+        return null;
     }
 
     @Override
     public Mono<Credit> updateCredit(String id, Credit updatedCredit) {
-        return creditRepository.findById(id)
+        Update update = new Update()
+                .set("creditLimit", updatedCredit.getCreditLimit())
+                .set("interestRate", updatedCredit.getInterestRate())
+                .set("termMonths", updatedCredit.getTermMonths())
+                .set("creditType", updatedCredit.getCreditType())
+                .set("currentDebt", updatedCredit.getCurrentDebt())
+                .set("availableLimit", updatedCredit.getAvailableLimit())
+                .set("dueDate", updatedCredit.getDueDate())
+                .set("outstandingAmount", updatedCredit.getOutstandingAmount());
+        return creditMetrics.timed("update", modify(id, null, update)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Cuenta bancaria no encontrada")))
-                .flatMap(existingAccount -> {
-                    existingAccount.setCreditLimit(updatedCredit.getCreditLimit());
-                    existingAccount.setInterestRate(updatedCredit.getInterestRate());
-                    existingAccount.setCreditType(updatedCredit.getCreditType());
-                    existingAccount.setCurrentDebt(updatedCredit.getCurrentDebt());
-                    existingAccount.setAvailableLimit(updatedCredit.getAvailableLimit());
-                    existingAccount.setDueDate(updatedCredit.getDueDate());
-                    existingAccount.setOutstandingAmount(updatedCredit.getOutstandingAmount());
-                    return creditRepository.save(existingAccount);
+                        HttpStatus.NOT_FOUND, "Cuenta bancaria no encontrada"))));
+    }
+
+    @Override
+    public Mono<Credit> patchCredit(String id, CreditPatchDTO patch) {
+        return creditMetrics.timed("patch", applyPatch(id, patch));
+    }
+
+    private Mono<Credit> applyPatch(String id, CreditPatchDTO patch) {
+        if (patch == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Datos inválidos"));
+        }
+        Update update = new Update();
+        setIfPresent(update, "creditType", patch.getCreditType());
+        setIfPresent(update, "creditLimit", patch.getCreditLimit());
+        setIfPresent(update, "interestRate", patch.getInterestRate());
+        setIfPresent(update, "termMonths", patch.getTermMonths());
+        setIfPresent(update, "dueDate", patch.getDueDate());
+        setIfPresent(update, "currentDebt", patch.getCurrentDebt());
+        setIfPresent(update, "availableLimit", patch.getAvailableLimit());
+        setIfPresent(update, "outstandingAmount", patch.getOutstandingAmount());
+        incIfPresent(update, "currentDebt", patch.getCurrentDebtDelta());
+        incIfPresent(update, "availableLimit", patch.getAvailableLimitDelta());
+        incIfPresent(update, "outstandingAmount", patch.getOutstandingAmountDelta());
+
+        if (update.getUpdateObject().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "No hay campos para actualizar"));
+        }
+        if ((patch.getCurrentDebt() != null && patch.getCurrentDebtDelta() != null)
+                || (patch.getAvailableLimit() != null && patch.getAvailableLimitDelta() != null)
+                || (patch.getOutstandingAmount() != null && patch.getOutstandingAmountDelta() != null)) {
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Un campo no puede asignarse e incrementarse a la vez"));
+        }
+
+        return modify(id, patch.getVersion(), update)
+                .switchIfEmpty(Mono.defer(() -> creditRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new ResponseStatusException(HttpStatus.CONFLICT,
+                                        "El crédito fue modificado por otra operación")
+                                : new ResponseStatusException(HttpStatus.NOT_FOUND, "Crédito no encontrado")))));
+    }
+
+    @Override
+    public Mono<Credit> consume(String id, Money amount) {
+        return creditMetrics.timed("consume", movementAmount(amount)
+                .flatMap(minorUnits -> limitLedger.consume(id, minorUnits)));
+    }
+
+    @Override
+    public Mono<Credit> repay(String id, Money amount) {
+        return creditMetrics.timed("repay", movementAmount(amount)
+                .flatMap(minorUnits -> limitLedger.repay(id, minorUnits)));
+    }
+
+    private static Mono<Long> movementAmount(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "El monto debe ser mayor a cero"));
+        }
+        return Mono.just(amount.getMinorUnits());
+    }
+
+    // Sin caché: las reservas parten del documento persistido
+    private Mono<Credit> loadForLimit(String id) {
+        return creditLoader.load(id);
+    }
+
+    // Una tanda del ledger: mismo efecto en cachés y agregados que cualquier otra escritura
+    private Mono<Credit> moveLimit(String id, long amount) {
+        return applied(creditRepository.findAndMoveLimit(id, amount));
+    }
+
+    private void recordLimitFlush(int movements) {
+        creditMetrics.recordLimitFlush(movements);
+    }
+
+    private Mono<Credit> modify(String id, Long expectedVersion, Update update) {
+        return applied(creditRepository.findAndModifyWithPrevious(id, expectedVersion, update));
+    }
+
+    // Con las dos imágenes del documento se actualizan los agregados de la cartera con la diferencia exacta
+    private Mono<Credit> applied(Mono<Tuple2<Credit, Credit>> changes) {
+        return changes
+                .flatMap(change -> {
+                    summaryCache.invalidate(change.getT1().getCustomerId());
+                    summaryCache.invalidate(change.getT2().getCustomerId());
+                    if (changesSchedule(change.getT1(), change.getT2())) {
+                        scheduleCache.invalidate(scheduleKey(change.getT1()));
+                    }
+                    // Se invalida al final: syncOverdueFlag corrige el flag sin cambiar la versión
+                    return portfolioStatsService.record(change.getT1(), change.getT2())
+                            .then(syncOverdueFlag(change.getT2()))
+                            .flatMap(credit -> creditCache.invalidate(credit.getId(), credit)
+                                    .then(customerCreditsCache.invalidate(change.getT1().getCustomerId()))
+                                    .then(customerCreditsCache.invalidate(change.getT2().getCustomerId()))
+                                    .thenReturn(credit));
                 });
     }
 
+    // La versión nueva ya no coincide con la clave; solo se libera antes la entrada que quedó sin uso
+    private static boolean changesSchedule(Credit before, Credit after) {
+        return !Objects.equals(before.getAmount(), after.getAmount())
+                || !Objects.equals(before.getInterestRate(), after.getInterestRate())
+                || !Objects.equals(before.getTermMonths(), after.getTermMonths());
+    }
+
+    // El barrido diario solo marca lo que vence con el paso del tiempo: los cambios de dueDate o de deuda
+    // se reflejan aquí. Si otra escritura ya cambió la versión, su propia corrección gana
+    private Mono<Credit> syncOverdueFlag(Credit credit) {
+        boolean flagged = Boolean.TRUE.equals(credit.getOverdue());
+        if (flagged == credit.isPastDue(LocalDate.now())) {
+            return Mono.just(credit);
+        }
+        applyOverdueFlag(credit, LocalDate.now());
+        return creditRepository.setOverdue(credit.getId(), credit.getVersion(), credit.getOverdue(),
+                        credit.getOverdueSince())
+                .thenReturn(credit);
+    }
+
+    // El devengo cuenta desde la adquisición; los créditos sin lastAccrualDate son anteriores al devengo
+    private static void startAccrual(Credit credit) {
+        if (credit.getLastAccrualDate() == null) {
+            credit.setLastAccrualDate(credit.getCreatedAt() != null
+                    ? credit.getCreatedAt().toLocalDate() : LocalDate.now());
+        }
+    }
+
+    private static void applyOverdueFlag(Credit credit, LocalDate today) {
+        boolean pastDue = credit.isPastDue(today);
+        credit.setOverdue(pastDue);
+        credit.setOverdueSince(pastDue ? credit.getDueDate().plusDays(1) : null);
+    }
+
+    private void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    // $inc en unidades mínimas, el mismo Int64 con el que se guarda Money
+    private void incIfPresent(Update update, String field, Money delta) {
+        if (delta != null) {
+            update.inc(field, delta.getMinorUnits());
+        }
+    }
+
     @Override
     public Flux<Credit> getCreditProductsByCustomer(String id) {
-        return creditRepository.findByCustomerId(id)
+        return creditMetrics.timed("customer", creditRepository.findByCustomerId(id)
+                .switchIfEmpty(Flux.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No se encontraron créditos para este cliente"))));
+    }
+
+    // Se cachean los documentos ya proyectados a CreditDTO; las escrituras de esta instancia invalidan ambos niveles
+    @Override
+    public Flux<RawBsonDocument> getCreditDocumentsByCustomer(String id) {
+        return creditMetrics.timed("customer", customerCreditsCache.get(id, customerId -> creditRepository
+                                .findDocumentsByCustomerId(customerId, CUSTOMER_CREDIT_FIELDS)
+                                .collectList()
+                                .filter(documents -> !documents.isEmpty()))
+                .flatMapMany(Flux::fromIterable)
                 .switchIfEmpty(Flux.error(new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "No se encontraron créditos para este cliente")));
+                        HttpStatus.NOT_FOUND, "No se encontraron créditos para este cliente"))));
+    }
+
+    // Cacheado por cliente; las escrituras de esta instancia lo invalidan y el TTL acota el resto
+    @Override
+    public Mono<CustomerCreditSummary> getCustomerSummary(String customerId) {
+        return creditMetrics.timed("summary", summaryCache.get(customerId,
+                        id -> creditRepository.summarizeByCustomer(id, LocalDate.now()))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No se encontraron créditos para este cliente"))));
+    }
+
+    // Cacheado por (id, versión): cualquier escritura cambia la versión, así que nunca se sirve uno desactualizado
+    @Override
+    public Mono<AmortizationSchedule> getSchedule(String id) {
+        return creditMetrics.timed("schedule", creditLoader.load(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Crédito no encontrado")))
+                .flatMap(credit -> scheduleCache.get(scheduleKey(credit), key -> schedule(credit))));
+    }
+
+    private Mono<AmortizationSchedule> schedule(Credit credit) {
+        Integer termMonths = credit.getTermMonths();
+        if (termMonths == null || termMonths < 1 || termMonths > AmortizationCalculator.MAX_TERM_MONTHS
+                || credit.getAmount() == null || !credit.getAmount().isPositive()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                    "El crédito no tiene monto y plazo válidos para generar el cronograma"));
+        }
+        double rate = credit.getInterestRate() == null ? 0.0 : credit.getInterestRate();
+        LocalDate start = credit.getCreatedAt() == null ? LocalDate.now() : credit.getCreatedAt().toLocalDate();
+        return executionPolicy.compute("schedule", () -> AmortizationCalculator.compute(credit.getId(),
+                credit.getVersion(), credit.getAmount(), rate, termMonths, start));
+    }
+
+    private static String scheduleKey(Credit credit) {
+        return credit.getId() + ":" + credit.getVersion();
     }
 
     @Override
     public Mono<Boolean> hasOverdueDebt(String customerId) {
-        return creditRepository.findByCustomerId(customerId)
-                .filter(credit -> credit.getDueDate().isBefore(LocalDate.now()) && credit.getOutstandingAmount() > 0)
-                .hasElements();
+        LocalDate today = LocalDate.now();
+        // Hasta que termine el barrido del día, los que vencieron hoy aún no tienen el flag
+        return creditMetrics.timed("overdue", overdueSweepService.isCurrent(today)
+                ? creditRepository.existsFlaggedOverdue(customerId)
+                : creditRepository.existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                        customerId, today, 0.0));
+    }
+
+    @Override
+    public Flux<OverdueDebtStatus> hasOverdueDebt(Flux<String> customerIds) {
+        LocalDate today = LocalDate.now();
+        boolean flagged = overdueSweepService.isCurrent(today);
+        return creditMetrics.timed("overdue.batch", customerIds
+                .buffer(OVERDUE_BATCH_SIZE)
+                .concatMap(batch -> {
+                    Set<String> uniqueIds = new LinkedHashSet<>(batch);
+                    return (flagged
+                            ? creditRepository.findCustomerIdsFlaggedOverdue(uniqueIds)
+                            : creditRepository.findCustomerIdsWithOverdueDebt(uniqueIds, today))
+                            .collect(Collectors.toSet())
+                            .flatMap(overdueIds -> executionPolicy.compute("overdue.batch", () -> uniqueIds.stream()
+                                    .map(id -> new OverdueDebtStatus(id, overdueIds.contains(id)))
+                                    .collect(Collectors.toList())))
+                            .flatMapMany(Flux::fromIterable);
+                }));
     }
 
-}
\ No newline at end of file
+}
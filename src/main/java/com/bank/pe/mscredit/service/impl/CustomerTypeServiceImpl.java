@@ -0,0 +1,204 @@
+package com.bank.pe.mscredit.service.impl;
+
+import com.bank.pe.mscredit.client.CustomerClient;
+import com.bank.pe.mscredit.config.CustomerTypeProperties;
+import com.bank.pe.mscredit.entity.CustomerType;
+import com.bank.pe.mscredit.repository.CustomerTypeRepository;
+import com.bank.pe.mscredit.service.CustomerTypeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resuelve el tipo de cliente sin pasar por ms-customer: memoria, luego la colección customer_types y solo
+ * ante un fallo de ambas (o un dato vencido) se consulta ms-customer y se guarda el resultado.
+ * <p>
+ * La memoria se llena al arrancar con customer_types completo y después se sincroniza de forma incremental
+ * por syncedAt, así las actualizaciones recibidas por otra instancia también llegan a esta.
+ */
+@Service
+public class CustomerTypeServiceImpl implements CustomerTypeService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerTypeServiceImpl.class);
+    // Escrituras confirmadas durante la lectura anterior
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final CustomerTypeRepository customerTypeRepository;
+    private final CustomerClient customerClient;
+    private final CustomerTypeProperties properties;
+    private final Clock clock;
+    private final Map<String, CustomerType> types = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer entryAge;
+    private volatile Instant watermark = Instant.EPOCH;
+    private volatile Instant lastSyncAt;
+    private volatile Disposable subscription;
+
+    @Autowired
+    public CustomerTypeServiceImpl(CustomerTypeRepository customerTypeRepository, CustomerClient customerClient,
+                                   CustomerTypeProperties properties, MeterRegistry meterRegistry) {
+        this(customerTypeRepository, customerClient, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    CustomerTypeServiceImpl(CustomerTypeRepository customerTypeRepository, CustomerClient customerClient,
+                            CustomerTypeProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.customerTypeRepository = customerTypeRepository;
+        this.customerClient = customerClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.entryAge = Timer.builder("customer.types.age")
+                .description("Antigüedad del tipo de cliente usado, desde su última confirmación")
+                .register(meterRegistry);
+        Gauge.builder("customer.types.size", types, Map::size)
+                .description("Clientes en la proyección local")
+                .register(meterRegistry);
+        Gauge.builder("customer.types.sync.lag", this, CustomerTypeServiceImpl::syncLagSeconds)
+                .description("Segundos desde la última sincronización con customer_types")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<String> resolveType(String customerId) {
+        CustomerType known = types.get(customerId);
+        if (known != null) {
+            Duration age = Duration.between(known.getSyncedAt(), clock.instant());
+            entryAge.record(age);
+            if (age.compareTo(properties.getMaxAge()) <= 0) {
+                lookups("memory");
+                return Mono.just(known.getType());
+            }
+            // Vencido: se confirma con ms-customer, y si no responde se usa el valor conocido
+            return fetchRemote(customerId)
+                    .onErrorReturn(ex -> !isNotFound(ex), known.getType());
+        }
+        return customerTypeRepository.findById(customerId)
+                .doOnNext(found -> {
+                    remember(found);
+                    lookups("mongo");
+                })
+                .map(CustomerType::getType)
+                .switchIfEmpty(Mono.defer(() -> fetchRemote(customerId)));
+    }
+
+    // Pasa por la misma normalización que la carga masiva: la proyección solo guarda PERSONAL o EMPRESARIAL
+    private Mono<String> fetchRemote(String customerId) {
+        lookups("remote");
+        return customerClient.getCustomerById(customerId)
+                .map(customer -> normalize(new CustomerType(customerId, customer.getType(), null, null)))
+                .flatMap(fetched -> {
+                    // Si no se puede guardar, el crédito se crea igual; se volverá a consultar la próxima vez
+                    return customerTypeRepository.upsertAll(List.of(fetched))
+                            .doOnSuccess(ignored -> remember(fetched))
+                            .onErrorResume(ex -> {
+                                logger.warn("No se pudo guardar el tipo del cliente {}", customerId, ex);
+                                return Mono.empty();
+                            })
+                            .thenReturn(fetched.getType());
+                });
+    }
+
+    @Override
+    public Mono<Long> upsert(Flux<CustomerType> customerTypes) {
+        return customerTypes
+                .map(this::normalize)
+                .buffer(properties.getBatchSize())
+                .concatMap(batch -> customerTypeRepository.upsertAll(batch)
+                        .doOnSuccess(applied -> batch.forEach(this::remember)))
+                .reduce(0L, Long::sum);
+    }
+
+    private CustomerType normalize(CustomerType customerType) {
+        if (customerType.getId() == null || customerType.getType() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Datos inválidos");
+        }
+        String type = customerType.getType().toUpperCase(Locale.ROOT);
+        if (!type.equals("PERSONAL") && !type.equals("EMPRESARIAL")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de cliente no válido");
+        }
+        Instant now = clock.instant();
+        Instant updatedAt = customerType.getUpdatedAt() == null ? now : customerType.getUpdatedAt();
+        return new CustomerType(customerType.getId(), type, updatedAt, now);
+    }
+
+    // Gana la versión más reciente de ms-customer, sin importar el orden de llegada
+    private void remember(CustomerType customerType) {
+        types.merge(customerType.getId(), customerType, (current, incoming) ->
+                incoming.getUpdatedAt().isBefore(current.getUpdatedAt()) ? current : incoming);
+    }
+
+    Mono<Long> sync() {
+        Instant since = watermark.minus(SYNC_OVERLAP);
+        return customerTypeRepository.findSyncedSince(since)
+                .doOnNext(customerType -> {
+                    remember(customerType);
+                    if (customerType.getSyncedAt().isAfter(watermark)) {
+                        watermark = customerType.getSyncedAt();
+                    }
+                })
+                .count()
+                .doOnSuccess(count -> {
+                    lastSyncAt = clock.instant();
+                    logger.debug("Sincronizados {} tipos de cliente desde {}", count, since);
+                });
+    }
+
+    private double syncLagSeconds() {
+        Instant last = lastSyncAt;
+        return last == null ? Double.NaN : Duration.between(last, clock.instant()).toMillis() / 1000.0;
+    }
+
+    private void lookups(String source) {
+        meterRegistry.counter("customer.types.lookups", "source", source).increment();
+    }
+
+    private static boolean isNotFound(Throwable ex) {
+        return ex instanceof ResponseStatusException
+                && ((ResponseStatusException) ex).getStatus() == HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, properties.getSyncInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sync()
+                        .onErrorResume(ex -> {
+                            logger.warn("No se pudo sincronizar customer_types", ex);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
@@ -0,0 +1,242 @@
+package com.bank.pe.mscredit.service.impl;
+
+import com.bank.pe.mscredit.accrual.InterestAccrual;
+import com.bank.pe.mscredit.accrual.InterestCalculator;
+import com.bank.pe.mscredit.cache.CreditCacheInvalidator;
+import com.bank.pe.mscredit.config.InterestAccrualProperties;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.service.InterestAccrualService;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Devengo diario de intereses: suma a outstandingAmount el interés simple (ACT/365) de los días transcurridos
+ * desde lastAccrualDate. El interés se calcula sobre el capital, outstandingAmount menos accruedInterest, para que
+ * lo devengado no genere intereses.
+ * <p>
+ * Los créditos nuevos fijan lastAccrualDate al crearse. Los anteriores al devengo no lo tienen: la primera corrida
+ * solo lo fija en su fecha, sin interés retroactivo, y desde ahí devengan como el resto.
+ * <p>
+ * La colección se recorre con un cursor por lotes de chunkSize; cada lote se calcula en long sobre arreglos en
+ * el scheduler parallel, fuera del event loop, y se escribe con un bulkWrite no ordenado, con hasta concurrency
+ * lotes en vuelo. Cada escritura exige que el día no esté devengado y la versión leída: reanudar una corrida
+ * solo procesa lo que faltaba, y un crédito modificado entre la lectura y la escritura se devenga en la
+ * siguiente corrida sin perder días. Los créditos cuyo interés aún no llega a un céntimo no se escriben, para
+ * que la fracción se acumule con los días. Cada lote escrito invalida las cachés de sus créditos y clientes.
+ */
+@Service
+public class InterestAccrualServiceImpl implements InterestAccrualService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualServiceImpl.class);
+    static final String JOB_ID = "interest-accrual";
+
+    private final CreditRepository creditRepository;
+    private final PortfolioStatsService portfolioStatsService;
+    private final CreditCacheInvalidator cacheInvalidator;
+    private final BatchJobRunner runner;
+    private final InterestAccrualProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Timer duration;
+    private final Counter accrued;
+    private final Counter interest;
+    private volatile Disposable subscription;
+
+    @Autowired
+    public InterestAccrualServiceImpl(CreditRepository creditRepository, BatchJobRepository jobRepository,
+                                      PortfolioStatsService portfolioStatsService,
+                                      CreditCacheInvalidator cacheInvalidator,
+                                      InterestAccrualProperties properties, MeterRegistry meterRegistry) {
+        this(creditRepository, jobRepository, portfolioStatsService, cacheInvalidator, properties, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    InterestAccrualServiceImpl(CreditRepository creditRepository, BatchJobRepository jobRepository,
+                               PortfolioStatsService portfolioStatsService, CreditCacheInvalidator cacheInvalidator,
+                               InterestAccrualProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.creditRepository = creditRepository;
+        this.portfolioStatsService = portfolioStatsService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.runner = new BatchJobRunner(JOB_ID, jobRepository, properties.getLease(), clock);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.duration = Timer.builder("credits.interest.accrual")
+                .description("Duración de cada corrida del devengo de intereses")
+                .register(meterRegistry);
+        this.accrued = Counter.builder("credits.interest.accrual.credits")
+                .description("Créditos con interés devengado")
+                .register(meterRegistry);
+        this.interest = Counter.builder("credits.interest.accrual.amount")
+                .description("Interés devengado")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<BatchJob> getProgress() {
+        return runner.state();
+    }
+
+    // Corre el devengo de hoy si ya pasó runAt y nadie lo completó
+    Mono<BatchJob> accrueIfDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (runner.isCompleted(now.toLocalDate()) || now.toLocalTime().isBefore(properties.getRunAt())) {
+            return Mono.empty();
+        }
+        return accrue(now.toLocalDate());
+    }
+
+    Mono<BatchJob> accrue(LocalDate accrualDate) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return runner.run(accrualDate, from -> accrueAll(accrualDate))
+                    .doFinally(signal -> sample.stop(duration));
+        });
+    }
+
+    private Mono<Void> accrueAll(LocalDate accrualDate) {
+        return creditRepository.findAccrualCandidates(accrualDate)
+                .buffer(properties.getChunkSize())
+                .flatMap(chunk -> Mono.fromCallable(() -> compute(chunk, accrualDate))
+                        .subscribeOn(Schedulers.parallel())
+                        .flatMap(batch -> write(batch, chunk.size(), accrualDate)), properties.getConcurrency())
+                .then();
+    }
+
+    private Mono<Void> write(AccrualBatch batch, int scanned, LocalDate accrualDate) {
+        return creditRepository.applyAccruals(batch.accruals, accrualDate)
+                // Las escrituras que aplicaron dejaron version + 1; invalidar las que no aplicaron no cambia nada
+                .flatMap(updated -> cacheInvalidator.invalidate(batch.written(),
+                                credit -> CreditCacheInvalidator.version(credit) + 1)
+                        .thenReturn(updated))
+                .flatMap(updated -> {
+                    accrued.increment(updated);
+                    if (updated < batch.accruals.size()) {
+                        // No se sabe qué escrituras no aplicaron: el desfase lo corrige la reconciliación
+                        return runner.progress(null, scanned, updated);
+                    }
+                    interest.increment(InterestCalculator.fromCents(batch.interestCents));
+                    return portfolioStatsService.recordChanges(batch.changes)
+                            .then(runner.progress(null, scanned, updated));
+                });
+    }
+
+    static AccrualBatch compute(List<Credit> chunk, LocalDate accrualDate) {
+        int size = chunk.size();
+        long[] outstanding = new long[size];
+        long[] principal = new long[size];
+        long[] rate = new long[size];
+        int[] days = new int[size];
+        long[] interest = new long[size];
+        for (int i = 0; i < size; i++) {
+            Credit credit = chunk.get(i);
+            outstanding[i] = minorUnits(credit.getOutstandingAmount());
+            principal[i] = Math.max(0L, outstanding[i] - minorUnits(credit.getAccruedInterest()));
+            rate[i] = InterestCalculator.toRateMicros(credit.getInterestRate());
+            days[i] = (int) ChronoUnit.DAYS.between(accruedThrough(credit, accrualDate), accrualDate);
+        }
+        InterestCalculator.accrue(principal, rate, days, interest, size);
+
+        AccrualBatch batch = new AccrualBatch(size);
+        for (int i = 0; i < size; i++) {
+            // Sin lastAccrualDate se escribe aunque no haya interés: fija desde cuándo se devenga
+            if (interest[i] > 0 || chunk.get(i).getLastAccrualDate() == null) {
+                batch.add(chunk.get(i), outstanding[i] + interest[i], interest[i]);
+            }
+        }
+        return batch;
+    }
+
+    // Sin devengos previos (crédito anterior al devengo) no hay días pendientes
+    private static LocalDate accruedThrough(Credit credit, LocalDate accrualDate) {
+        return credit.getLastAccrualDate() != null ? credit.getLastAccrualDate() : accrualDate;
+    }
+
+    private static long minorUnits(Money money) {
+        return money == null ? 0L : money.getMinorUnits();
+    }
+
+    static final class AccrualBatch {
+        final List<InterestAccrual> accruals;
+        final List<Tuple2<Credit, Credit>> changes;
+        long interestCents;
+
+        AccrualBatch(int capacity) {
+            this.accruals = new ArrayList<>(capacity);
+            this.changes = new ArrayList<>(capacity);
+        }
+
+        void add(Credit credit, long outstandingCents, long interestCents) {
+            Money outstanding = Money.ofMinor(outstandingCents);
+            accruals.add(new InterestAccrual(credit.getId(), credit.getVersion(), outstanding,
+                    Money.ofMinor(interestCents)));
+            // Solo cambia la deuda pendiente; la lectura trae los campos que usan los agregados
+            Credit after = new Credit();
+            after.setCreditType(credit.getCreditType());
+            after.setDueDate(credit.getDueDate());
+            after.setOutstandingAmount(outstanding);
+            changes.add(Tuples.of(credit, after));
+            this.interestCents += interestCents;
+        }
+
+        List<Credit> written() {
+            List<Credit> written = new ArrayList<>(changes.size());
+            changes.forEach(change -> written.add(change.getT1()));
+            return written;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, properties.getCheckInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> accrueIfDue()
+                        .onErrorResume(ex -> {
+                            logger.warn("No se pudo completar el devengo de intereses", ex);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
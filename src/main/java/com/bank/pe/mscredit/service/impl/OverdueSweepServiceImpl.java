@@ -0,0 +1,155 @@
+package com.bank.pe.mscredit.service.impl;
+
+import com.bank.pe.mscredit.cache.CreditCacheInvalidator;
+import com.bank.pe.mscredit.config.OverdueSweepProperties;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import com.bank.pe.mscredit.service.OverdueSweepService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Barrido diario que marca overdue/overdueSince en los créditos cuyo dueDate acaba de pasar, para que
+ * hasOverdueDebt sea una lectura cubierta por customer_overdue_idx en vez de comparar fechas.
+ * <p>
+ * Cada corrida cubre dueDate en [último día completado, hoy). Los candidatos se reparten por hash de
+ * customerId en particiones que escriben en paralelo con bulkWrite. El filtro de cada escritura excluye lo ya
+ * marcado, así que reanudar una corrida interrumpida solo procesa lo que faltaba; el lease en batch_jobs
+ * evita que dos instancias la ejecuten a la vez. Las escrituras de créditos mantienen el flag entre corridas.
+ * Cada lote invalida las cachés de sus créditos y clientes.
+ */
+@Service
+public class OverdueSweepServiceImpl implements OverdueSweepService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueSweepServiceImpl.class);
+    static final String SWEEP_ID = "overdue-sweep";
+
+    private final CreditRepository creditRepository;
+    private final CreditCacheInvalidator cacheInvalidator;
+    private final BatchJobRunner runner;
+    private final OverdueSweepProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Timer duration;
+    private final Counter marked;
+    private volatile Disposable subscription;
+
+    @Autowired
+    public OverdueSweepServiceImpl(CreditRepository creditRepository, BatchJobRepository jobRepository,
+                                   CreditCacheInvalidator cacheInvalidator, OverdueSweepProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this(creditRepository, jobRepository, cacheInvalidator, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    OverdueSweepServiceImpl(CreditRepository creditRepository, BatchJobRepository jobRepository,
+                            CreditCacheInvalidator cacheInvalidator, OverdueSweepProperties properties,
+                            MeterRegistry meterRegistry, Clock clock) {
+        this.creditRepository = creditRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.runner = new BatchJobRunner(SWEEP_ID, jobRepository, properties.getLease(), clock);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.duration = Timer.builder("credits.overdue.sweep")
+                .description("Duración de cada ejecución del barrido de vencidos")
+                .register(meterRegistry);
+        this.marked = Counter.builder("credits.overdue.sweep.marked")
+                .description("Créditos marcados como vencidos por el barrido")
+                .register(meterRegistry);
+        Gauge.builder("credits.overdue.sweep.lag", this, OverdueSweepServiceImpl::lagDays)
+                .description("Días desde el último barrido completado")
+                .baseUnit("days")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isCurrent(LocalDate today) {
+        return runner.isCompleted(today);
+    }
+
+    @Override
+    public Mono<BatchJob> getProgress() {
+        return runner.state();
+    }
+
+    Mono<BatchJob> sweep() {
+        LocalDate today = LocalDate.now(clock);
+        return runner.run(today, from -> markOverdue(from, today))
+                .transform(this::timed);
+    }
+
+    private Mono<Void> markOverdue(LocalDate from, LocalDate today) {
+        int shards = properties.getShards();
+        return creditRepository.findOverdueCandidates(from, today)
+                .groupBy(credit -> Math.floorMod(Objects.hashCode(credit.getCustomerId()), shards))
+                .flatMap(shard -> shard
+                        .buffer(properties.getBatchSize())
+                        .concatMap(batch -> creditRepository.markOverdue(batch, today)
+                                .doOnNext(marked::increment)
+                                // markOverdue no cambia la versión
+                                .flatMap(updated -> cacheInvalidator
+                                        .invalidate(batch, CreditCacheInvalidator::version)
+                                        .thenReturn(updated))
+                                .flatMap(updated -> runner.progress(String.valueOf(shard.key()), batch.size(),
+                                        updated))), shards)
+                .then();
+    }
+
+    private <T> Mono<T> timed(Mono<T> sweep) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return sweep.doFinally(signal -> sample.stop(duration));
+        });
+    }
+
+    private double lagDays() {
+        LocalDate completed = runner.lastCompletedDate();
+        return completed == null ? Double.NaN : ChronoUnit.DAYS.between(completed, LocalDate.now(clock));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, properties.getInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep()
+                        .onErrorResume(ex -> {
+                            logger.warn("No se pudo completar el barrido de vencidos", ex);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
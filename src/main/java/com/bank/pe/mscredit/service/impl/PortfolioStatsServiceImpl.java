@@ -0,0 +1,272 @@
+package com.bank.pe.mscredit.service.impl;
+
+import com.bank.pe.mscredit.config.PortfolioStatsProperties;
+import com.bank.pe.mscredit.dto.PortfolioStatsDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.repository.PortfolioStatsRepository;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Agregados de toda la cartera servidos desde portfolio_stats (un documento por tipo de crédito), sin recorrer
+ * credits en cada consulta.
+ * <p>
+ * Cada escritura confirmada suma su diferencia con $inc. Lo que los $inc no pueden seguir se corrige con la
+ * reconciliación periódica: un $inc perdido (la escritura del crédito no es transaccional con la de los
+ * agregados) y los créditos que pasan a vencidos solo porque avanza la fecha. Los montos se suman en céntimos,
+ * así que un agregado al día coincide exactamente con el recálculo.
+ * <p>
+ * La reconciliación recorre toda la colección credits: una sola instancia la ejecuta por intervalo, la que toma
+ * el lease en batch_jobs. El lease dura un intervalo y no se suelta; si esa instancia se cae, otra lo toma al
+ * vencer.
+ */
+@Service
+public class PortfolioStatsServiceImpl implements PortfolioStatsService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioStatsServiceImpl.class);
+    static final String UNKNOWN_TYPE = "sin_tipo"; // Créditos sin creditType
+    static final String RECONCILE_JOB_ID = "portfolio-stats-reconcile";
+
+    private final PortfolioStatsRepository statsRepository;
+    private final CreditRepository creditRepository;
+    private final BatchJobRepository jobRepository;
+    private final PortfolioStatsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile Disposable subscription;
+
+    @Autowired
+    public PortfolioStatsServiceImpl(PortfolioStatsRepository statsRepository, CreditRepository creditRepository,
+                                     BatchJobRepository jobRepository, PortfolioStatsProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this(statsRepository, creditRepository, jobRepository, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    PortfolioStatsServiceImpl(PortfolioStatsRepository statsRepository, CreditRepository creditRepository,
+                              BatchJobRepository jobRepository, PortfolioStatsProperties properties,
+                              MeterRegistry meterRegistry, Clock clock) {
+        this.statsRepository = statsRepository;
+        this.creditRepository = creditRepository;
+        this.jobRepository = jobRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<PortfolioStatsDTO> getStats() {
+        return statsRepository.findAll()
+                .collectList()
+                .map(PortfolioStatsServiceImpl::toDTO);
+    }
+
+    // Se suma en céntimos y se pasa a soles al final
+    private static PortfolioStatsDTO toDTO(List<PortfolioStats> byType) {
+        PortfolioStats total = new PortfolioStats();
+        PortfolioStatsDTO dto = new PortfolioStatsDTO(0, 0, 0, 0, 0, 0, 0, new TreeMap<>(), new TreeMap<>(), null);
+        for (PortfolioStats stats : byType) {
+            total.setCreditCount(total.getCreditCount() + stats.getCreditCount());
+            total.setTotalAmount(total.getTotalAmount() + stats.getTotalAmount());
+            total.setTotalCreditLimit(total.getTotalCreditLimit() + stats.getTotalCreditLimit());
+            total.setTotalCurrentDebt(total.getTotalCurrentDebt() + stats.getTotalCurrentDebt());
+            total.setTotalOutstandingAmount(total.getTotalOutstandingAmount() + stats.getTotalOutstandingAmount());
+            total.setOverdueCount(total.getOverdueCount() + stats.getOverdueCount());
+            total.setOverdueAmount(total.getOverdueAmount() + stats.getOverdueAmount());
+            dto.getCreditsByType().put(stats.getId(), stats.getCreditCount());
+            dto.getDebtByType().put(stats.getId(), soles(stats.getTotalCurrentDebt()));
+            Instant reconciledAt = stats.getReconciledAt();
+            if (reconciledAt != null
+                    && (dto.getReconciledAt() == null || reconciledAt.isBefore(dto.getReconciledAt()))) {
+                dto.setReconciledAt(reconciledAt);
+            }
+        }
+        dto.setCreditCount(total.getCreditCount());
+        dto.setTotalAmount(soles(total.getTotalAmount()));
+        dto.setTotalCreditLimit(soles(total.getTotalCreditLimit()));
+        dto.setTotalCurrentDebt(soles(total.getTotalCurrentDebt()));
+        dto.setTotalOutstandingAmount(soles(total.getTotalOutstandingAmount()));
+        dto.setOverdueCount(total.getOverdueCount());
+        dto.setOverdueAmount(soles(total.getOverdueAmount()));
+        return dto;
+    }
+
+    private static double soles(long minorUnits) {
+        return Money.ofMinor(minorUnits).doubleValue();
+    }
+
+    @Override
+    public Mono<Void> record(Credit before, Credit after) {
+        Map<String, PortfolioStats> deltas = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now(clock);
+        if (before != null) {
+            accumulate(deltas, before, -1, today);
+        }
+        if (after != null) {
+            accumulate(deltas, after, 1, today);
+        }
+        return increment(deltas.values());
+    }
+
+    @Override
+    public Mono<Void> recordCreated(Collection<Credit> credits) {
+        Map<String, PortfolioStats> deltas = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now(clock);
+        credits.forEach(credit -> accumulate(deltas, credit, 1, today));
+        return increment(deltas.values());
+    }
+
+    @Override
+    public Mono<Void> recordChanges(Collection<Tuple2<Credit, Credit>> changes) {
+        Map<String, PortfolioStats> deltas = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now(clock);
+        changes.forEach(change -> {
+            accumulate(deltas, change.getT1(), -1, today);
+            accumulate(deltas, change.getT2(), 1, today);
+        });
+        return increment(deltas.values());
+    }
+
+    // El crédito ya está confirmado: si el $inc falla no se propaga el error, lo corrige la reconciliación
+    private Mono<Void> increment(Collection<PortfolioStats> deltas) {
+        return statsRepository.increment(deltas)
+                .doOnSuccess(ignored -> updates("success"))
+                .onErrorResume(ex -> {
+                    updates("error");
+                    logger.warn("No se pudieron actualizar los agregados de la cartera", ex);
+                    return Mono.empty();
+                });
+    }
+
+    static void accumulate(Map<String, PortfolioStats> deltas, Credit credit, int sign, LocalDate today) {
+        String type = credit.getCreditType() == null ? UNKNOWN_TYPE : credit.getCreditType();
+        PortfolioStats delta = deltas.computeIfAbsent(type, PortfolioStats::new);
+        long outstanding = minorUnits(credit.getOutstandingAmount());
+        delta.setCreditCount(delta.getCreditCount() + sign);
+        delta.setTotalAmount(delta.getTotalAmount() + sign * minorUnits(credit.getAmount()));
+        delta.setTotalCreditLimit(delta.getTotalCreditLimit() + sign * minorUnits(credit.getCreditLimit()));
+        delta.setTotalCurrentDebt(delta.getTotalCurrentDebt() + sign * minorUnits(credit.getCurrentDebt()));
+        delta.setTotalOutstandingAmount(delta.getTotalOutstandingAmount() + sign * outstanding);
+        if (credit.isPastDue(today)) {
+            delta.setOverdueCount(delta.getOverdueCount() + sign);
+            delta.setOverdueAmount(delta.getOverdueAmount() + sign * outstanding);
+        }
+    }
+
+    private static long minorUnits(Money amount) {
+        return amount == null ? 0L : amount.getMinorUnits();
+    }
+
+    // Solo la instancia con el lease recalcula; el lease cubre el intervalo y se renueva en la siguiente pasada
+    Mono<Void> reconcileIfLeader() {
+        Instant now = clock.instant();
+        return jobRepository.acquire(RECONCILE_JOB_ID, owner, now, now.plus(properties.getReconcileInterval()))
+                .flatMap(lease -> reconcile());
+    }
+
+    // Recalcula desde credits y reemplaza portfolio_stats. Los $inc que lleguen durante el recálculo pueden
+    // perderse o contarse dos veces; la siguiente pasada los corrige
+    Mono<Void> reconcile() {
+        LocalDate today = LocalDate.now(clock);
+        return Mono.zip(
+                        statsRepository.findAll().collectMap(PortfolioStats::getId, Function.identity()),
+                        creditRepository.aggregatePortfolio(today, UNKNOWN_TYPE).collectList())
+                .flatMap(current -> {
+                    List<String> drifted = drifted(current.getT1(), current.getT2());
+                    if (drifted.isEmpty()) {
+                        reconciliations("in_sync");
+                    } else {
+                        reconciliations("repaired");
+                        logger.warn("Agregados de la cartera desfasados en los tipos {}; se recalculan", drifted);
+                    }
+                    return statsRepository.replaceAll(current.getT2());
+                });
+    }
+
+    private static List<String> drifted(Map<String, PortfolioStats> stored, List<PortfolioStats> recomputed) {
+        Map<String, PortfolioStats> expected = recomputed.stream()
+                .collect(Collectors.toMap(PortfolioStats::getId, Function.identity()));
+        Set<String> types = new TreeSet<>(stored.keySet());
+        types.addAll(expected.keySet());
+        return types.stream()
+                .filter(type -> !matches(stored.get(type), expected.get(type)))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(PortfolioStats stored, PortfolioStats expected) {
+        if (stored == null || expected == null) {
+            return (stored == null || stored.isEmpty()) && (expected == null || expected.isEmpty());
+        }
+        return stored.getCreditCount() == expected.getCreditCount()
+                && stored.getOverdueCount() == expected.getOverdueCount()
+                && stored.getTotalAmount() == expected.getTotalAmount()
+                && stored.getTotalCreditLimit() == expected.getTotalCreditLimit()
+                && stored.getTotalCurrentDebt() == expected.getTotalCurrentDebt()
+                && stored.getTotalOutstandingAmount() == expected.getTotalOutstandingAmount()
+                && stored.getOverdueAmount() == expected.getOverdueAmount();
+    }
+
+    private void updates(String outcome) {
+        meterRegistry.counter("portfolio.stats.updates", "outcome", outcome).increment();
+    }
+
+    private void reconciliations(String result) {
+        meterRegistry.counter("portfolio.stats.reconciliations", "result", result).increment();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isReconcileEnabled()) {
+            return;
+        }
+        subscription = Flux.interval(properties.getReconcileDelay(), properties.getReconcileInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcileIfLeader()
+                        .onErrorResume(ex -> {
+                            logger.warn("No se pudo reconciliar portfolio_stats", ex);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
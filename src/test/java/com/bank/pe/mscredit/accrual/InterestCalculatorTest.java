@@ -0,0 +1,68 @@
+package com.bank.pe.mscredit.accrual;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+class InterestCalculatorTest {
+
+    @Test
+    void testInterestCents_OneDayAtFivePointFivePercent() {
+        // 1000.00 * 5.5 % / 365 = 0.1507
+        assertThat(InterestCalculator.interestCents(100_000, InterestCalculator.toRateMicros(5.5), 1))
+                .isEqualTo(15);
+    }
+
+    @Test
+    void testInterestCents_RoundsHalfEven() {
+        long halfCentRate = InterestCalculator.DIVISOR / 2;
+
+        assertThat(InterestCalculator.interestCents(1, halfCentRate, 1)).isZero();
+        assertThat(InterestCalculator.interestCents(3, halfCentRate, 1)).isEqualTo(2);
+    }
+
+    @Test
+    void testInterestCents_NothingWithoutPrincipalRateOrDays() {
+        assertThat(InterestCalculator.interestCents(0, 55_000, 30)).isZero();
+        assertThat(InterestCalculator.interestCents(100_000, 0, 30)).isZero();
+        assertThat(InterestCalculator.interestCents(100_000, 55_000, 0)).isZero();
+    }
+
+    @Test
+    void testInterestCents_MatchesBigDecimalIncludingOverflow() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long principal = (long) (random.nextDouble() * Math.pow(10, random.nextInt(18)));
+            long rate = random.nextInt(2_000_000);
+            int days = 1 + random.nextInt(400);
+
+            BigDecimal expected = BigDecimal.valueOf(principal)
+                    .multiply(BigDecimal.valueOf(rate))
+                    .multiply(BigDecimal.valueOf(days))
+                    .divide(BigDecimal.valueOf(InterestCalculator.DIVISOR), 0, RoundingMode.HALF_EVEN);
+            assertThat(InterestCalculator.interestCents(principal, rate, days))
+                    .as("principal=%d rate=%d days=%d", principal, rate, days)
+                    .isEqualTo(expected.longValueExact());
+        }
+    }
+
+    @Test
+    void testAccrue_FillsOnlyRequestedLength() {
+        long[] interest = {-1, -1, -1};
+
+        InterestCalculator.accrue(new long[]{100_000, 200_000, 300_000}, new long[]{55_000, 55_000, 55_000},
+                new int[]{1, 2, 3}, interest, 2);
+
+        assertThat(interest).containsExactly(15, 60, -1);
+    }
+
+    @Test
+    void testToCents_RoundsDoubleError() {
+        assertThat(InterestCalculator.toCents(0.1 + 0.2)).isEqualTo(30);
+        assertThat(InterestCalculator.toCents(null)).isZero();
+    }
+}
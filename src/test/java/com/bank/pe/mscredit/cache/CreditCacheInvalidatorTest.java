@@ -0,0 +1,63 @@
+package com.bank.pe.mscredit.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.entity.Credit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+class CreditCacheInvalidatorTest {
+
+    private InMemorySharedCache<Credit> shared;
+    private TieredCache<Credit> creditCache;
+    private TieredCache<List<RawBsonDocument>> customerCreditsCache;
+    private ReactiveCache<String, CustomerCreditSummary> summaryCache;
+    private CreditCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        shared = new InMemorySharedCache<>(Duration.ofMinutes(10));
+        creditCache = new TieredCache<>("credits", 100, Duration.ofMinutes(1), shared,
+                CreditCacheInvalidator::version, meterRegistry);
+        customerCreditsCache = new TieredCache<>("customer-credits", 100, Duration.ofMinutes(1), null, null,
+                meterRegistry);
+        summaryCache = new ReactiveCache<>("customer-summaries", 100, Duration.ofMinutes(1), meterRegistry);
+        invalidator = new CreditCacheInvalidator(creditCache, customerCreditsCache, summaryCache);
+    }
+
+    @Test
+    void testInvalidate_DropsCreditsAndTheirCustomers() {
+        creditCache.get("1", id -> Mono.just(credit(id, "a", 3L))).block();
+        customerCreditsCache.get("a", id -> Mono.just(List.<RawBsonDocument>of())).block();
+        summaryCache.put("a", new CustomerCreditSummary("a", 1, Map.of(), 0.0, 0.0, 0.0, 0.0, 0.0, null, false));
+
+        StepVerifier.create(invalidator.invalidate(List.of(credit("1", "a", 3L), credit("2", "a", 3L)),
+                credit -> CreditCacheInvalidator.version(credit) + 1)).verifyComplete();
+
+        assertThat(creditCache.getIfPresent("1")).isNull();
+        assertThat(customerCreditsCache.getIfPresent("a")).isNull();
+        assertThat(summaryCache.getIfPresent("a")).isNull();
+        // L2 ya no acepta la versión anterior a la escritura
+        StepVerifier.create(shared.putIfNewer("1", new Versioned<>(credit("1", "a", 3L), 3L)))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    private static Credit credit(String id, String customerId, Long version) {
+        Credit credit = new Credit();
+        credit.setId(id);
+        credit.setCustomerId(customerId);
+        credit.setVersion(version);
+        return credit;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bank.pe.mscredit.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ReactiveCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ReactiveCache<String, String> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        cache = new ReactiveCache<>("test", 2, Duration.ofMinutes(1), meterRegistry, clock);
+        loads = new AtomicInteger();
+    }
+
+    private Mono<String> loader(String key) {
+        return Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return "value-" + key;
+        });
+    }
+
+    @Test
+    void testGet_LoadsOnceAndThenHits() {
+        StepVerifier.create(cache.get("1", this::loader)).expectNext("value-1").verifyComplete();
+        StepVerifier.create(cache.get("1", this::loader)).expectNext("value-1").verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testGet_CoalescesConcurrentLoads() {
+        Sinks.One<String> response = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> first = cache.get("1", key -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<String> second = cache.get("1", key -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> response.tryEmitValue("value-1"))
+                .assertNext(tuple -> {
+                    assertThat(tuple.getT1()).isEqualTo("value-1");
+                    assertThat(tuple.getT2()).isEqualTo("value-1");
+                })
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_ExpiresAfterTtl() {
+        StepVerifier.create(cache.get("1", this::loader)).expectNext("value-1").verifyComplete();
+        clock.advance(Duration.ofMinutes(2));
+        StepVerifier.create(cache.get("1", this::loader)).expectNext("value-1").verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.evictions").tag("cause", "expired").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        cache.put("1", "a");
+        cache.put("2", "b");
+        cache.getIfPresent("1");
+        cache.put("3", "c");
+
+        assertThat(cache.getIfPresent("1")).isEqualTo("a");
+        assertThat(cache.getIfPresent("2")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.evictions").tag("cause", "size").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testGet_DoesNotCacheErrors() {
+        StepVerifier.create(cache.get("1", key -> Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.get("1", this::loader)).expectNext("value-1").verifyComplete();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidate_DiscardsLoadInProgress() {
+        Sinks.One<String> response = Sinks.one();
+
+        StepVerifier.create(cache.get("1", key -> response.asMono()))
+                .then(() -> {
+                    cache.invalidate("1");
+                    response.tryEmitValue("stale");
+                })
+                .expectNext("stale")
+                .verifyComplete();
+
+        assertThat(cache.getIfPresent("1")).isNull();
+        StepVerifier.create(cache.get("1", this::loader)).expectNext("value-1").verifyComplete();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
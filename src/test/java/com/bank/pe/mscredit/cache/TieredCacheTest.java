@@ -0,0 +1,223 @@
+package com.bank.pe.mscredit.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TieredCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private InMemorySharedCache<Row> shared;
+    private TieredCache<Row> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        shared = new InMemorySharedCache<>(Duration.ofMinutes(10), clock);
+        cache = tiered("test", shared);
+        loads = new AtomicInteger();
+    }
+
+    private TieredCache<Row> tiered(String name, SharedCache<Row> sharedCache) {
+        return new TieredCache<>(name, 100, Duration.ofMinutes(1), sharedCache, Row::getVersion, meterRegistry,
+                clock);
+    }
+
+    private Mono<Row> loader(String key, long version) {
+        return Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return new Row(key, version);
+        });
+    }
+
+    @Test
+    void testGet_LoadsOnceAndThenHitsLocal() {
+        StepVerifier.create(cache.get("1", key -> loader(key, 1))).expectNext(new Row("1", 1)).verifyComplete();
+        StepVerifier.create(cache.get("1", key -> loader(key, 1))).expectNext(new Row("1", 1)).verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("tier", "local").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("tier", "total").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testGet_OtherInstanceHitsSharedTier() {
+        TieredCache<Row> other = tiered("other", shared);
+
+        StepVerifier.create(cache.get("1", key -> loader(key, 1))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(other.get("1", key -> loader(key, 1))).expectNext(new Row("1", 1)).verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(other.getIfPresent("1")).isEqualTo(new Row("1", 1));
+        assertThat(meterRegistry.get("cache.shared.gets").tag("cache", "other").tag("result", "hit").counter()
+                .count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "other").tag("tier", "local").gauge()
+                .value()).isEqualTo(0.0);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "other").tag("tier", "total").gauge()
+                .value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testInvalidate_RejectsOlderVersionFromAnyInstance() {
+        TieredCache<Row> other = tiered("other", shared);
+        StepVerifier.create(cache.get("1", key -> loader(key, 1))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(other.get("1", key -> loader(key, 1))).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(cache.invalidate("1", new Row("1", 2))).verifyComplete();
+
+        // La otra instancia conserva su L1 hasta el TTL; una carga atrasada (versión 1) no se publica
+        assertThat(other.getIfPresent("1")).isEqualTo(new Row("1", 1));
+        StepVerifier.create(cache.get("1", key -> loader(key, 1))).expectNext(new Row("1", 1)).verifyComplete();
+        assertThat(cache.getIfPresent("1")).isNull();
+        StepVerifier.create(shared.get("1")).verifyComplete();
+
+        StepVerifier.create(cache.get("1", key -> loader(key, 2))).expectNext(new Row("1", 2)).verifyComplete();
+        assertThat(cache.getIfPresent("1")).isEqualTo(new Row("1", 2));
+        clock.advance(Duration.ofMinutes(2));
+        StepVerifier.create(other.get("1", key -> loader(key, 1))).expectNext(new Row("1", 2)).verifyComplete();
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testInvalidate_DeleteNeverComesBack() {
+        StepVerifier.create(cache.get("1", key -> loader(key, 5))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.invalidate("1")).verifyComplete();
+
+        StepVerifier.create(cache.get("1", key -> loader(key, 5))).expectNextCount(1).verifyComplete();
+        assertThat(cache.getIfPresent("1")).isNull();
+    }
+
+    @Test
+    void testInvalidate_WithoutVersionDiscardsLoadStartedBefore() {
+        TieredCache<Row> byLoadTime = new TieredCache<>("lists", 100, Duration.ofMinutes(1), shared, null,
+                meterRegistry, clock);
+        Sinks.One<Row> response = Sinks.one();
+
+        StepVerifier.create(byLoadTime.get("1", key -> response.asMono()))
+                .then(() -> {
+                    clock.advance(Duration.ofMillis(5));
+                    byLoadTime.invalidate("1").block();
+                    response.tryEmitValue(new Row("1", 0));
+                })
+                .expectNext(new Row("1", 0))
+                .verifyComplete();
+
+        assertThat(byLoadTime.getIfPresent("1")).isNull();
+        StepVerifier.create(shared.get("1")).verifyComplete();
+
+        clock.advance(Duration.ofMillis(5));
+        StepVerifier.create(byLoadTime.get("1", key -> loader(key, 0))).expectNextCount(1).verifyComplete();
+        assertThat(byLoadTime.getIfPresent("1")).isNotNull();
+    }
+
+    @Test
+    void testGet_FrequentKeySurvivesScan() {
+        TieredCache<Row> small = new TieredCache<>("small", 10, Duration.ofMinutes(1), null, Row::getVersion,
+                meterRegistry, clock);
+        for (int i = 0; i < 5; i++) {
+            small.get("hot", key -> loader(key, 1)).block();
+        }
+        for (int i = 0; i < 100; i++) {
+            small.get("scan-" + i, key -> loader(key, 1)).block();
+        }
+
+        assertThat(small.getIfPresent("hot")).isEqualTo(new Row("hot", 1));
+        assertThat(small.size()).isEqualTo(10);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "small").tag("cause", "size")
+                .functionCounter().count()).isEqualTo(91.0);
+    }
+
+    @Test
+    void testGet_SharedTierErrorsFallBackToLoader() {
+        SharedCache<Row> failing = new SharedCache<>() {
+            @Override
+            public Mono<Versioned<Row>> get(String key) {
+                return Mono.error(new IllegalStateException("down"));
+            }
+
+            @Override
+            public Mono<Boolean> putIfNewer(String key, Versioned<Row> value) {
+                return Mono.error(new IllegalStateException("down"));
+            }
+
+            @Override
+            public Mono<Void> invalidate(String key, long minimumVersion) {
+                return Mono.error(new IllegalStateException("down"));
+            }
+        };
+        TieredCache<Row> degraded = tiered("degraded", failing);
+
+        StepVerifier.create(degraded.get("1", key -> loader(key, 1))).expectNextCount(1).verifyComplete();
+        assertThat(degraded.getIfPresent("1")).isEqualTo(new Row("1", 1));
+        StepVerifier.create(degraded.invalidate("1", 2L)).verifyComplete();
+        assertThat(degraded.getIfPresent("1")).isNull();
+    }
+
+    private static final class Row {
+        private final String id;
+        private final long version;
+
+        private Row(String id, long version) {
+            this.id = id;
+            this.version = version;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row && ((Row) other).id.equals(id) && ((Row) other).version == version;
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode() * 31 + Long.hashCode(version);
+        }
+
+        @Override
+        public String toString() {
+            return id + "@" + version;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.bank.pe.mscredit.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.config.CustomerClientProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * CustomerClient contra un ms-customer local que puede responder lento o con errores.
+ */
+class CustomerClientTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile IntFunction<Duration> latency = request -> Duration.ZERO;
+    private volatile int status = 200;
+    private volatile IntUnaryOperator statusOf = request -> status;
+
+    private DisposableServer server;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/v1/customers/getById/{id}", (request, response) -> {
+                    int number = requests.incrementAndGet();
+                    String id = request.param("id");
+                    int code = statusOf.applyAsInt(number);
+                    return Mono.delay(latency.apply(number)).then(Mono.defer(() -> code == 200
+                            ? response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"data\":[{\"id\":\"" + id
+                                            + "\",\"type\":\"PERSONAL\"}]}")).then()
+                            : response.status(code).send().then()));
+                }))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    private CustomerClient client(Consumer<CustomerClientProperties> settings) {
+        CustomerClientProperties properties = new CustomerClientProperties();
+        properties.setBaseUrl("http://localhost:" + server.port() + "/api/v1/customers");
+        settings.accept(properties);
+        return new CustomerClient(WebClient.builder(), WebClient.builder(), properties, meterRegistry);
+    }
+
+    private static boolean hasStatus(Throwable ex, HttpStatus status) {
+        return ex instanceof ResponseStatusException && ((ResponseStatusException) ex).getStatus() == status;
+    }
+
+    @Test
+    void testGetCustomerById_ReturnsCustomer() {
+        CustomerClient customerClient = client(properties -> { });
+
+        StepVerifier.create(customerClient.getCustomerById("c-1"))
+                .assertNext(customer -> assertThat(customer.getType()).isEqualTo("PERSONAL"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetCustomerById_SlowServiceTimesOutWith503() {
+        latency = request -> Duration.ofSeconds(5);
+        CustomerClient customerClient = client(properties -> properties.setResponseTimeout(Duration.ofMillis(200)));
+
+        StepVerifier.create(customerClient.getCustomerById("c-1"))
+                .expectErrorMatches(ex -> hasStatus(ex, HttpStatus.SERVICE_UNAVAILABLE))
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void testCircuitBreaker_OpensOnServerErrorsAndFailsFast() {
+        status = 500;
+        CustomerClient customerClient = client(properties -> {
+            properties.getCircuitBreaker().setSlidingWindowSize(4);
+            properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        });
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(customerClient.getCustomerById("c-" + i))
+                    .expectErrorMatches(ex -> hasStatus(ex, HttpStatus.INTERNAL_SERVER_ERROR))
+                    .verify();
+        }
+        assertThat(customerClient.circuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        StepVerifier.create(customerClient.getCustomerById("c-5"))
+                .expectErrorMatches(ex -> hasStatus(ex, HttpStatus.SERVICE_UNAVAILABLE))
+                .verify();
+        assertThat(requests.get()).isEqualTo(4);
+    }
+
+    @Test
+    void testCircuitBreaker_IgnoresMissingCustomers() {
+        status = 404;
+        CustomerClient customerClient = client(properties -> {
+            properties.getCircuitBreaker().setSlidingWindowSize(4);
+            properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        });
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(customerClient.getCustomerById("c-" + i))
+                    .expectErrorMatches(ex -> hasStatus(ex, HttpStatus.NOT_FOUND))
+                    .verify();
+        }
+        assertThat(customerClient.circuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testBulkhead_RejectsCallsOverTheLimit() {
+        latency = request -> Duration.ofMillis(500);
+        CustomerClient customerClient = client(properties -> properties.getBulkhead().setMaxConcurrentCalls(1));
+
+        Mono<?> first = customerClient.getCustomerById("c-1").cache();
+        first.subscribe();
+
+        StepVerifier.create(customerClient.getCustomerById("c-2"))
+                .expectErrorMatches(ex -> hasStatus(ex, HttpStatus.SERVICE_UNAVAILABLE))
+                .verify();
+        StepVerifier.create(first).expectNextCount(1).verifyComplete();
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testHedge_ReturnsTheFasterBackupCall() {
+        latency = request -> request == 1 ? Duration.ofSeconds(3) : Duration.ZERO;
+        CustomerClient customerClient = client(properties -> {
+            properties.getHedge().setEnabled(true);
+            properties.getHedge().setDelay(Duration.ofMillis(100));
+            properties.setResponseTimeout(Duration.ofSeconds(5));
+        });
+
+        StepVerifier.create(customerClient.getCustomerById("c-1"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("customer.client.hedges").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testHedge_FastFailureWaitsForTheBackupCall() {
+        statusOf = request -> request == 1 ? 500 : 200;
+        CustomerClient customerClient = client(properties -> {
+            properties.getHedge().setEnabled(true);
+            properties.getHedge().setDelay(Duration.ofMillis(100));
+        });
+
+        StepVerifier.create(customerClient.getCustomerById("c-1"))
+                .assertNext(customer -> assertThat(customer.getType()).isEqualTo("PERSONAL"))
+                .verifyComplete();
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testHedge_BothFailingPropagatesTheFirstError() {
+        status = 404;
+        CustomerClient customerClient = client(properties -> {
+            properties.getHedge().setEnabled(true);
+            properties.getHedge().setDelay(Duration.ofMillis(100));
+        });
+
+        StepVerifier.create(customerClient.getCustomerById("c-1"))
+                .expectErrorMatches(ex -> hasStatus(ex, HttpStatus.NOT_FOUND))
+                .verify();
+    }
+}
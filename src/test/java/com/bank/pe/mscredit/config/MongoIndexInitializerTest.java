@@ -0,0 +1,58 @@
+package com.bank.pe.mscredit.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.repository.MongoTestTemplates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class MongoIndexInitializerTest {
+
+    private ReactiveIndexOperations indexOps;
+    private MongoIndexInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = MongoTestTemplates.converter();
+        converter.getMappingContext().getPersistentEntity(Credit.class);
+        ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+        indexOps = mock(ReactiveIndexOperations.class);
+        when(template.getConverter()).thenReturn(converter);
+        when(template.indexOps(Credit.class)).thenReturn(indexOps);
+        initializer = new MongoIndexInitializer(template);
+    }
+
+    @Test
+    void testEnsureIndexes_UniqueIndexFailureStopsStartup() {
+        when(indexOps.ensureIndex(any())).thenAnswer(invocation -> isUnique(invocation.getArgument(0))
+                ? Mono.error(new DuplicateKeyException("E11000"))
+                : Mono.just("ok"));
+
+        StepVerifier.create(initializer.ensureIndexes())
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    void testEnsureIndexes_OtherIndexFailuresAreLogged() {
+        when(indexOps.ensureIndex(any())).thenAnswer(invocation -> isUnique(invocation.getArgument(0))
+                ? Mono.just("ok")
+                : Mono.error(new IllegalStateException("IndexOptionsConflict")));
+
+        StepVerifier.create(initializer.ensureIndexes()).verifyComplete();
+    }
+
+    private static boolean isUnique(IndexDefinition index) {
+        return Boolean.TRUE.equals(index.getIndexOptions().get("unique"));
+    }
+}
@@ -1,21 +1,39 @@
 package com.bank.pe.mscredit.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.dto.CreditImportResult;
+import com.bank.pe.mscredit.dto.CreditPatchDTO;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.dto.OverdueDebtStatus;
+import com.bank.pe.mscredit.dto.PortfolioStatsDTO;
 import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.schedule.AmortizationCalculator;
 import com.bank.pe.mscredit.service.CreditService;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 class CreditControllerTest {
@@ -25,10 +43,14 @@ class CreditControllerTest {
     @Mock
     private CreditService creditService;
 
+    @Mock
+    private PortfolioStatsService portfolioStatsService;
+
     @InjectMocks
     private CreditController creditController;
 
     private Credit credit;
+    private RawBsonDocument creditDocument;
 
     @BeforeEach
     void setUp() {
@@ -37,25 +59,60 @@ class CreditControllerTest {
         credit = new Credit();
         credit.setId("4");
         credit.setCustomerId("123");
-        credit.setAmount(100.0);
+        credit.setAmount(Money.of(100.0));
         credit.setCreditType("personal");
         credit.setInterestRate(2.6);
-        credit.setCreditLimit(150.0);
-        credit.setCurrentDebt(0.0);
-
+        credit.setCreditLimit(Money.of(150.0));
+        credit.setCurrentDebt(Money.of(0.0));
+        // El mismo crédito tal como lo devuelve MongoDB: montos en unidades mínimas
+        creditDocument = new RawBsonDocument(new Document("_id", "4")
+                .append("customerId", "123")
+                .append("amount", 10_000L)
+                .append("creditType", "personal")
+                .append("interestRate", 2.6)
+                .append("creditLimit", 15_000L)
+                .append("currentDebt", 0L), new DocumentCodec());
     }
 
     @Test
     void testGetAllCredits() {
-        when(creditService.listCredits()).thenReturn(Flux.just(credit));
+        when(creditService.listCreditDocuments(null, 100, null)).thenReturn(Flux.just(creditDocument));
 
         webTestClient.get().uri("/api/v1/credits")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo("4")
+                .jsonPath("$[0].amount").isEqualTo(100.0)
+                .jsonPath("$[0].creditLimit").isEqualTo(150.0)
+                .jsonPath("$[0].customerId").isEqualTo("123");
+    }
+
+    @Test
+    void testGetAllCredits_Streaming() {
+        when(creditService.listCreditDocuments("65f1a2b3c4d5e6f7a8b9c0d1", null, List.of("customerId", "amount")))
+                .thenReturn(Flux.just(creditDocument));
+
+        webTestClient.get().uri("/api/v1/credits?after=65f1a2b3c4d5e6f7a8b9c0d1&fields=customerId,amount")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
                 .expectBodyList(Credit.class)
                 .hasSize(1);
     }
 
+    @Test
+    void testGetAllCredits_LimitAboveMaximum() {
+        webTestClient.get().uri("/api/v1/credits?limit=5000")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(creditService, never()).listCreditDocuments(any(), any(), any());
+    }
+
     @Test
     void testGetCreditById_Found() {
         when(creditService.getCredit("1")).thenReturn(Mono.just(credit));
@@ -81,11 +138,11 @@ class CreditControllerTest {
         Credit credit = new Credit();
         credit.setId("4");
         credit.setCustomerId("123");
-        credit.setAmount(100.0);
+        credit.setAmount(Money.of(100.0));
         credit.setCreditType("personal");
         credit.setInterestRate(2.6);
-        credit.setCreditLimit(150.0);
-        credit.setCurrentDebt(0.0);
+        credit.setCreditLimit(Money.of(150.0));
+        credit.setCurrentDebt(Money.of(0.0));
         when(creditService.createCredit(any(Credit.class))).thenReturn(Mono.just(credit));
 
         webTestClient.post().uri("/api/v1/credits")
@@ -100,6 +157,22 @@ class CreditControllerTest {
                 });
     }
 
+    @Test
+    void testCreateCredit_Duplicate_ShouldReturnConflict() {
+        when(creditService.createCredit(any(Credit.class))).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.CONFLICT, "Un cliente personal solo puede tener un crédito.")));
+
+        webTestClient.post().uri("/api/v1/credits")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(credit)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(Map.class)
+                .value(response -> {
+                    assert response.get("status").equals("409");
+                });
+    }
+
     @Test
     void testCreateCredit_NullCustomerId_ShouldReturnBadRequest() {
         credit.setCustomerId(null);
@@ -140,6 +213,56 @@ class CreditControllerTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    void testPatchCredit_Success() {
+        when(creditService.patchCredit(eq("1"), any(CreditPatchDTO.class))).thenReturn(Mono.just(credit));
+
+        webTestClient.patch().uri("/api/v1/credits/1")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(Map.of("version", 2, "currentDebtDelta", 25.5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Credit.class)
+                .isEqualTo(credit);
+    }
+
+    @Test
+    void testPatchCredit_Conflict() {
+        when(creditService.patchCredit(eq("1"), any(CreditPatchDTO.class))).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.CONFLICT, "El crédito fue modificado por otra operación")));
+
+        webTestClient.patch().uri("/api/v1/credits/1")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(Map.of("version", 1, "creditLimit", 500.0))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void testConsume_Success() {
+        when(creditService.consume("1", Money.of(120.5))).thenReturn(Mono.just(credit));
+
+        webTestClient.post().uri("/api/v1/credits/1/consume")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(Map.of("amount", 120.5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Credit.class)
+                .isEqualTo(credit);
+    }
+
+    @Test
+    void testRepay_ExceedsDebt() {
+        when(creditService.repay("1", Money.of(900.0))).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.CONFLICT, "El pago excede la deuda del crédito")));
+
+        webTestClient.post().uri("/api/v1/credits/1/repay")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(Map.of("amount", 900.0))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
     @Test
     void testDeleteCredit_Success() {
         when(creditService.deleteCredit("1")).thenReturn(Mono.empty());
@@ -161,19 +284,30 @@ class CreditControllerTest {
     @Test
     void testGetCreditProductsByCustomer_Success() {
         CreditDTO creditDTO = new CreditDTO();
-        creditDTO.setId("1");
-        creditDTO.setCreditLimit(100.0);
-        creditDTO.setAmount(1500.0);
-        creditDTO.setCreditType("Personal");
-        creditDTO.setInterestRate(2.5);
+        creditDTO.setId("4");
         creditDTO.setCustomerId("123");
-        when(creditService.getCreditProductsByCustomer("123")).thenReturn(Flux.just(credit));
+        creditDTO.setCreditType("personal");
+        creditDTO.setAmount(Money.of(100.0));
+        creditDTO.setCreditLimit(Money.of(150.0));
+        creditDTO.setInterestRate(2.6);
+        when(creditService.getCreditDocumentsByCustomer("123")).thenReturn(Flux.just(creditDocument));
 
         webTestClient.get().uri("/api/v1/credits/customer/123")
                 .exchange()
                 .expectStatus().isOk()
                 .expectBodyList(CreditDTO.class)
-                .hasSize(1);
+                .hasSize(1)
+                .contains(creditDTO);
+    }
+
+    @Test
+    void testGetCreditProductsByCustomer_NotFound() {
+        when(creditService.getCreditDocumentsByCustomer("999")).thenReturn(Flux.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "No se encontraron créditos para este cliente")));
+
+        webTestClient.get().uri("/api/v1/credits/customer/999")
+                .exchange()
+                .expectStatus().isNotFound();
     }
 
     @Test
@@ -186,4 +320,114 @@ class CreditControllerTest {
                 .expectBody(Boolean.class)
                 .isEqualTo(true);
     }
+
+    @Test
+    void testGetPortfolioStats() {
+        when(portfolioStatsService.getStats()).thenReturn(Mono.just(new PortfolioStatsDTO(3, 3000.0, 6000.0,
+                700.0, 700.0, 1, 300.0, Map.of("personal", 3L), Map.of("personal", 700.0), null)));
+
+        webTestClient.get().uri("/api/v1/credits/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.creditCount").isEqualTo(3)
+                .jsonPath("$.debtByType.personal").isEqualTo(700.0);
+        verify(creditService, never()).getCredit(anyString());
+    }
+
+    @Test
+    void testGetCustomerSummary() {
+        CustomerCreditSummary summary = new CustomerCreditSummary("123", 2, Map.of("personal", 2L),
+                1000.0, 1500.0, 500.0, 1000.0, 500.0, LocalDate.of(2030, 1, 15), true);
+        when(creditService.getCustomerSummary("123")).thenReturn(Mono.just(summary));
+
+        webTestClient.get().uri("/api/v1/credits/customer/123/summary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.creditCount").isEqualTo(2)
+                .jsonPath("$.creditsByType.personal").isEqualTo(2)
+                .jsonPath("$.hasOverdueDebt").isEqualTo(true);
+    }
+
+    @Test
+    void testGetSchedule() {
+        when(creditService.getSchedule("1")).thenReturn(Mono.just(
+                AmortizationCalculator.compute("1", 3L, Money.of(10_000.0), 12.0, 12, LocalDate.of(2025, 1, 15))));
+
+        webTestClient.get().uri("/api/v1/credits/1/schedule")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.installments").isEqualTo(12)
+                .jsonPath("$.schedule[0].payment").isEqualTo(888.49)
+                .jsonPath("$.schedule[11].dueDate").isEqualTo("2026-01-15");
+    }
+
+    @Test
+    void testHasOverdueDebt_Batch() {
+        List<String> received = new ArrayList<>();
+        when(creditService.hasOverdueDebt(ArgumentMatchers.<Flux<String>>any())).thenAnswer(invocation ->
+                invocation.<Flux<String>>getArgument(0)
+                        .doOnNext(received::add)
+                        .thenMany(Flux.just(new OverdueDebtStatus("123", true),
+                                new OverdueDebtStatus("456", false))));
+
+        webTestClient.post().uri("/api/v1/credits/hasOverdueDebt")
+                .contentType(APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(List.of("123", "456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(OverdueDebtStatus.class)
+                .hasSize(2)
+                .contains(new OverdueDebtStatus("123", true));
+
+        // El arreglo JSON llega como un ID por elemento, no como un solo string
+        assertThat(received).containsExactly("123", "456");
+    }
+
+    @Test
+    void testHasOverdueDebt_Stream() {
+        List<String> received = new ArrayList<>();
+        when(creditService.hasOverdueDebt(ArgumentMatchers.<Flux<String>>any())).thenAnswer(invocation ->
+                invocation.<Flux<String>>getArgument(0)
+                        .doOnNext(received::add)
+                        .map(id -> new OverdueDebtStatus(id, false)));
+
+        webTestClient.post().uri("/api/v1/credits/hasOverdueDebt")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("\"123\"\n\"456\"\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(OverdueDebtStatus.class)
+                .hasSize(2);
+
+        assertThat(received).containsExactly("123", "456");
+    }
+
+    @Test
+    void testImportCredits_Csv() {
+        when(creditService.importCredits(ArgumentMatchers.<Flux<Credit>>any())).thenAnswer(invocation ->
+                invocation.<Flux<Credit>>getArgument(0)
+                        .index()
+                        .map(row -> CreditImportResult.created(row.getT1() + 1, "id-" + row.getT1(),
+                                row.getT2().getCustomerId() + ":" + (row.getT2().getAmount() == null
+                                        ? null : row.getT2().getAmount().toBigDecimal()))));
+
+        webTestClient.post().uri("/api/v1/credits/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("customerId,creditType,amount,creditLimit,interestRate\n"
+                        + "123,personal,100.5,200,5.5\n"
+                        + "456,empresarial,abc,200,5.5\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CreditImportResult.class)
+                .hasSize(2)
+                .contains(CreditImportResult.created(1, "id-0", "123:100.50"),
+                        CreditImportResult.created(2, "id-1", "456:null"));
+    }
 }
@@ -2,6 +2,7 @@ package com.bank.pe.mscredit.dto;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.bank.pe.mscredit.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,16 +15,16 @@ public class CreditDTOTest {
     void setUp() {
         creditDTO1 = new CreditDTO();
         creditDTO1.setId("1");
-        creditDTO1.setCreditLimit(100.0);
-        creditDTO1.setAmount(1500.0);
+        creditDTO1.setCreditLimit(Money.of(100.0));
+        creditDTO1.setAmount(Money.of(1500.0));
         creditDTO1.setCreditType("Personal");
         creditDTO1.setInterestRate(2.5);
         creditDTO1.setCustomerId("123");
 
         creditDTO2 = new CreditDTO();
         creditDTO2.setId("2");
-        creditDTO2.setCreditLimit(1000.0);
-        creditDTO2.setAmount(2600.0);
+        creditDTO2.setCreditLimit(Money.of(1000.0));
+        creditDTO2.setAmount(Money.of(2600.0));
         creditDTO2.setCreditType("Empresarial");
         creditDTO2.setInterestRate(5.5);
     }
@@ -34,13 +35,13 @@ public class CreditDTOTest {
         credit.setId("10");
         credit.setCustomerId("999");
         credit.setCreditType("Mortgage");
-        credit.setAmount(250000.0);
+        credit.setAmount(Money.of(250000.0));
         credit.setInterestRate(3.75);
 
         assertThat(credit.getId()).isEqualTo("10");
         assertThat(credit.getCustomerId()).isEqualTo("999");
         assertThat(credit.getCreditType()).isEqualTo("Mortgage");
-        assertThat(credit.getAmount()).isEqualTo(250000.0);
+        assertThat(credit.getAmount()).isEqualTo(Money.of(250000.0));
         assertThat(credit.getInterestRate()).isEqualTo(3.75);
     }
 
@@ -48,8 +49,8 @@ public class CreditDTOTest {
     void testEqualsAndHashCode() {
         CreditDTO creditCopy = new CreditDTO();
         creditCopy.setId("1");
-        creditCopy.setCreditLimit(100.0);
-        creditCopy.setAmount(1500.0);
+        creditCopy.setCreditLimit(Money.of(100.0));
+        creditCopy.setAmount(Money.of(1500.0));
         creditCopy.setCreditType("Personal");
         creditCopy.setInterestRate(2.5);
         creditCopy.setCustomerId("123");
@@ -62,7 +63,7 @@ public class CreditDTOTest {
 
     @Test
     void testToString() {
-        String expected = "CreditDTO(id=1, customerId=123, creditType=Personal, amount=1500.0, creditLimit=100.0, interestRate=2.5)";
+        String expected = "CreditDTO(id=1, customerId=123, creditType=Personal, amount=1500.00 PEN, creditLimit=100.00 PEN, interestRate=2.5, termMonths=null)";
         assertThat(creditDTO1.toString()).isEqualTo(expected);
     }
 
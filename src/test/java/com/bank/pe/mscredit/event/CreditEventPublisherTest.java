@@ -0,0 +1,134 @@
+package com.bank.pe.mscredit.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.config.EventProperties;
+import com.bank.pe.mscredit.entity.Credit;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+class CreditEventPublisherTest {
+
+    private InMemoryChangeFeed changeFeed;
+    private InMemoryCreditEventSink sink;
+    private InMemoryResumeTokenStore tokenStore;
+    private EventProperties properties;
+    private CreditEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new InMemoryChangeFeed();
+        sink = new InMemoryCreditEventSink();
+        tokenStore = new InMemoryResumeTokenStore();
+        properties = new EventProperties();
+        properties.setBatchSize(2);
+        properties.setMaxWait(Duration.ofMillis(50));
+        publisher = new CreditEventPublisher(changeFeed, sink, tokenStore, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    void testPublishesInBatchesAndStoresResumeToken() {
+        changeFeed.append(event("1", CreditEventType.CREDIT_CREATED));
+        changeFeed.append(event("2", CreditEventType.CREDIT_UPDATED));
+        changeFeed.append(event("3", CreditEventType.CREDIT_DELETED));
+
+        publisher.start();
+        await(() -> sink.getEvents().size() == 3);
+
+        assertThat(publisher.isRunning()).isTrue();
+        assertThat(sink.getBatches().get(0)).hasSize(2);
+        assertThat(sink.getEvents()).extracting(CreditEvent::getCreditId).containsExactly("1", "2", "3");
+        await(() -> token("3").equals(tokenStore.tokens.get("credits")));
+    }
+
+    @Test
+    void testRestartResumesFromLastPublishedBatch() {
+        changeFeed.append(event("1", CreditEventType.CREDIT_CREATED));
+        changeFeed.append(event("2", CreditEventType.CREDIT_UPDATED));
+        publisher.start();
+        await(() -> token("2").equals(tokenStore.tokens.get("credits")));
+        publisher.stop();
+
+        changeFeed.append(event("3", CreditEventType.CREDIT_UPDATED));
+        CreditEventPublisher restarted = new CreditEventPublisher(changeFeed, sink, tokenStore, properties);
+        restarted.start();
+        try {
+            await(() -> sink.getEvents().size() == 3);
+        } finally {
+            restarted.stop();
+        }
+
+        assertThat(changeFeed.requestedTokens).containsExactly(null, token("2"));
+        assertThat(sink.getEvents()).extracting(CreditEvent::getCreditId).containsExactly("1", "2", "3");
+    }
+
+    private CreditEvent event(String creditId, CreditEventType type) {
+        Credit credit = type == CreditEventType.CREDIT_DELETED ? null : new Credit();
+        return new CreditEvent(creditId, type, creditId, "123", credit, Instant.now(), token(creditId));
+    }
+
+    private static BsonValue token(String id) {
+        return new BsonDocument("_data", new BsonString(id));
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condición no cumplida a tiempo").isLessThan(deadline);
+            Mono.delay(Duration.ofMillis(10)).block();
+        }
+    }
+
+    // Simula el oplog: devuelve los eventos posteriores al token y deja el stream abierto
+    private static final class InMemoryChangeFeed implements CreditChangeFeed {
+        private final List<CreditEvent> oplog = new CopyOnWriteArrayList<>();
+        private final List<BsonValue> requestedTokens = new CopyOnWriteArrayList<>();
+
+        void append(CreditEvent event) {
+            oplog.add(event);
+        }
+
+        @Override
+        public Flux<CreditEvent> changes(BsonValue resumeToken) {
+            requestedTokens.add(resumeToken);
+            List<BsonValue> tokens = oplog.stream().map(CreditEvent::getResumeToken).collect(Collectors.toList());
+            int start = resumeToken == null ? 0 : tokens.indexOf(resumeToken) + 1;
+            return Flux.fromIterable(new ArrayList<>(oplog.subList(start, oplog.size()))).concatWith(Flux.never());
+        }
+    }
+
+    private static final class InMemoryResumeTokenStore implements ResumeTokenStore {
+        private final Map<String, BsonValue> tokens = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<BsonValue> load(String stream) {
+            return Mono.justOrEmpty(tokens.get(stream));
+        }
+
+        @Override
+        public Mono<Void> save(String stream, BsonValue resumeToken) {
+            return Mono.fromRunnable(() -> tokens.put(stream, resumeToken));
+        }
+    }
+}
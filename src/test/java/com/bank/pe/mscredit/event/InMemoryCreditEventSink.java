@@ -0,0 +1,26 @@
+package com.bank.pe.mscredit.event;
+
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+public class InMemoryCreditEventSink implements CreditEventSink {
+
+    private final List<List<CreditEvent>> batches = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Mono<Void> publish(List<CreditEvent> events) {
+        return Mono.fromRunnable(() -> batches.add(new ArrayList<>(events)));
+    }
+
+    public List<List<CreditEvent>> getBatches() {
+        return batches;
+    }
+
+    public List<CreditEvent> getEvents() {
+        return batches.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.pe.mscredit.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bank.pe.mscredit.config.CreditExecutionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class ExecutionPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutionPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CreditExecutionProperties properties = new CreditExecutionProperties();
+        properties.setOffloaded(Set.of("schedule"));
+        properties.setThreadCap(1);
+        properties.setQueueCap(1);
+        policy = new ExecutionPolicy(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        policy.destroy();
+    }
+
+    @Test
+    void testCompute_OffloadedRunsOnComputeScheduler() {
+        StepVerifier.create(policy.compute("schedule", () -> Thread.currentThread().getName()))
+                .assertNext(thread -> assertThat(thread.startsWith("credits-compute")).isTrue())
+                .verifyComplete();
+    }
+
+    @Test
+    void testCompute_OtherOperationsRunOnCaller() {
+        String caller = Thread.currentThread().getName();
+
+        StepVerifier.create(policy.compute("get", () -> Thread.currentThread().getName()))
+                .expectNext(caller)
+                .verifyComplete();
+    }
+
+    @Test
+    void testCompute_QueueDepthAndFullQueue() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Disposable running = policy.compute("schedule", () -> {
+            started.countDown();
+            release.await();
+            return 1;
+        }).subscribe();
+        started.await();
+        Disposable waiting = policy.compute("schedule", () -> 2).subscribe();
+
+        assertThat(meterRegistry.get("credits.execution.active").tag("operation", "schedule").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("credits.execution.queued").tag("operation", "schedule").gauge().value())
+                .isEqualTo(1.0);
+
+        StepVerifier.create(policy.compute("schedule", () -> 3))
+                .expectErrorMatches(ex -> ex instanceof ResponseStatusException
+                        && ((ResponseStatusException) ex).getStatus() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+        assertThat(meterRegistry.get("credits.execution.queued").tag("operation", "schedule").gauge().value())
+                .isEqualTo(1.0);
+
+        waiting.dispose();
+        release.countDown();
+        running.dispose();
+        assertThat(meterRegistry.get("credits.execution.queued").tag("operation", "schedule").gauge().value())
+                .isEqualTo(0.0);
+    }
+
+    @Test
+    void testBounded_RejectsBeyondThreadAndQueueCaps() throws InterruptedException {
+        // El ejecutor de hilos virtuales, aquí con hilos de plataforma: Java 21 no es requisito para compilar.
+        // Como bounded elastic, queueCap es por hilo: 2 en ejecución y 2 × 1 en espera
+        ExecutorService executor = ExecutionPolicy.bounded(Thread::new, 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> await(release));
+            }
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bank.pe.mscredit.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+class BatchLoaderTest {
+
+    private static final Set<String> STORED = Set.of("1", "2", "3");
+
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualTimeScheduler scheduler;
+    private List<String> singleQueries;
+    private List<List<String>> batchQueries;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = VirtualTimeScheduler.create();
+        singleQueries = new ArrayList<>();
+        batchQueries = new ArrayList<>();
+    }
+
+    private BatchLoader<String, String> loader(Duration window, int maxBatchSize) {
+        return new BatchLoader<>("test", window, maxBatchSize, this::findById, this::findAllById, value -> value,
+                meterRegistry, scheduler);
+    }
+
+    private Mono<String> findById(String id) {
+        singleQueries.add(id);
+        return STORED.contains(id) ? Mono.just(id) : Mono.empty();
+    }
+
+    private Flux<String> findAllById(Collection<String> ids) {
+        batchQueries.add(List.copyOf(ids));
+        // Orden distinto al pedido, como un $in
+        return Flux.fromIterable(ids).filter(STORED::contains).sort((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    void testLoad_WindowGroupsKeysInOneQuery() {
+        BatchLoader<String, String> loader = loader(Duration.ofMillis(5), 100);
+
+        StepVerifier.create(Mono.zip(loader.load("1"), loader.load("2"), loader.load("3")))
+                .then(() -> assertThat(batchQueries).isEqualTo(List.of()))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(5)))
+                .assertNext(tuple -> {
+                    assertThat(tuple.getT1()).isEqualTo("1");
+                    assertThat(tuple.getT2()).isEqualTo("2");
+                    assertThat(tuple.getT3()).isEqualTo("3");
+                })
+                .verifyComplete();
+
+        assertThat(batchQueries).isEqualTo(List.of(List.of("1", "2", "3")));
+        assertThat(singleQueries).isEqualTo(List.of());
+        DistributionSummary batchSize = meterRegistry.get("loader.batch.size").summary();
+        assertThat(batchSize.count()).isEqualTo(1L);
+        assertThat(batchSize.totalAmount()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("loader.requests").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void testLoad_RepeatedAndMissingKeys() {
+        BatchLoader<String, String> loader = loader(Duration.ofMillis(5), 100);
+        List<String> found = new ArrayList<>();
+
+        loader.load("1").subscribe(found::add);
+        loader.load("1").subscribe(found::add);
+        StepVerifier.create(loader.load("999"))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(5)))
+                .verifyComplete();
+
+        assertThat(found).isEqualTo(List.of("1", "1"));
+        assertThat(batchQueries).isEqualTo(List.of(List.of("1", "999")));
+    }
+
+    @Test
+    void testLoad_FullBatchDoesNotWaitForWindow() {
+        BatchLoader<String, String> loader = loader(Duration.ofMinutes(1), 2);
+
+        StepVerifier.create(Mono.zip(loader.load("1"), loader.load("2")))
+                .expectNextCount(1)
+                .verifyComplete();
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+
+        assertThat(batchQueries).isEqualTo(List.of(List.of("1", "2")));
+    }
+
+    @Test
+    void testLoad_SingleKeyUsesFindById() {
+        BatchLoader<String, String> loader = loader(Duration.ofMillis(5), 100);
+
+        StepVerifier.create(loader.load("2"))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(5)))
+                .expectNext("2")
+                .verifyComplete();
+
+        assertThat(singleQueries).isEqualTo(List.of("2"));
+        assertThat(batchQueries).isEqualTo(List.of());
+    }
+
+    @Test
+    void testLoad_ErrorReachesEveryWaiter() {
+        IllegalStateException boom = new IllegalStateException("boom");
+        BatchLoader<String, String> loader = new BatchLoader<>("test", Duration.ofMillis(5), 100, this::findById,
+                ids -> Flux.error(boom), value -> value, meterRegistry, scheduler);
+        List<Throwable> errors = new ArrayList<>();
+
+        loader.load("1").subscribe(value -> { }, errors::add);
+        loader.load("2").subscribe(value -> { }, errors::add);
+        scheduler.advanceTimeBy(Duration.ofMillis(5));
+
+        assertThat(errors).containsExactly(boom, boom);
+    }
+
+    @Test
+    void testLoad_ZeroWindowQueriesEachKey() {
+        BatchLoader<String, String> loader = loader(Duration.ZERO, 100);
+
+        StepVerifier.create(Mono.zip(loader.load("1"), loader.load("2"))).expectNextCount(1).verifyComplete();
+
+        assertThat(singleQueries).isEqualTo(List.of("1", "2"));
+        assertThat(batchQueries).isEqualTo(List.of());
+    }
+}
@@ -0,0 +1,155 @@
+package com.bank.pe.mscredit.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prueba de carga de extremo a extremo: levanta el servicio con MongoDB embebido y un ms-customer simulado
+ * en http://localhost:8081, ejecuta una mezcla de operaciones de CreditController a concurrencia fija
+ * y reporta RPS, p50/p99/p999 y tasa de errores por operación.
+ *
+ * <pre>
+ * mvn test -Dtest=CreditLoadTest -Dloadtest=true -Dloadtest.duration=PT60S -Dloadtest.concurrency=64
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.mongodb.embedded.version=5.0.5",
+        "credits.mongo-indexes.enabled=true",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "logging.level.root=WARN"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class CreditLoadTest {
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int CUSTOMERS = Integer.getInteger("loadtest.customers", 1_000);
+    private static final Duration CUSTOMER_LATENCY = Duration.ofMillis(Long.getLong("loadtest.customer-latency-ms", 5));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    private static CustomerServiceStub customerService;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startCustomerService() {
+        customerService = new CustomerServiceStub(8081, CUSTOMER_LATENCY);
+        customerService.start();
+    }
+
+    @AfterAll
+    static void stopCustomerService() {
+        customerService.stop();
+    }
+
+    @Test
+    void creditEndpointsUnderLoad() {
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port + "/api/v1/credits")
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+
+        List<String> creditIds = seed(client);
+        assertThat(creditIds).hasSize(CUSTOMERS);
+
+        LoadTestReport report = new LoadTestReport();
+        Instant start = Instant.now();
+        Flux.<Integer>generate(sink -> sink.next(0))
+                .take(DURATION)
+                .flatMap(ignored -> execute(client, creditIds, report), CONCURRENCY)
+                .blockLast();
+        Duration elapsed = Duration.between(start, Instant.now());
+
+        System.out.printf("%nms-credits carga: %s, concurrencia %d, %d clientes%n%s", elapsed, CONCURRENCY, CUSTOMERS,
+                report.format(elapsed));
+        connections.disposeLater().block();
+
+        assertThat(report.totalErrors()).isLessThanOrEqualTo((long) (report.totalRequests() * MAX_ERROR_RATE));
+    }
+
+    // Un crédito empresarial por cliente, creado por la API como en producción
+    private List<String> seed(WebClient client) {
+        return Flux.range(0, CUSTOMERS)
+                .flatMap(i -> client.post()
+                        .bodyValue(creditBody("e-" + i))
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<String, String>>() {
+                        })
+                        .map(response -> response.get("id")), 32)
+                .collectList()
+                .block();
+    }
+
+    private Mono<Void> execute(WebClient client, List<String> creditIds, LoadTestReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String customerId = "e-" + random.nextInt(CUSTOMERS);
+        String creditId = creditIds.get(random.nextInt(creditIds.size()));
+        int dice = random.nextInt(100);
+
+        String operation;
+        WebClient.RequestHeadersSpec<?> request;
+        if (dice < 40) {
+            operation = "GET hasOverdueDebt";
+            request = client.get().uri("/hasOverdueDebt/{id}", customerId);
+        } else if (dice < 60) {
+            operation = "GET credit";
+            request = client.get().uri("/{id}", creditId);
+        } else if (dice < 75) {
+            operation = "GET customer credits";
+            request = client.get().uri("/customer/{id}", customerId);
+        } else if (dice < 85) {
+            operation = "POST credit";
+            request = client.post().bodyValue(creditBody(customerId));
+        } else if (dice < 95) {
+            operation = "PATCH credit";
+            request = client.patch().uri("/{id}", creditId)
+                    .bodyValue(Map.of("currentDebtDelta", 1.0, "availableLimitDelta", -1.0));
+        } else {
+            operation = "GET credits page";
+            request = client.get().uri("?limit=50");
+        }
+
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return request.exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(response.statusCode().is2xxSuccessful()))
+                    .onErrorReturn(false)
+                    .doOnNext(success -> report.record(operation, startNanos, success));
+        }).then();
+    }
+
+    private Map<String, Object> creditBody(String customerId) {
+        return Map.of(
+                "customerId", customerId,
+                "creditType", "empresarial",
+                "amount", 15_000.0,
+                "creditLimit", 20_000.0,
+                "interestRate", 5.5);
+    }
+}
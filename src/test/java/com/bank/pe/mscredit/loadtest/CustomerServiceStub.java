@@ -0,0 +1,42 @@
+package com.bank.pe.mscredit.loadtest;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Sustituto de ms-customer en la URL fija de CustomerClient. Los IDs que empiezan con "p-" son PERSONAL.
+ */
+class CustomerServiceStub {
+
+    private final int port;
+    private final Duration latency;
+    private DisposableServer server;
+
+    CustomerServiceStub(int port, Duration latency) {
+        this.port = port;
+        this.latency = latency;
+    }
+
+    void start() {
+        server = HttpServer.create()
+                .port(port)
+                .route(routes -> routes.get("/api/v1/customers/getById/{id}", (request, response) -> {
+                    String id = request.param("id");
+                    String type = id.startsWith("p-") ? "PERSONAL" : "EMPRESARIAL";
+                    String body = "{\"data\":[{\"id\":\"" + id + "\",\"name\":\"Cliente " + id + "\",\"type\":\""
+                            + type + "\"}],\"metadata\":{\"status\":200,\"message\":\"OK\"}}";
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.delay(latency).thenReturn(body));
+                }))
+                .bindNow();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+}
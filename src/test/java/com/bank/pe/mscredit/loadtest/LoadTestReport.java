@@ -0,0 +1,70 @@
+package com.bank.pe.mscredit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias por operación en HdrHistogram (microsegundos) y conteo de errores.
+ */
+class LoadTestReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String operation, long startNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), MAX_LATENCY_MICROS);
+        latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3))
+                .recordValue(micros);
+        if (!success) {
+            errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        }
+    }
+
+    long totalRequests() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    String format(Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        StringBuilder report = new StringBuilder(String.format("%-22s %9s %7s %9s %9s %9s %9s%n",
+                "operation", "requests", "err%", "rps", "p50(ms)", "p99(ms)", "p999(ms)"));
+        latencies.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    total.add(entry.getValue());
+                    report.append(line(entry.getKey(), entry.getValue(), errorCount(entry.getKey()), seconds));
+                });
+        report.append(line("TOTAL", total, totalErrors(), seconds));
+        return report.toString();
+    }
+
+    private long errorCount(String operation) {
+        LongAdder count = errors.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    private String line(String operation, Histogram histogram, long errorCount, double seconds) {
+        long requests = histogram.getTotalCount();
+        return String.format("%-22s %9d %6.2f%% %9.1f %9.2f %9.2f %9.2f%n",
+                operation,
+                requests,
+                requests == 0 ? 0.0 : errorCount * 100.0 / requests,
+                requests / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0);
+    }
+}
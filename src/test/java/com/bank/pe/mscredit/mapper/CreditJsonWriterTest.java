@@ -0,0 +1,144 @@
+package com.bank.pe.mscredit.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.config.ApplicationConfig;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * La salida del writer debe ser byte a byte la que produce Jackson (con la configuración por defecto de Spring Boot)
+ * para el mismo documento leído como Credit o CreditDTO.
+ */
+class CreditJsonWriterTest {
+
+    private MappingMongoConverter converter;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new ApplicationConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Test
+    void testWriteArray_MatchesJacksonForCredit() throws Exception {
+        Credit credit = credit();
+        credit.setCustomerId("cliente \"vip\" \\ ñandú\n\t\u0001");
+        Document legacy = document(credit()).append("accruedInterest", 12.345).append("_class", "Credit");
+
+        List<Document> documents = List.of(document(credit), legacy, document(new Credit()));
+
+        assertThat(write(CreditJsonWriter.CREDIT.writeArray(raw(documents), new DefaultDataBufferFactory())))
+                .isEqualTo(objectMapper.writeValueAsString(documents.stream()
+                        .map(document -> converter.read(Credit.class, document))
+                        .collect(Collectors.toList())));
+    }
+
+    @Test
+    void testWriteArray_MatchesJacksonForCreditDTO() throws Exception {
+        Document document = document(credit());
+
+        assertThat(write(CreditJsonWriter.CREDIT_DTO.writeArray(raw(List.of(document)),
+                new DefaultDataBufferFactory())))
+                .isEqualTo(objectMapper.writeValueAsString(List.of(
+                        CreditMapper.toDTO(converter.read(Credit.class, document)))));
+    }
+
+    @Test
+    void testWriteArray_EmptyIsEmptyArray() {
+        assertThat(write(CreditJsonWriter.CREDIT.writeArray(Flux.empty(), new DefaultDataBufferFactory())))
+                .isEqualTo("[]");
+    }
+
+    @Test
+    void testWriteLines_OneDocumentPerLineWithMissingFieldsAsNull() {
+        Document projected = new Document("_id", new ObjectId("65f1a2b3c4d5e6f7a8b9c0d1"))
+                .append("amount", 150_050L);
+
+        assertThat(write(CreditJsonWriter.CREDIT_DTO.writeLines(raw(List.of(projected, projected)),
+                new DefaultDataBufferFactory())))
+                .isEqualTo(("{\"id\":\"65f1a2b3c4d5e6f7a8b9c0d1\",\"customerId\":null,\"creditType\":null,"
+                        + "\"amount\":1500.50,\"creditLimit\":null,\"interestRate\":null,\"termMonths\":null}\n")
+                        .repeat(2));
+    }
+
+    @Test
+    void testGetFields_AreCreditProperties() {
+        assertThat(CreditJsonWriter.CREDIT_DTO.getFields())
+                .containsExactly("id", "customerId", "creditType", "amount", "creditLimit", "interestRate",
+                        "termMonths");
+    }
+
+    private Credit credit() {
+        Credit credit = new Credit();
+        credit.setId(new ObjectId().toHexString());
+        credit.setCustomerId("123");
+        credit.setAmount(Money.of(new BigDecimal("1500.50")));
+        credit.setCreditType("personal");
+        credit.setInterestRate(5.5);
+        credit.setTermMonths(12);
+        credit.setCreditLimit(Money.of(2_000.0));
+        credit.setCurrentDebt(Money.ZERO);
+        credit.setAvailableLimit(Money.of(new BigDecimal("-0.05")));
+        credit.setDueDate(LocalDate.of(2025, 1, 31));
+        credit.setOutstandingAmount(Money.of(300.0));
+        credit.setCreatedAt(LocalDateTime.of(2025, 1, 15, 10, 30, 5, 120_000_000));
+        credit.setCustomerType("PERSONAL");
+        credit.setOverdue(false);
+        credit.setLastAccrualDate(LocalDate.of(2025, 1, 14));
+        credit.setAccruedInterest(Money.of(0.15));
+        credit.setVersion(3L);
+        return credit;
+    }
+
+    private Document document(Credit credit) {
+        Document document = new Document();
+        converter.write(credit, document);
+        return document;
+    }
+
+    private static Flux<RawBsonDocument> raw(List<Document> documents) {
+        return Flux.fromIterable(documents).map(document -> new RawBsonDocument(document, new DocumentCodec()));
+    }
+
+    private static String write(Flux<DataBuffer> buffers) {
+        return buffers.map(buffer -> {
+            String json = buffer.toString(StandardCharsets.UTF_8);
+            DataBufferUtils.release(buffer);
+            return json;
+        }).collect(Collectors.joining()).block();
+    }
+}
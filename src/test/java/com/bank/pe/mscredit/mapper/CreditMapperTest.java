@@ -0,0 +1,46 @@
+package com.bank.pe.mscredit.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.dto.CreditDTO;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+class CreditMapperTest {
+
+    @Test
+    void testToEntity_NewCreditIsCreatedNowWithoutDebt() {
+        LocalDateTime before = LocalDateTime.now();
+
+        Credit credit = CreditMapper.toEntity(new CreditDTO(null, "123", "personal", Money.of(500.0), null, 0.1, 12));
+
+        assertThat(credit.getCreatedAt()).isBetween(before, LocalDateTime.now());
+        assertThat(credit.getCurrentDebt()).isEqualTo(Money.ZERO);
+        assertThat(credit.getOutstandingAmount()).isEqualTo(Money.ZERO);
+    }
+
+    // El constructor posicional de Credit recibía creditLimit e interestRate en el orden inverso
+    @Test
+    void testToEntity_KeepsCreditLimitAndInterestRateInTheirFields() {
+        CreditDTO creditDTO = new CreditDTO(null, "123", "empresarial", Money.of(15_000.0), Money.of(20_000.0), 5.5,
+                24);
+
+        Credit credit = CreditMapper.toEntity(creditDTO);
+
+        assertThat(credit.getCreditLimit()).isEqualTo(Money.of(20_000.0));
+        assertThat(credit.getInterestRate()).isEqualTo(5.5);
+        assertThat(credit.getAmount()).isEqualTo(Money.of(15_000.0));
+        assertThat(credit.getTermMonths()).isEqualTo(24);
+    }
+
+    @Test
+    void testToDTO_RoundTripsTheCreditFields() {
+        CreditDTO creditDTO = new CreditDTO(null, "123", "empresarial", Money.of(15_000.0), Money.of(20_000.0), 5.5,
+                24);
+
+        assertThat(CreditMapper.toDTO(CreditMapper.toEntity(creditDTO))).isEqualTo(creditDTO);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.pe.mscredit.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CreditMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CreditMetrics creditMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        creditMetrics = new CreditMetrics(meterRegistry);
+    }
+
+    @Test
+    void testTimedMono_RecordsSuccess() {
+        StepVerifier.create(creditMetrics.timed("get", Mono.just("1"))).expectNext("1").verifyComplete();
+
+        assertThat(meterRegistry.get(CreditMetrics.TIMER)
+                .tag("operation", "get").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(CreditMetrics.ERRORS).counter()).isNull();
+    }
+
+    @Test
+    void testTimedMono_CountsErrorsByStatus() {
+        Mono<String> notFound = Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Crédito no encontrado"));
+
+        StepVerifier.create(creditMetrics.timed("get", notFound)).expectError().verify();
+
+        assertThat(meterRegistry.get(CreditMetrics.TIMER)
+                .tag("operation", "get").tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CreditMetrics.ERRORS)
+                .tag("operation", "get").tag("status", "404").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testTimedFlux_StartsOnSubscribe() {
+        Flux<Integer> credits = creditMetrics.timed("list", Flux.range(1, 3));
+
+        assertThat(meterRegistry.find(CreditMetrics.TIMER).timer()).isNull();
+        StepVerifier.create(credits).expectNextCount(3).verifyComplete();
+        StepVerifier.create(credits).expectNextCount(3).verifyComplete();
+
+        assertThat(meterRegistry.get(CreditMetrics.TIMER).tag("operation", "list").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,51 @@
+package com.bank.pe.mscredit.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.dto.CreditDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testOf_UsesShortestDecimalAndRoundsHalfEven() {
+        assertThat(Money.of(0.1 + 0.2).getMinorUnits()).isEqualTo(30);
+        assertThat(Money.of(new BigDecimal("1000.155")).getMinorUnits()).isEqualTo(100_016);
+        assertThat(Money.of(new BigDecimal("1000.145")).getMinorUnits()).isEqualTo(100_014);
+        assertThat(Money.of(0.0)).isSameAs(Money.ZERO);
+    }
+
+    @Test
+    void testPlusAndMinus_AreExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 1_000; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+
+        assertThat(total).isEqualTo(Money.of(100.0));
+        assertThat(total.minus(Money.of(100.0))).isSameAs(Money.ZERO);
+        assertThat(Money.of(-2.5).negate().toBigDecimal()).isEqualByComparingTo("2.50");
+    }
+
+    @Test
+    void testJson_KeepsNumericFormat() throws Exception {
+        CreditDTO creditDTO = objectMapper.readValue("{\"amount\":1500.5,\"creditLimit\":\"100\"}", CreditDTO.class);
+
+        assertThat(creditDTO.getAmount()).isEqualTo(Money.ofMinor(150_050));
+        assertThat(creditDTO.getCreditLimit()).isEqualTo(Money.ofMinor(10_000));
+        assertThat(objectMapper.writeValueAsString(creditDTO)).contains("\"amount\":1500.50", "\"creditLimit\":100.00");
+    }
+
+    @Test
+    void testConverters_ReadMinorUnitsAndLegacyDoubles() {
+        assertThat(new MoneyConverters.MoneyToLong().convert(Money.of(12.34))).isEqualTo(1_234L);
+        assertThat(new MoneyConverters.LongToMoney().convert(1_234L)).isEqualTo(Money.of(12.34));
+        assertThat(new MoneyConverters.DoubleToMoney().convert(12.34)).isEqualTo(Money.ofMinor(1_234));
+        assertThat(new MoneyConverters.IntegerToMoney().convert(1_000)).isEqualTo(Money.ofMinor(100_000));
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.pe.mscredit.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+/**
+ * findOverdueCandidates y findAccrualCandidates leen con proyección y mapean a Credit: los campos que no se
+ * pidieron deben quedar en null, no con un valor por defecto del constructor.
+ */
+class CreditProjectionReadTest {
+
+    @Test
+    void testRead_ProjectedCreditKeepsCreatedAtEmpty() {
+        Document projected = new Document("_id", new ObjectId()).append("customerId", "123").append("amount", 50_000L);
+
+        Credit credit = MongoTestTemplates.converter().read(Credit.class, projected);
+
+        assertThat(credit.getCustomerId()).isEqualTo("123");
+        assertThat(credit.getAmount()).isEqualTo(Money.ofMinor(50_000L));
+        assertThat(credit.getCreatedAt()).isNull();
+    }
+}
@@ -0,0 +1,231 @@
+package com.bank.pe.mscredit.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.accrual.InterestAccrual;
+import com.bank.pe.mscredit.config.MongoIndexInitializer;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.CustomerType;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.money.Money;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Ejecuta cada consulta de los repositorios, captura el comando que llega a MongoDB y le pide explain():
+ * falla si algún plan ganador recorre la colección completa (COLLSCAN).
+ * Requiere un MongoDB local: mvn test -Dtest=CreditQueryPlanTest -Dbenchmark.mongo.uri=mongodb://localhost:27017
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class CreditQueryPlanTest {
+
+    private static final String DATABASE = "ms_credits_query_plan";
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct",
+            "findAndModify", "update", "delete");
+
+    private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate template;
+    private CreditRepository creditRepository;
+    private CustomerTypeRepository customerTypeRepository;
+    private BatchJobRepository batchJobRepository;
+
+    @BeforeAll
+    void setUp() {
+        CommandListener captureQueries = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (DATABASE.equals(event.getDatabaseName()) && EXPLAINABLE.contains(event.getCommandName())) {
+                    commands.add(event.getCommand().clone());
+                }
+            }
+        };
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getProperty("benchmark.mongo.uri")))
+                .addCommandListener(captureQueries)
+                .build());
+        template = MongoTestTemplates.create(mongoClient, DATABASE);
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(template);
+        creditRepository = factory.getRepository(CreditRepository.class,
+                RepositoryFragments.just(new CreditRepositoryCustomImpl(template)));
+        customerTypeRepository = factory.getRepository(CustomerTypeRepository.class,
+                RepositoryFragments.just(new CustomerTypeRepositoryCustomImpl(template)));
+        batchJobRepository = factory.getRepository(BatchJobRepository.class,
+                RepositoryFragments.just(new BatchJobRepositoryCustomImpl(template)));
+
+        template.dropCollection(Credit.class).block();
+        template.dropCollection(CustomerType.class).block();
+        template.dropCollection(BatchJob.class).block();
+        new MongoIndexInitializer(template).ensureIndexes().block();
+
+        Flux.range(0, 2_000)
+                .map(i -> credit("customer-" + (i % 200)))
+                .buffer(500)
+                .concatMap(template::insertAll)
+                .blockLast();
+    }
+
+    @AfterAll
+    void tearDown() {
+        template.dropCollection(Credit.class).block();
+        template.dropCollection(CustomerType.class).block();
+        template.dropCollection(BatchJob.class).block();
+        mongoClient.close();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        LocalDate today = LocalDate.now();
+        String creditId = creditRepository.findByCustomerId("customer-1").blockFirst().getId();
+        commands.clear();
+
+        creditRepository.findById(creditId).block();
+        creditRepository.existsById(creditId).block();
+        creditRepository.findByCustomerId("customer-1").collectList().block();
+        creditRepository.existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                "customer-1", today, 0.0).block();
+        creditRepository.findCustomerIdsWithOverdueDebt(List.of("customer-1", "customer-2"), today)
+                .collectList().block();
+        creditRepository.findPageDocuments(null, 50, null).collectList().block();
+        creditRepository.findPageDocuments(creditId, 50, List.of("id", "amount")).collectList().block();
+        creditRepository.findDocumentsByCustomerId("customer-1", List.of("id", "amount")).collectList().block();
+        creditRepository.summarizeByCustomer("customer-1", today).block();
+        creditRepository.findAndModifyWithPrevious(creditId, null, new Update().inc("currentDebt", 100L)).block();
+        creditRepository.findAndModifyWithPrevious(creditId, 1L, new Update().set("termMonths", 12)).block();
+        creditRepository.findAndMoveLimit(creditId, 100L).block();
+        creditRepository.existsFlaggedOverdue("customer-1").block();
+        creditRepository.findCustomerIdsFlaggedOverdue(List.of("customer-1", "customer-2")).collectList().block();
+        List<Credit> candidates = creditRepository.findOverdueCandidates(today.minusDays(7), today.plusDays(60))
+                .collectList().block();
+        creditRepository.markOverdue(candidates.subList(0, 10), today.plusDays(60)).block();
+        creditRepository.setOverdue(creditId, 1L, false, null).block();
+        List<Credit> accrualCandidates = creditRepository.findAccrualCandidates(today).take(10).collectList().block();
+        creditRepository.applyAccruals(accrualCandidates.stream()
+                .map(credit -> new InterestAccrual(credit.getId(), credit.getVersion(), Money.of(500.15),
+                        Money.of(0.15)))
+                .collect(Collectors.toList()), today).block();
+        batchJobRepository.acquire("overdue-sweep", "owner", Instant.now(), Instant.now().plusSeconds(60)).block();
+        batchJobRepository.recordProgress("overdue-sweep", "owner", "0", 10, 10, Instant.now().plusSeconds(60))
+                .block();
+        customerTypeRepository.upsertAll(List.of(
+                new CustomerType("customer-1", "PERSONAL", Instant.now(), null))).block();
+        customerTypeRepository.findById("customer-1").block();
+        customerTypeRepository.findSyncedSince(Instant.now().minusSeconds(60)).collectList().block();
+        creditRepository.findAndRemove(creditId).block();
+
+        assertThat(commands).isNotEmpty();
+        List<String> collectionScans = new ArrayList<>();
+        for (BsonDocument command : commands) {
+            for (BsonDocument single : splitStatements(command)) {
+                Document explain = template.executeCommand(new Document("explain", single)
+                        .append("verbosity", "queryPlanner")).block();
+                if (hasCollectionScan(explain, false)) {
+                    collectionScans.add(single.toJson());
+                }
+            }
+        }
+        assertThat(collectionScans).as("Consultas con COLLSCAN").isEmpty();
+    }
+
+    @Test
+    void overdueLookupIsCoveredByIndex() {
+        commands.clear();
+        creditRepository.existsFlaggedOverdue("customer-1").block();
+
+        BsonDocument find = commands.stream()
+                .filter(command -> command.containsKey("find"))
+                .findFirst()
+                .orElseThrow();
+        Document explain = template.executeCommand(new Document("explain", splitStatements(find).get(0))
+                .append("verbosity", "queryPlanner")).block();
+        String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+        assertThat(winningPlan).as("Plan sin FETCH").doesNotContain("\"FETCH\"").contains("customer_overdue_idx");
+    }
+
+    // explain de update/delete acepta una sola sentencia; se quitan los campos de sesión del driver
+    private List<BsonDocument> splitStatements(BsonDocument command) {
+        BsonDocument base = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                base.put(key, value);
+            }
+        });
+        String statements = base.containsKey("updates") ? "updates" : base.containsKey("deletes") ? "deletes" : null;
+        if (statements == null) {
+            return List.of(base);
+        }
+        List<BsonDocument> singles = new ArrayList<>();
+        for (BsonValue statement : base.getArray(statements)) {
+            BsonDocument single = base.clone();
+            single.put(statements, new BsonArray(List.of(statement)));
+            singles.add(single);
+        }
+        return singles;
+    }
+
+    // Solo cuenta lo que cuelga de un winningPlan; los rejectedPlans no se ejecutan
+    @SuppressWarnings("unchecked")
+    private boolean hasCollectionScan(Object node, boolean inWinningPlan) {
+        if (node instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) node).entrySet()) {
+                boolean winning = inWinningPlan || entry.getKey().equals("winningPlan");
+                if (winning && entry.getKey().equals("stage") && "COLLSCAN".equals(entry.getValue())) {
+                    return true;
+                }
+                if (!entry.getKey().equals("rejectedPlans") && hasCollectionScan(entry.getValue(), winning)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List) {
+            for (Object item : (List<Object>) node) {
+                if (hasCollectionScan(item, inWinningPlan)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Credit credit(String customerId) {
+        Credit credit = new Credit();
+        credit.setCustomerId(customerId);
+        credit.setAmount(Money.of(1_000.0));
+        credit.setCreditType("empresarial");
+        credit.setCustomerType("EMPRESARIAL");
+        credit.setInterestRate(5.5);
+        credit.setCreditLimit(Money.of(1_000.0));
+        credit.setCurrentDebt(Money.of(500.0));
+        credit.setAvailableLimit(Money.of(500.0));
+        credit.setDueDate(LocalDate.now().plusDays(30));
+        credit.setOutstandingAmount(Money.of(500.0));
+        return credit;
+    }
+}
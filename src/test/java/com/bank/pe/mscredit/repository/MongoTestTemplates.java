@@ -0,0 +1,35 @@
+package com.bank.pe.mscredit.repository;
+
+import com.bank.pe.mscredit.config.ApplicationConfig;
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * ReactiveMongoTemplate con las mismas conversiones que la aplicación (Money como Int64), para las pruebas y
+ * benchmarks que se conectan a un MongoDB real sin levantar el contexto de Spring.
+ */
+public final class MongoTestTemplates {
+
+    private MongoTestTemplates() {
+    }
+
+    public static ReactiveMongoTemplate create(MongoClient mongoClient, String database) {
+        return new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(mongoClient, database), converter());
+    }
+
+    public static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new ApplicationConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
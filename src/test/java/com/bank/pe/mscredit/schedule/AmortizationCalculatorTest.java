@@ -0,0 +1,72 @@
+package com.bank.pe.mscredit.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import com.bank.pe.mscredit.money.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+class AmortizationCalculatorTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 31);
+
+    @Test
+    void testCompute_FixedInstallments() {
+        AmortizationSchedule schedule = AmortizationCalculator.compute("1", 2L, Money.of(10_000.0), 12.0, 12, START);
+
+        assertThat(schedule.getInstallments()).isEqualTo(12);
+        assertThat(schedule.getPayment(0)).isEqualTo(888.49);
+        assertThat(schedule.getInterest(0)).isEqualTo(100.0);
+        assertThat(schedule.getPrincipal(0)).isEqualTo(788.49);
+        assertThat(schedule.getPayment(10)).isEqualTo(888.49);
+        assertThat(schedule.getTotalInterest()).isEqualTo(661.86);
+    }
+
+    @Test
+    void testCompute_LastInstallmentClosesBalance() {
+        AmortizationSchedule schedule = AmortizationCalculator.compute("1", 1L, Money.of(250_000.0), 9.5, 360, START);
+
+        double principal = 0;
+        for (int i = 0; i < schedule.getInstallments(); i++) {
+            principal += schedule.getPrincipal(i);
+        }
+        assertThat(schedule.getBalance(359)).isZero();
+        assertThat(principal).isCloseTo(250_000.0, offset(0.001));
+        assertThat(schedule.getTotalPayment()).isEqualTo(250_000.0 + schedule.getTotalInterest());
+    }
+
+    @Test
+    void testCompute_ZeroRateSplitsAmount() {
+        AmortizationSchedule schedule = AmortizationCalculator.compute("1", 1L, Money.of(1_000.0), 0.0, 3, START);
+
+        assertThat(schedule.getPayment(0)).isEqualTo(333.33);
+        assertThat(schedule.getPayment(2)).isEqualTo(333.34);
+        assertThat(schedule.getTotalInterest()).isZero();
+    }
+
+    @Test
+    void testDueDate_MonthlyFromStartClampedToMonthEnd() {
+        AmortizationSchedule schedule = AmortizationCalculator.compute("1", 1L, Money.of(1_000.0), 5.0, 3, START);
+
+        assertThat(schedule.getDueDate(0)).isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(schedule.getDueDate(2)).isEqualTo(LocalDate.of(2025, 4, 30));
+    }
+
+    @Test
+    void testSerialize_RowPerInstallment() throws Exception {
+        AmortizationSchedule schedule = AmortizationCalculator.compute("1", 4L, Money.of(10_000.0), 12.0, 12, START);
+
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(schedule));
+
+        assertThat(json.get("creditId").asText()).isEqualTo("1");
+        assertThat(json.get("version").asLong()).isEqualTo(4);
+        assertThat(json.get("schedule")).hasSize(12);
+        assertThat(json.get("schedule").get(11).get("number").asInt()).isEqualTo(12);
+        assertThat(json.get("schedule").get(11).get("balance").asDouble()).isZero();
+        assertThat(json.get("schedule").get(0).get("dueDate").asText()).isEqualTo("2025-02-28");
+    }
+}
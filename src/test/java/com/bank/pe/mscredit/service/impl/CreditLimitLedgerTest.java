@@ -0,0 +1,183 @@
+package com.bank.pe.mscredit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class CreditLimitLedgerTest {
+
+    private final List<Long> flushes = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    // Documento "persistido" (se reemplaza, no se modifica): el flusher aplica el $inc con la condición de Mongo
+    private Credit stored;
+    private Sinks.One<Boolean> gate; // Retiene el siguiente $inc mientras no sea null
+    private CreditLimitLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        stored = credit(1_000, 0);
+        ledger = new CreditLimitLedger(id -> {
+            loads.incrementAndGet();
+            return Mono.justOrEmpty(stored);
+        }, (id, net) -> {
+            flushes.add(net);
+            Mono<Boolean> wait = gate == null ? Mono.just(true) : gate.asMono();
+            return wait.flatMap(ignored -> Mono.fromSupplier(() -> {
+                long available = minor(stored.getAvailableLimit());
+                long debt = minor(stored.getCurrentDebt());
+                if ((net > 0 && available < net) || (net < 0 && debt < -net)) {
+                    return null;
+                }
+                stored = credit(available - net, debt + net);
+                return stored;
+            }));
+        }, movements -> { });
+    }
+
+    @Test
+    void testConsume_RejectsWithoutWritingWhenLimitIsExhausted() {
+        StepVerifier.create(ledger.consume("1", 600))
+                .assertNext(credit -> assertThat(minor(credit.getAvailableLimit())).isEqualTo(400L))
+                .verifyComplete();
+
+        StepVerifier.create(ledger.consume("1", 500))
+                .expectErrorMatches(ex -> status(ex) == HttpStatus.CONFLICT)
+                .verify();
+
+        assertThat(flushes).containsExactly(600L);
+        assertThat(ledger.activeAccounts()).isEqualTo(0);
+    }
+
+    @Test
+    void testConsume_CoalescesMovementsWhileAWriteIsInFlight() {
+        gate = Sinks.one();
+        List<Credit> results = new ArrayList<>();
+        ledger.consume("1", 100).subscribe(results::add);
+        ledger.consume("1", 200).subscribe(results::add);
+        ledger.repay("1", 50).subscribe(results::add);
+        ledger.consume("1", 300).subscribe(results::add);
+
+        Sinks.One<Boolean> first = gate;
+        gate = null;
+        first.tryEmitValue(true);
+
+        // La primera tanda viaja sola; las que llegaron mientras tanto van en un solo $inc
+        assertThat(flushes).containsExactly(100L, 450L);
+        assertThat(results.size()).isEqualTo(4);
+        assertThat(minor(stored.getAvailableLimit())).isEqualTo(450L);
+        assertThat(minor(stored.getCurrentDebt())).isEqualTo(550L);
+    }
+
+    @Test
+    void testConsume_PendingConsumptionCountsAgainstTheLimit() {
+        gate = Sinks.one();
+        AtomicReference<Throwable> rejected = new AtomicReference<>();
+        ledger.consume("1", 700).subscribe();
+        ledger.consume("1", 400).subscribe(credit -> { }, rejected::set);
+
+        assertThat(status(rejected.get())).isEqualTo(HttpStatus.CONFLICT);
+        gate.tryEmitValue(true);
+        assertThat(flushes).containsExactly(700L);
+    }
+
+    @Test
+    void testRepay_CannotExceedDebtAndDoesNotFreeLimitUntilWritten() {
+        stored = credit(0, 300);
+        StepVerifier.create(ledger.repay("1", 400))
+                .expectErrorMatches(ex -> status(ex) == HttpStatus.CONFLICT)
+                .verify();
+
+        gate = Sinks.one();
+        AtomicReference<Throwable> rejected = new AtomicReference<>();
+        ledger.repay("1", 300).subscribe();
+        ledger.consume("1", 100).subscribe(credit -> { }, rejected::set);
+
+        assertThat(status(rejected.get())).isEqualTo(HttpStatus.CONFLICT);
+        gate.tryEmitValue(true);
+        assertThat(minor(stored.getAvailableLimit())).isEqualTo(300L);
+        assertThat(minor(stored.getCurrentDebt())).isEqualTo(0L);
+    }
+
+    @Test
+    void testConsume_ReloadsAndReadmitsWhenTheDocumentChangedElsewhere() {
+        gate = Sinks.one();
+        List<Credit> approved = new ArrayList<>();
+        List<Throwable> rejected = new ArrayList<>();
+        ledger.consume("1", 100).subscribe(approved::add);
+        ledger.consume("1", 300).subscribe(approved::add, rejected::add);
+        ledger.consume("1", 500).subscribe(approved::add, rejected::add);
+
+        // Otra instancia consumió 400 entre la carga y la segunda escritura
+        stored = credit(500, 400);
+        Sinks.One<Boolean> first = gate;
+        gate = null;
+        first.tryEmitValue(true);
+
+        // 100 cabe; 300 + 500 no, se relee (400 disponibles) y solo 300 vuelve a entrar
+        assertThat(flushes).containsExactly(100L, 800L, 300L);
+        assertThat(approved.size()).isEqualTo(2);
+        assertThat(rejected.size()).isEqualTo(1);
+        assertThat(status(rejected.get(0))).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(minor(stored.getAvailableLimit())).isEqualTo(100L);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testConsume_GivesUpWhenTheGuardNeverMatches() {
+        // Como un crédito con montos en double: se lee bien, pero el $inc condicionado nunca coincide
+        CreditLimitLedger legacy = new CreditLimitLedger(id -> {
+            loads.incrementAndGet();
+            return Mono.just(stored);
+        }, (id, net) -> Mono.empty(), movements -> { });
+
+        StepVerifier.create(legacy.consume("1", 100))
+                .expectErrorMatches(ex -> status(ex) == HttpStatus.CONFLICT)
+                .verify();
+        assertThat(loads.get()).isEqualTo(1 + CreditLimitLedger.MAX_RELOADS + 1);
+        assertThat(legacy.activeAccounts()).isEqualTo(0);
+    }
+
+    @Test
+    void testConsume_CreditWithoutLineOrMissing() {
+        stored = new Credit();
+        stored.setId("1");
+        StepVerifier.create(ledger.consume("1", 100))
+                .expectErrorMatches(ex -> status(ex) == HttpStatus.CONFLICT)
+                .verify();
+
+        stored = null;
+        StepVerifier.create(ledger.consume("1", 100))
+                .expectErrorMatches(ex -> status(ex) == HttpStatus.NOT_FOUND)
+                .verify();
+        assertThat(flushes.isEmpty()).isTrue();
+    }
+
+    private static Credit credit(long available, long debt) {
+        Credit credit = new Credit();
+        credit.setId("1");
+        credit.setAvailableLimit(Money.ofMinor(available));
+        credit.setCurrentDebt(Money.ofMinor(debt));
+        return credit;
+    }
+
+    private static long minor(Money money) {
+        return money.getMinorUnits();
+    }
+
+    private static HttpStatus status(Throwable ex) {
+        return ((ResponseStatusException) ex).getStatus();
+    }
+}
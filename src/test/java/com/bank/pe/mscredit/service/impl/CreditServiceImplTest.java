@@ -1,33 +1,68 @@
 package com.bank.pe.mscredit.service.impl;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
-import com.bank.pe.mscredit.client.CustomerClient;
-import com.bank.pe.mscredit.dto.CustomerDTO;
+import com.bank.pe.mscredit.cache.InMemorySharedCache;
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.config.CreditExecutionProperties;
+import com.bank.pe.mscredit.dto.CreditImportResult;
+import com.bank.pe.mscredit.dto.CreditPatchDTO;
+import com.bank.pe.mscredit.dto.CustomerCreditSummary;
+import com.bank.pe.mscredit.dto.OverdueDebtStatus;
+import com.bank.pe.mscredit.execution.ExecutionPolicy;
 import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.loader.BatchLoader;
+import com.bank.pe.mscredit.mapper.CreditJsonWriter;
+import com.bank.pe.mscredit.metrics.CreditMetrics;
+import com.bank.pe.mscredit.money.Money;
 import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.schedule.AmortizationSchedule;
+import com.bank.pe.mscredit.service.CustomerTypeService;
+import com.bank.pe.mscredit.service.OverdueSweepService;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 class CreditServiceImplTest {
 
     @Mock
     private CreditRepository creditRepository;
 
-    @InjectMocks
     private CreditServiceImpl creditService;
 
     @Mock
-    private CustomerClient customerClient;
+    private CustomerTypeService customerTypeService;
+
+    @Mock
+    private PortfolioStatsService portfolioStatsService;
+
+    @Mock
+    private OverdueSweepService overdueSweepService;
+
+    private ReactiveCache<String, AmortizationSchedule> scheduleCache;
+
+    private TieredCache<Credit> creditCache;
 
     private Credit credit1;
     private Credit credit2;
@@ -35,37 +70,82 @@ class CreditServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        scheduleCache = new ReactiveCache<>("credit-schedules", 100, Duration.ofMinutes(1), meterRegistry);
+        creditCache = new TieredCache<>("credits", 100, Duration.ofMinutes(1),
+                new InMemorySharedCache<>(Duration.ofMinutes(1)),
+                credit -> credit.getVersion() == null ? 0L : credit.getVersion(), meterRegistry);
+        creditService = new CreditServiceImpl(creditRepository, customerTypeService, new CreditMetrics(meterRegistry),
+                new ReactiveCache<>("customer-summaries", 100, Duration.ofMinutes(1), meterRegistry),
+                portfolioStatsService, overdueSweepService,
+                scheduleCache, creditCache, new TieredCache<>("customer-credits", 100, Duration.ofMinutes(1), null,
+                        null, meterRegistry),
+                new BatchLoader<>("credits", Duration.ZERO, 100, creditRepository::findById,
+                        creditRepository::findAllById, Credit::getId, meterRegistry),
+                new ExecutionPolicy(new CreditExecutionProperties(), meterRegistry));
+        when(creditRepository.setOverdue(anyString(), any(), anyBoolean(), any())).thenReturn(Mono.empty());
+        when(portfolioStatsService.record(any(), any())).thenReturn(Mono.empty());
+        when(portfolioStatsService.recordCreated(anyCollection())).thenReturn(Mono.empty());
         credit1 = new Credit();
         credit1.setId("1");
         credit1.setCustomerId("123");
-        credit1.setAmount(100.0);
+        credit1.setAmount(Money.of(100.0));
         credit1.setCreditType("personal");
         credit1.setInterestRate(5.5);
-        credit1.setCreditLimit(150.0);
-        credit1.setCurrentDebt(0.0);
+        credit1.setCreditLimit(Money.of(150.0));
+        credit1.setCurrentDebt(Money.of(0.0));
 
         credit2 = new Credit();
         credit2.setId("1");
         credit2.setCustomerId("123");
-        credit2.setAmount(5000.0);
+        credit2.setAmount(Money.of(5000.0));
         credit2.setCreditType("Business");
         credit2.setInterestRate(5.5);
-        credit2.setCreditLimit(150.0);
-        credit2.setCurrentDebt(0.0);
+        credit2.setCreditLimit(Money.of(150.0));
+        credit2.setCurrentDebt(Money.of(0.0));
 
 
     }
 
     @Test
-    void testListCredits() {
-        when(creditRepository.findAll()).thenReturn(Flux.just(credit1, credit2));
-
-        StepVerifier.create(creditService.listCredits())
-                .expectNext(credit1)
-                .expectNext(credit2)
+    void testListCreditDocuments_Page() {
+        RawBsonDocument document = new RawBsonDocument(new Document("customerId", "123"), new DocumentCodec());
+        List<String> fields = List.of("customerId", "amount");
+        when(creditRepository.findPageDocuments("65f1a2b3c4d5e6f7a8b9c0d1", 10, fields))
+                .thenReturn(Flux.just(document));
+
+        StepVerifier.create(creditService.listCreditDocuments("65f1a2b3c4d5e6f7a8b9c0d1", 10, fields))
+                .expectNext(document)
                 .verifyComplete();
+    }
+
+    @Test
+    void testListCreditDocuments_InvalidCursor() {
+        StepVerifier.create(creditService.listCreditDocuments("not-an-id", 10, null))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.BAD_REQUEST))
+                .verify();
 
-        verify(creditRepository).findAll();
+        verify(creditRepository, never()).findPageDocuments(any(), any(), any());
+    }
+
+    @Test
+    void testListCreditDocuments_UnknownField() {
+        StepVerifier.create(creditService.listCreditDocuments(null, 10, List.of("password")))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    void testListCreditDocuments_InvalidLimit() {
+        StepVerifier.create(creditService.listCreditDocuments(null, 0, null))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.BAD_REQUEST))
+                .verify();
+
+        verify(creditRepository, never()).findPageDocuments(any(), any(), any());
     }
 
     @Test
@@ -79,6 +159,35 @@ class CreditServiceImplTest {
         verify(creditRepository).findById("1");
     }
 
+    @Test
+    void testGetCredit_CachedUntilUpdate() {
+        credit1.setVersion(1L);
+        Credit updated = new Credit();
+        updated.setId("1");
+        updated.setCustomerId("123");
+        updated.setAmount(Money.of(100.0));
+        updated.setInterestRate(7.0);
+        updated.setVersion(2L);
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
+        when(creditRepository.findAndModifyWithPrevious(eq("1"), isNull(), any(Update.class)))
+                .thenReturn(Mono.just(Tuples.of(credit1, updated)));
+
+        StepVerifier.create(creditService.getCredit("1")).expectNext(credit1).verifyComplete();
+        StepVerifier.create(creditService.getCredit("1")).expectNext(credit1).verifyComplete();
+        verify(creditRepository, times(1)).findById("1");
+
+        StepVerifier.create(creditService.updateCredit("1", updated)).expectNext(updated).verifyComplete();
+        assertThat(creditCache.getIfPresent("1")).isNull();
+
+        // Una réplica atrasada que aún devuelve la versión 1 no vuelve a poblar la caché
+        StepVerifier.create(creditService.getCredit("1")).expectNext(credit1).verifyComplete();
+        assertThat(creditCache.getIfPresent("1")).isNull();
+
+        when(creditRepository.findById("1")).thenReturn(Mono.just(updated));
+        StepVerifier.create(creditService.getCredit("1")).expectNext(updated).verifyComplete();
+        assertThat(creditCache.getIfPresent("1")).isEqualTo(updated);
+    }
+
     @Test
     void testGetCreditById_NotFound() {
         when(creditRepository.findById("999")).thenReturn(Mono.empty());
@@ -99,25 +208,36 @@ class CreditServiceImplTest {
         Credit credit1 = new Credit();
         credit1.setId("4");
         credit1.setCustomerId("123");
-        credit1.setAmount(100.0);
+        credit1.setAmount(Money.of(100.0));
         credit1.setCreditType("personal");
         credit1.setInterestRate(2.6);
-        credit1.setCreditLimit(150.0);
-        credit1.setCurrentDebt(0.0);
+        credit1.setCreditLimit(Money.of(150.0));
+        credit1.setCurrentDebt(Money.of(0.0));
 
-        CustomerDTO customer  = new CustomerDTO();
-        customer.setId("123");
-        customer.setType("PERSONAL");
-        when(customerClient.getCustomerById("123")).thenReturn(Mono.just(customer));
-        when(creditRepository.findByCustomerId("123")).thenReturn(Flux.empty());
-        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.just(credit1));
+        when(customerTypeService.resolveType("123")).thenReturn(Mono.just("PERSONAL"));
+        when(creditRepository.insert(any(Credit.class))).thenReturn(Mono.just(credit1));
 
         StepVerifier.create(creditService.createCredit(credit1))
                 .expectNext(credit1)
                 .verifyComplete();
 
-        verify(customerClient).getCustomerById("123");
-        verify(creditRepository).save(any(Credit.class));
+        verify(customerTypeService).resolveType("123");
+        verify(creditRepository).insert(any(Credit.class));
+        verify(creditRepository, never()).findByCustomerId(anyString());
+        verify(portfolioStatsService).record(null, credit1);
+    }
+
+    @Test
+    void testCreateCredit_PersonalCustomerAlreadyHasCredit() {
+        when(customerTypeService.resolveType("123")).thenReturn(Mono.just("PERSONAL"));
+        when(creditRepository.insert(any(Credit.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+        StepVerifier.create(creditService.createCredit(credit1))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.CONFLICT))
+                .verify();
     }
 
     @Test
@@ -145,7 +265,7 @@ class CreditServiceImplTest {
         Credit credit = new Credit();
         credit.setCustomerId("12345");
 
-        when(customerClient.getCustomerById(credit.getCustomerId())).thenReturn(Mono.empty());
+        when(customerTypeService.resolveType(credit.getCustomerId())).thenReturn(Mono.empty());
 
         Mono<Credit> result = creditService.createCredit(credit);
 
@@ -158,12 +278,9 @@ class CreditServiceImplTest {
     public void testCreateCredit_ValidPersonalCustomer() {
         Credit credit = new Credit();
         credit.setCustomerId("12345");
-        CustomerDTO customer = new CustomerDTO();
-        customer.setType("PERSONAL");
 
-        when(customerClient.getCustomerById(credit.getCustomerId())).thenReturn(Mono.just(customer));
-        when(creditRepository.findByCustomerId(credit.getCustomerId())).thenReturn(Flux.empty());
-        when(creditRepository.save(credit)).thenReturn(Mono.just(credit));
+        when(customerTypeService.resolveType(credit.getCustomerId())).thenReturn(Mono.just("PERSONAL"));
+        when(creditRepository.insert(credit)).thenReturn(Mono.just(credit));
 
         Mono<Credit> result = creditService.createCredit(credit);
 
@@ -176,12 +293,9 @@ class CreditServiceImplTest {
     public void testCreateCredit_ValidEmpresarialCustomer() {
         Credit credit = new Credit();
         credit.setCustomerId("12345");
-        CustomerDTO customer = new CustomerDTO();
-        customer.setType("EMPRESARIAL");
 
-        when(customerClient.getCustomerById(credit.getCustomerId())).thenReturn(Mono.just(customer));
-        when(creditRepository.findByCustomerId(credit.getCustomerId())).thenReturn(Flux.empty());
-        when(creditRepository.save(credit)).thenReturn(Mono.just(credit));
+        when(customerTypeService.resolveType(credit.getCustomerId())).thenReturn(Mono.just("EMPRESARIAL"));
+        when(creditRepository.insert(credit)).thenReturn(Mono.just(credit));
 
         Mono<Credit> result = creditService.createCredit(credit);
 
@@ -194,10 +308,8 @@ class CreditServiceImplTest {
     public void testCreateCredit_InvalidCustomerType() {
         Credit credit = new Credit();
         credit.setCustomerId("12345");
-        CustomerDTO customer = new CustomerDTO();
-        customer.setType("INVALID");
 
-        when(customerClient.getCustomerById(credit.getCustomerId())).thenReturn(Mono.just(customer));
+        when(customerTypeService.resolveType(credit.getCustomerId())).thenReturn(Mono.just("INVALID"));
 
         Mono<Credit> result = creditService.createCredit(credit);
 
@@ -208,20 +320,23 @@ class CreditServiceImplTest {
 
     @Test
     void testUpdateCredit_Success() {
-        when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
-        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.just(credit1));
+        when(creditRepository.findAndModifyWithPrevious(eq("1"), isNull(), any(Update.class)))
+                .thenReturn(Mono.just(Tuples.of(credit2, credit1)));
 
         StepVerifier.create(creditService.updateCredit("1", credit1))
                 .expectNext(credit1)
                 .verifyComplete();
 
-        verify(creditRepository).findById("1");
-        verify(creditRepository).save(any(Credit.class));
+        verify(portfolioStatsService).record(credit2, credit1);
+
+        verify(creditRepository).findAndModifyWithPrevious(eq("1"), isNull(), any(Update.class));
+        verify(creditRepository, never()).findById(anyString());
+        verify(creditRepository, never()).save(any(Credit.class));
     }
 
     @Test
     void testUpdateCredit_NotFound() {
-        when(creditRepository.findById("999")).thenReturn(Mono.empty());
+        when(creditRepository.findAndModifyWithPrevious(eq("999"), isNull(), any(Update.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(creditService.updateCredit("999", credit1))
                 .expectErrorMatches(throwable ->
@@ -231,24 +346,136 @@ class CreditServiceImplTest {
                 )
                 .verify();
 
-        verify(creditRepository).findById("999");
+        verify(creditRepository).findAndModifyWithPrevious(eq("999"), isNull(), any(Update.class));
     }
 
     @Test
-    void testDeleteCredit_Success() {
+    void testPatchCredit_SetAndIncrement() {
+        CreditPatchDTO patch = new CreditPatchDTO();
+        patch.setVersion(3L);
+        patch.setInterestRate(6.0);
+        patch.setCurrentDebtDelta(Money.of(50.0));
+        patch.setAvailableLimitDelta(Money.of(-50.0));
+        when(creditRepository.findAndModifyWithPrevious(eq("1"), eq(3L), any(Update.class)))
+                .thenReturn(Mono.just(Tuples.of(credit1, credit1)));
+
+        StepVerifier.create(creditService.patchCredit("1", patch))
+                .expectNext(credit1)
+                .verifyComplete();
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(creditRepository).findAndModifyWithPrevious(eq("1"), eq(3L), captor.capture());
+        Document updateObject = captor.getValue().getUpdateObject();
+        assertThat(updateObject.get("$set", Document.class)).containsOnlyKeys("interestRate");
+        assertThat(updateObject.get("$inc", Document.class)).containsEntry("currentDebt", 5_000L)
+                .containsEntry("availableLimit", -5_000L);
+    }
+
+    @Test
+    void testPatchCredit_VersionConflict() {
+        CreditPatchDTO patch = new CreditPatchDTO();
+        patch.setVersion(1L);
+        patch.setOutstandingAmountDelta(Money.of(-100.0));
+        when(creditRepository.findAndModifyWithPrevious(eq("1"), eq(1L), any(Update.class))).thenReturn(Mono.empty());
+        when(creditRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(creditService.patchCredit("1", patch))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.CONFLICT))
+                .verify();
+    }
+
+    @Test
+    void testConsume_WritesGuardedIncrement() {
+        credit1.setAvailableLimit(Money.of(150.0));
+        Credit after = new Credit();
+        after.setId("1");
+        after.setCustomerId("123");
+        after.setAvailableLimit(Money.of(100.0));
+        after.setCurrentDebt(Money.of(50.0));
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
+        when(creditRepository.findAndMoveLimit("1", 5_000L)).thenReturn(Mono.just(Tuples.of(credit1, after)));
+
+        StepVerifier.create(creditService.consume("1", Money.of(50.0)))
+                .expectNext(after)
+                .verifyComplete();
+
+        verify(portfolioStatsService).record(credit1, after);
+        verify(creditRepository, never()).findAndModifyWithPrevious(any(), any(), any());
+    }
+
+    @Test
+    void testConsume_InvalidAmountOrInsufficientLimit() {
+        credit1.setAvailableLimit(Money.of(150.0));
         when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
-        when(creditRepository.delete(credit1)).thenReturn(Mono.empty());
+
+        StepVerifier.create(creditService.consume("1", Money.of(-10.0)))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.BAD_REQUEST))
+                .verify();
+        StepVerifier.create(creditService.consume("1", Money.of(150.01)))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.CONFLICT))
+                .verify();
+
+        verify(creditRepository, never()).findAndMoveLimit(anyString(), anyLong());
+    }
+
+    @Test
+    void testPatchCredit_NotFound() {
+        CreditPatchDTO patch = new CreditPatchDTO();
+        patch.setCreditLimit(Money.of(500.0));
+        when(creditRepository.findAndModifyWithPrevious(eq("999"), isNull(), any(Update.class))).thenReturn(Mono.empty());
+        when(creditRepository.existsById("999")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(creditService.patchCredit("999", patch))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.NOT_FOUND))
+                .verify();
+    }
+
+    @Test
+    void testPatchCredit_EmptyPatch() {
+        StepVerifier.create(creditService.patchCredit("1", new CreditPatchDTO()))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.BAD_REQUEST))
+                .verify();
+
+        verify(creditRepository, never()).findAndModifyWithPrevious(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void testPatchCredit_SetAndIncrementSameField() {
+        CreditPatchDTO patch = new CreditPatchDTO();
+        patch.setCurrentDebt(Money.of(10.0));
+        patch.setCurrentDebtDelta(Money.of(5.0));
+
+        StepVerifier.create(creditService.patchCredit("1", patch))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    void testDeleteCredit_Success() {
+        when(creditRepository.findAndRemove("1")).thenReturn(Mono.just(credit1));
 
         StepVerifier.create(creditService.deleteCredit("1"))
                 .verifyComplete();
 
-        verify(creditRepository).findById("1");
-        verify(creditRepository).delete(credit1);
+        // Borra por id: una escritura que cambió la versión entre tanto no hace fallar el borrado
+        verify(creditRepository).findAndRemove("1");
+        verify(creditRepository, never()).delete(any(Credit.class));
+        verify(portfolioStatsService).record(credit1, null);
     }
 
     @Test
     void testDeleteCredit_NotFound() {
-        when(creditRepository.findById("999")).thenReturn(Mono.empty());
+        when(creditRepository.findAndRemove("999")).thenReturn(Mono.empty());
 
         StepVerifier.create(creditService.deleteCredit("999"))
                 .expectErrorMatches(throwable ->
@@ -258,17 +485,15 @@ class CreditServiceImplTest {
                 )
                 .verify();
 
-        verify(creditRepository).findById("999");
+        verify(creditRepository).findAndRemove("999");
     }
 
     @Test
     public void testHasOverdueDebt() {
         String customerId = "12345";
-        Credit overdueCredit = new Credit();
-        overdueCredit.setDueDate(LocalDate.now().minusDays(1));
-        overdueCredit.setOutstandingAmount(100.0);
 
-        when(creditRepository.findByCustomerId(customerId)).thenReturn(Flux.just(overdueCredit));
+        when(creditRepository.existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                eq(customerId), any(LocalDate.class), eq(0.0))).thenReturn(Mono.just(true));
 
         Mono<Boolean> result = creditService.hasOverdueDebt(customerId);
 
@@ -280,11 +505,9 @@ class CreditServiceImplTest {
     @Test
     public void testHasNoOverdueDebt() {
         String customerId = "12345";
-        Credit nonOverdueCredit = new Credit();
-        nonOverdueCredit.setDueDate(LocalDate.now().plusDays(1));
-        nonOverdueCredit.setOutstandingAmount(100.0);
 
-        when(creditRepository.findByCustomerId(customerId)).thenReturn(Flux.just(nonOverdueCredit));
+        when(creditRepository.existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                eq(customerId), any(LocalDate.class), eq(0.0))).thenReturn(Mono.just(false));
 
         Mono<Boolean> result = creditService.hasOverdueDebt(customerId);
 
@@ -294,19 +517,75 @@ class CreditServiceImplTest {
     }
 
     @Test
-    public void testHasNoOutstandingAmount() {
+    public void testHasOverdueDebt_DoesNotLoadCredits() {
         String customerId = "12345";
-        Credit creditWithNoOutstandingAmount = new Credit();
-        creditWithNoOutstandingAmount.setDueDate(LocalDate.now().minusDays(1));
-        creditWithNoOutstandingAmount.setOutstandingAmount(0.0);
 
-        when(creditRepository.findByCustomerId(customerId)).thenReturn(Flux.just(creditWithNoOutstandingAmount));
+        when(creditRepository.existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                eq(customerId), any(LocalDate.class), eq(0.0))).thenReturn(Mono.just(false));
 
-        Mono<Boolean> result = creditService.hasOverdueDebt(customerId);
-
-        StepVerifier.create(result)
+        StepVerifier.create(creditService.hasOverdueDebt(customerId))
                 .expectNext(false)
                 .verifyComplete();
+
+        verify(creditRepository, never()).findByCustomerId(customerId);
+    }
+
+    @Test
+    void testHasOverdueDebt_Batch() {
+        when(creditRepository.findCustomerIdsWithOverdueDebt(anyCollection(), any(LocalDate.class)))
+                .thenReturn(Flux.just("1"));
+
+        StepVerifier.create(creditService.hasOverdueDebt(Flux.just("1", "2", "1")))
+                .expectNext(new OverdueDebtStatus("1", true))
+                .expectNext(new OverdueDebtStatus("2", false))
+                .verifyComplete();
+
+        verify(creditRepository, times(1)).findCustomerIdsWithOverdueDebt(anyCollection(), any(LocalDate.class));
+    }
+
+    @Test
+    void testHasOverdueDebt_UsesFlagOnceTodaysSweepCompleted() {
+        when(overdueSweepService.isCurrent(any(LocalDate.class))).thenReturn(true);
+        when(creditRepository.existsFlaggedOverdue("123")).thenReturn(Mono.just(true));
+        when(creditRepository.findCustomerIdsFlaggedOverdue(anyCollection())).thenReturn(Flux.just("1"));
+
+        StepVerifier.create(creditService.hasOverdueDebt("123")).expectNext(true).verifyComplete();
+        StepVerifier.create(creditService.hasOverdueDebt(Flux.just("1", "2")))
+                .expectNext(new OverdueDebtStatus("1", true))
+                .expectNext(new OverdueDebtStatus("2", false))
+                .verifyComplete();
+
+        verify(creditRepository, never()).existsByCustomerIdAndDueDateBeforeAndOutstandingAmountGreaterThan(
+                anyString(), any(LocalDate.class), anyDouble());
+        verify(creditRepository, never()).findCustomerIdsWithOverdueDebt(anyCollection(), any(LocalDate.class));
+    }
+
+    @Test
+    void testPatchCredit_ClearsOverdueFlagWhenDebtIsPaid() {
+        Credit before = new Credit();
+        before.setId("1");
+        before.setCustomerId("123");
+        before.setDueDate(LocalDate.now().minusDays(10));
+        before.setOutstandingAmount(Money.of(100.0));
+        before.setOverdue(true);
+        before.setVersion(1L);
+        Credit after = new Credit();
+        after.setId("1");
+        after.setCustomerId("123");
+        after.setDueDate(before.getDueDate());
+        after.setOutstandingAmount(Money.of(0.0));
+        after.setOverdue(true);
+        after.setVersion(2L);
+        CreditPatchDTO patch = new CreditPatchDTO();
+        patch.setOutstandingAmountDelta(Money.of(-100.0));
+        when(creditRepository.findAndModifyWithPrevious(eq("1"), isNull(), any(Update.class)))
+                .thenReturn(Mono.just(Tuples.of(before, after)));
+
+        StepVerifier.create(creditService.patchCredit("1", patch))
+                .assertNext(credit -> assertThat(credit.getOverdue()).isFalse())
+                .verifyComplete();
+
+        verify(creditRepository).setOverdue("1", 2L, false, null);
     }
 
     @Test
@@ -319,4 +598,150 @@ class CreditServiceImplTest {
 
         verify(creditRepository).findByCustomerId("123");
     }
+
+    @Test
+    void testGetCreditDocumentsByCustomer_NotFound() {
+        when(creditRepository.findDocumentsByCustomerId(eq("999"), anyList())).thenReturn(Flux.empty());
+
+        StepVerifier.create(creditService.getCreditDocumentsByCustomer("999"))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof ResponseStatusException &&
+                                ((ResponseStatusException) throwable).getStatus().equals(HttpStatus.NOT_FOUND))
+                .verify();
+
+        // Se lee y se cachea solo lo que escribe el endpoint
+        verify(creditRepository).findDocumentsByCustomerId("999", CreditJsonWriter.CREDIT_DTO.getFields());
+    }
+
+    @Test
+    void testGetCustomerSummary_CachedUntilCustomerWrites() {
+        CustomerCreditSummary summary = new CustomerCreditSummary("123", 1, Map.of("personal", 1L),
+                100.0, 150.0, 0.0, 150.0, 0.0, null, false);
+        when(creditRepository.summarizeByCustomer(eq("123"), any(LocalDate.class))).thenReturn(Mono.just(summary));
+        when(customerTypeService.resolveType("123")).thenReturn(Mono.just("EMPRESARIAL"));
+        when(creditRepository.insert(any(Credit.class))).thenReturn(Mono.just(credit1));
+
+        StepVerifier.create(creditService.getCustomerSummary("123")).expectNext(summary).verifyComplete();
+        StepVerifier.create(creditService.getCustomerSummary("123")).expectNext(summary).verifyComplete();
+        verify(creditRepository, times(1)).summarizeByCustomer(eq("123"), any(LocalDate.class));
+
+        StepVerifier.create(creditService.createCredit(credit1)).expectNext(credit1).verifyComplete();
+        StepVerifier.create(creditService.getCustomerSummary("123")).expectNext(summary).verifyComplete();
+        verify(creditRepository, times(2)).summarizeByCustomer(eq("123"), any(LocalDate.class));
+    }
+
+    @Test
+    void testGetCustomerSummary_NoCredits() {
+        when(creditRepository.summarizeByCustomer(eq("999"), any(LocalDate.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(creditService.getCustomerSummary("999"))
+                .expectErrorMatches(ex -> ex instanceof ResponseStatusException
+                        && ((ResponseStatusException) ex).getStatus() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+
+    @Test
+    void testGetSchedule_CachedPerVersion() {
+        credit1.setTermMonths(12);
+        credit1.setVersion(1L);
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
+
+        AmortizationSchedule first = creditService.getSchedule("1").block();
+        StepVerifier.create(creditService.getSchedule("1")).expectNext(first).verifyComplete();
+        assertThat(first.getInstallments()).isEqualTo(12);
+
+        Credit updated = new Credit();
+        updated.setId("1");
+        updated.setAmount(Money.of(100.0));
+        updated.setInterestRate(5.5);
+        updated.setTermMonths(24);
+        updated.setVersion(2L);
+        when(creditRepository.findById("1")).thenReturn(Mono.just(updated));
+        StepVerifier.create(creditService.getSchedule("1"))
+                .assertNext(schedule -> {
+                    assertThat(schedule.getVersion()).isEqualTo(2L);
+                    assertThat(schedule.getInstallments()).isEqualTo(24);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testUpdateCredit_RateChangeDropsCachedSchedule() {
+        credit1.setTermMonths(12);
+        credit1.setVersion(1L);
+        Credit updated = new Credit();
+        updated.setId("1");
+        updated.setCustomerId("123");
+        updated.setAmount(Money.of(100.0));
+        updated.setInterestRate(7.0);
+        updated.setTermMonths(12);
+        updated.setVersion(2L);
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
+        when(creditRepository.findAndModifyWithPrevious(eq("1"), isNull(), any(Update.class)))
+                .thenReturn(Mono.just(Tuples.of(credit1, updated)));
+
+        StepVerifier.create(creditService.getSchedule("1")).expectNextCount(1).verifyComplete();
+        assertThat(scheduleCache.getIfPresent("1:1")).isNotNull();
+
+        StepVerifier.create(creditService.updateCredit("1", updated)).expectNext(updated).verifyComplete();
+        assertThat(scheduleCache.getIfPresent("1:1")).isNull();
+    }
+
+    @Test
+    void testGetSchedule_WithoutTermIsConflict() {
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit1));
+
+        StepVerifier.create(creditService.getSchedule("1"))
+                .expectErrorMatches(ex -> ex instanceof ResponseStatusException
+                        && ((ResponseStatusException) ex).getStatus() == HttpStatus.CONFLICT)
+                .verify();
+    }
+
+    private static Credit importRow(String customerId) {
+        Credit credit = new Credit();
+        credit.setCustomerId(customerId);
+        credit.setCreditType("personal");
+        credit.setAmount(Money.of(1000.0));
+        return credit;
+    }
+
+    @Test
+    void testImportCredits_ValidatesRowsInMemory() {
+        when(customerTypeService.resolveType("e1")).thenReturn(Mono.just("EMPRESARIAL"));
+        when(customerTypeService.resolveType("p1")).thenReturn(Mono.just("PERSONAL"));
+        when(customerTypeService.resolveType("x1")).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado")));
+        when(creditRepository.insertUnordered(anyList())).thenReturn(Mono.just(Map.of()));
+
+        StepVerifier.create(creditService.importCredits(Flux.just(
+                        importRow("e1"), importRow("p1"), importRow("p1"), importRow("x1"), importRow(null))))
+                .assertNext(result -> assertThat(result.getStatus()).isEqualTo("CREATED"))
+                .assertNext(result -> assertThat(result.getStatus()).isEqualTo("CREATED"))
+                .assertNext(result -> assertThat(result.getError())
+                        .isEqualTo("Un cliente personal solo puede tener un crédito."))
+                .assertNext(result -> assertThat(result.getError()).isEqualTo("Cliente no encontrado"))
+                .assertNext(result -> {
+                    assertThat(result.getRow()).isEqualTo(5);
+                    assertThat(result.getError()).isEqualTo("Datos inválidos");
+                })
+                .verifyComplete();
+
+        verify(customerTypeService, times(1)).resolveType("p1");
+        verify(creditRepository, times(1)).insertUnordered(argThat(credits -> credits.size() == 2));
+        verify(creditRepository, never()).insert(any(Credit.class));
+    }
+
+    @Test
+    void testImportCredits_ReportsDuplicateKeyPerRow() {
+        when(customerTypeService.resolveType(anyString())).thenReturn(Mono.just("PERSONAL"));
+        when(creditRepository.insertUnordered(anyList())).thenReturn(Mono.just(Map.of(0, 11000)));
+
+        StepVerifier.create(creditService.importCredits(Flux.just(importRow("p1"), importRow("p2"))))
+                .expectNextMatches(result -> result.getRow() == 1 && result.getStatus().equals("REJECTED"))
+                .expectNextMatches(result -> result.getRow() == 2 && result.getStatus().equals("CREATED"))
+                .verifyComplete();
+
+        verify(portfolioStatsService).recordCreated(argThat(credits -> credits.size() == 1
+                && credits.iterator().next().getCustomerId().equals("p2")));
+    }
 }
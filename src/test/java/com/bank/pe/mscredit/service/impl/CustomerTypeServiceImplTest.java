@@ -0,0 +1,160 @@
+package com.bank.pe.mscredit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.bank.pe.mscredit.client.CustomerClient;
+import com.bank.pe.mscredit.config.CustomerTypeProperties;
+import com.bank.pe.mscredit.dto.CustomerDTO;
+import com.bank.pe.mscredit.entity.CustomerType;
+import com.bank.pe.mscredit.repository.CustomerTypeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+class CustomerTypeServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private CustomerTypeRepository customerTypeRepository;
+
+    @Mock
+    private CustomerClient customerClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerTypeServiceImpl customerTypeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        customerTypeService = new CustomerTypeServiceImpl(customerTypeRepository, customerClient,
+                new CustomerTypeProperties(), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(customerTypeRepository.upsertAll(anyList())).thenAnswer(invocation ->
+                Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+    }
+
+    private static CustomerType customerType(String id, String type, Instant updatedAt, Instant syncedAt) {
+        return new CustomerType(id, type, updatedAt, syncedAt);
+    }
+
+    @Test
+    void testResolveType_FromMongoThenMemory() {
+        when(customerTypeRepository.findById("c-1"))
+                .thenReturn(Mono.just(customerType("c-1", "PERSONAL", NOW, NOW)));
+
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("PERSONAL").verifyComplete();
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("PERSONAL").verifyComplete();
+
+        verify(customerTypeRepository, times(1)).findById("c-1");
+        verifyNoInteractions(customerClient);
+        assertThat(meterRegistry.get("customer.types.lookups").tag("source", "memory").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testResolveType_MissFallsBackToCustomerClient() {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId("c-1");
+        customer.setType("EMPRESARIAL");
+        when(customerTypeRepository.findById("c-1")).thenReturn(Mono.empty());
+        when(customerClient.getCustomerById("c-1")).thenReturn(Mono.just(customer));
+
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("EMPRESARIAL").verifyComplete();
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("EMPRESARIAL").verifyComplete();
+
+        verify(customerClient, times(1)).getCustomerById("c-1");
+        verify(customerTypeRepository).upsertAll(anyList());
+    }
+
+    @Test
+    void testResolveType_RemoteTypeIsNormalizedLikeTheBulkLoad() {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId("c-1");
+        customer.setType("personal");
+        when(customerTypeRepository.findById("c-1")).thenReturn(Mono.empty());
+        when(customerClient.getCustomerById("c-1")).thenReturn(Mono.just(customer));
+
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("PERSONAL").verifyComplete();
+
+        verify(customerTypeRepository).upsertAll(List.of(customerType("c-1", "PERSONAL", NOW, NOW)));
+    }
+
+    @Test
+    void testResolveType_RemoteInvalidTypeIsNotStored() {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId("c-1");
+        customer.setType("VIP");
+        when(customerTypeRepository.findById("c-1")).thenReturn(Mono.empty());
+        when(customerClient.getCustomerById("c-1")).thenReturn(Mono.just(customer));
+
+        StepVerifier.create(customerTypeService.resolveType("c-1"))
+                .expectErrorMatches(ex -> ex instanceof ResponseStatusException
+                        && ((ResponseStatusException) ex).getStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
+        verify(customerTypeRepository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    void testResolveType_StaleEntryKeepsKnownTypeWhenServiceIsDown() {
+        Instant old = NOW.minus(Duration.ofDays(2));
+        when(customerTypeRepository.findSyncedSince(any()))
+                .thenReturn(Flux.just(customerType("c-1", "PERSONAL", old, old)));
+        when(customerClient.getCustomerById("c-1")).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Servicio ms-customer no disponible")));
+
+        StepVerifier.create(customerTypeService.sync()).expectNext(1L).verifyComplete();
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("PERSONAL").verifyComplete();
+
+        verify(customerClient).getCustomerById("c-1");
+    }
+
+    @Test
+    void testUpsert_KeepsNewestVersion() {
+        Flux<CustomerType> updates = Flux.just(
+                customerType("c-1", "empresarial", NOW, null),
+                customerType("c-1", "PERSONAL", NOW.minusSeconds(60), null));
+
+        StepVerifier.create(customerTypeService.upsert(updates)).expectNext(2L).verifyComplete();
+        StepVerifier.create(customerTypeService.resolveType("c-1")).expectNext("EMPRESARIAL").verifyComplete();
+
+        verify(customerTypeRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testUpsert_InvalidType() {
+        StepVerifier.create(customerTypeService.upsert(Flux.just(customerType("c-1", "VIP", NOW, null))))
+                .expectErrorMatches(ex -> ex instanceof ResponseStatusException
+                        && ((ResponseStatusException) ex).getStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
+        verify(customerTypeRepository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    void testSync_LoadsProjection() {
+        when(customerTypeRepository.findSyncedSince(any())).thenReturn(Flux.just(
+                customerType("c-1", "PERSONAL", NOW, NOW),
+                customerType("c-2", "EMPRESARIAL", NOW, NOW)));
+
+        StepVerifier.create(customerTypeService.sync()).expectNext(2L).verifyComplete();
+
+        assertThat(meterRegistry.get("customer.types.size").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("customer.types.sync.lag").gauge().value()).isEqualTo(0.0);
+        StepVerifier.create(customerTypeService.resolveType("c-2")).expectNext("EMPRESARIAL").verifyComplete();
+        verify(customerTypeRepository, never()).findById(anyString());
+    }
+}
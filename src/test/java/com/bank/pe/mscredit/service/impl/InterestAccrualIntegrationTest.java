@@ -0,0 +1,137 @@
+package com.bank.pe.mscredit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bank.pe.mscredit.cache.CreditCacheInvalidator;
+import com.bank.pe.mscredit.cache.ReactiveCache;
+import com.bank.pe.mscredit.cache.TieredCache;
+import com.bank.pe.mscredit.config.InterestAccrualProperties;
+import com.bank.pe.mscredit.config.MongoIndexInitializer;
+import com.bank.pe.mscredit.config.PortfolioStatsProperties;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import com.bank.pe.mscredit.repository.BatchJobRepositoryCustomImpl;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.repository.CreditRepositoryCustomImpl;
+import com.bank.pe.mscredit.repository.MongoTestTemplates;
+import com.bank.pe.mscredit.repository.PortfolioStatsRepository;
+import com.bank.pe.mscredit.repository.PortfolioStatsRepositoryCustomImpl;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Devengo completo sobre MongoDB: lectura por cursor, cálculo y bulkWrite. Cada crédito devenga un día y una
+ * segunda corrida del mismo día no vuelve a cobrar interés.
+ * Requiere un MongoDB local: mvn test -Dtest=InterestAccrualIntegrationTest
+ * -Dbenchmark.mongo.uri=mongodb://localhost:27017
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class InterestAccrualIntegrationTest {
+
+    // Más de un chunk de InterestAccrualProperties para recorrer varias tandas
+    private static final int CREDITS = 5_000;
+    private static final Money OUTSTANDING = Money.of(5_000.0);
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate template;
+    private InterestAccrualServiceImpl accrualService;
+
+    @BeforeAll
+    void setUp() {
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo.uri"));
+        template = MongoTestTemplates.create(mongoClient, "ms_credits_accrual");
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(template);
+        CreditRepository creditRepository = factory.getRepository(CreditRepository.class,
+                RepositoryFragments.just(new CreditRepositoryCustomImpl(template)));
+        BatchJobRepository jobRepository = factory.getRepository(BatchJobRepository.class,
+                RepositoryFragments.just(new BatchJobRepositoryCustomImpl(template)));
+        PortfolioStatsRepository statsRepository = factory.getRepository(PortfolioStatsRepository.class,
+                RepositoryFragments.just(new PortfolioStatsRepositoryCustomImpl(template)));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PortfolioStatsServiceImpl statsService = new PortfolioStatsServiceImpl(statsRepository, creditRepository,
+                jobRepository, new PortfolioStatsProperties(), meterRegistry);
+        CreditCacheInvalidator cacheInvalidator = new CreditCacheInvalidator(
+                new TieredCache<>("credits", 20_000, Duration.ofSeconds(30), null, CreditCacheInvalidator::version,
+                        meterRegistry),
+                new TieredCache<>("customer-credits", 10_000, Duration.ofSeconds(30), null, null, meterRegistry),
+                new ReactiveCache<>("customer-summaries", 10_000, Duration.ofSeconds(30), meterRegistry));
+        accrualService = new InterestAccrualServiceImpl(creditRepository, jobRepository, statsService,
+                cacheInvalidator, new InterestAccrualProperties(), meterRegistry, Clock.systemDefaultZone());
+
+        template.dropCollection(Credit.class).block();
+        template.dropCollection(BatchJob.class).block();
+        template.dropCollection(PortfolioStats.class).block();
+        new MongoIndexInitializer(template).ensureIndexes().block();
+        Flux.range(0, CREDITS)
+                .map(this::credit)
+                .buffer(5_000)
+                .flatMap(template::insertAll, 4)
+                .blockLast();
+    }
+
+    @AfterAll
+    void tearDown() {
+        template.dropCollection(Credit.class).block();
+        template.dropCollection(BatchJob.class).block();
+        template.dropCollection(PortfolioStats.class).block();
+        mongoClient.close();
+    }
+
+    @Test
+    void accrueWholePortfolioOncePerDay() {
+        LocalDate today = LocalDate.now();
+        BatchJob run = accrualService.accrue(today).block();
+
+        assertThat(run.getUpdated()).isEqualTo(CREDITS);
+        List<Credit> accrued = template.findAll(Credit.class).collectList().block();
+        assertThat(accrued).hasSize(CREDITS).allSatisfy(credit -> {
+            assertThat(credit.getLastAccrualDate()).isEqualTo(today);
+            assertThat(credit.getOutstandingAmount().getMinorUnits()).isGreaterThan(OUTSTANDING.getMinorUnits());
+        });
+
+        BatchJob rerun = accrualService.accrue(today).block();
+        assertThat(rerun.getUpdated()).isEqualTo(CREDITS);
+        Map<String, Money> outstanding = accrued.stream()
+                .collect(Collectors.toMap(Credit::getId, Credit::getOutstandingAmount));
+        assertThat(template.findAll(Credit.class).collectList().block())
+                .allSatisfy(credit -> assertThat(credit.getOutstandingAmount())
+                        .isEqualTo(outstanding.get(credit.getId())));
+    }
+
+    private Credit credit(int i) {
+        Credit credit = new Credit();
+        credit.setCustomerId("customer-" + (i % 1_000));
+        credit.setCreditType(i % 2 == 0 ? "personal" : "empresarial");
+        credit.setAmount(Money.of(10_000.0));
+        credit.setInterestRate(12.5);
+        credit.setCreditLimit(Money.of(10_000.0));
+        credit.setCurrentDebt(Money.of(5_000.0));
+        credit.setAvailableLimit(Money.of(5_000.0));
+        credit.setOutstandingAmount(OUTSTANDING);
+        credit.setDueDate(LocalDate.now().plusDays(30));
+        credit.setCreatedAt(LocalDateTime.now().minusDays(1));
+        credit.setLastAccrualDate(LocalDate.now().minusDays(1));
+        return credit;
+    }
+}
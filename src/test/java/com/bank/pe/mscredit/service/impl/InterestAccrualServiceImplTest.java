@@ -0,0 +1,174 @@
+package com.bank.pe.mscredit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.bank.pe.mscredit.accrual.InterestAccrual;
+import com.bank.pe.mscredit.cache.CreditCacheInvalidator;
+import com.bank.pe.mscredit.config.InterestAccrualProperties;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.service.PortfolioStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+class InterestAccrualServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T02:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    @Mock
+    private CreditRepository creditRepository;
+
+    @Mock
+    private BatchJobRepository jobRepository;
+
+    @Mock
+    private PortfolioStatsService portfolioStatsService;
+
+    @Mock
+    private CreditCacheInvalidator cacheInvalidator;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InterestAccrualProperties properties;
+    private List<InterestAccrual> applied;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new InterestAccrualProperties();
+        properties.setChunkSize(2);
+        applied = new ArrayList<>();
+        when(jobRepository.acquire(anyString(), anyString(), any(), any()))
+                .thenReturn(Mono.just(new BatchJob()));
+        when(jobRepository.start(anyString(), anyString(), any(), any(), any())).thenReturn(Mono.empty());
+        when(jobRepository.complete(anyString(), anyString(), any(), any(), anyLong())).thenReturn(Mono.empty());
+        when(jobRepository.recordProgress(anyString(), anyString(), any(), anyLong(), anyLong(), any()))
+                .thenReturn(Mono.just(true));
+        when(jobRepository.findById(InterestAccrualServiceImpl.JOB_ID)).thenReturn(Mono.just(new BatchJob()));
+        when(portfolioStatsService.recordChanges(anyCollection())).thenReturn(Mono.empty());
+        when(cacheInvalidator.invalidate(anyList(), any())).thenReturn(Mono.empty());
+        when(creditRepository.applyAccruals(anyList(), eq(TODAY))).thenAnswer(invocation -> {
+            List<InterestAccrual> accruals = invocation.getArgument(0);
+            applied.addAll(accruals);
+            return Mono.just((long) accruals.size());
+        });
+    }
+
+    private InterestAccrualServiceImpl service(Instant now) {
+        return new InterestAccrualServiceImpl(creditRepository, jobRepository, portfolioStatsService,
+                cacheInvalidator, properties, meterRegistry, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Credit credit(String id, double outstanding, double rate, LocalDate lastAccrualDate) {
+        Credit credit = new Credit();
+        credit.setId(id);
+        credit.setVersion(3L);
+        credit.setCreditType("personal");
+        credit.setOutstandingAmount(Money.of(outstanding));
+        credit.setInterestRate(rate);
+        credit.setLastAccrualDate(lastAccrualDate);
+        return credit;
+    }
+
+    @Test
+    void testAccrue_AddsInterestForElapsedDays() {
+        when(creditRepository.findAccrualCandidates(TODAY)).thenReturn(Flux.just(
+                credit("1", 1000.0, 5.5, TODAY.minusDays(1)),
+                credit("2", 1000.0, 5.5, TODAY.minusDays(3)),
+                credit("3", 36500.0, 10.0, TODAY.minusDays(1))));
+
+        StepVerifier.create(service(NOW).accrue(TODAY)).expectNextCount(1).verifyComplete();
+
+        assertThat(applied).extracting(InterestAccrual::getCreditId).containsExactlyInAnyOrder("1", "2", "3");
+        InterestAccrual threeDays = applied.stream().filter(a -> a.getCreditId().equals("2")).findFirst().get();
+        assertThat(threeDays.getInterest()).isEqualTo(Money.of(0.45));
+        assertThat(threeDays.getOutstandingAmount()).isEqualTo(Money.of(1000.45));
+        assertThat(threeDays.getVersion()).isEqualTo(3L);
+        InterestAccrual tenPercent = applied.stream().filter(a -> a.getCreditId().equals("3")).findFirst().get();
+        assertThat(tenPercent.getInterest()).isEqualTo(Money.of(10.0));
+        verify(jobRepository).complete(anyString(), anyString(), eq(TODAY), any(), anyLong());
+        verify(portfolioStatsService, times(2)).recordChanges(anyCollection());
+        verify(cacheInvalidator, times(2)).invalidate(anyList(), any());
+        assertThat(meterRegistry.get("credits.interest.accrual.credits").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void testAccrue_SkipsCreditsBelowOneCent() {
+        // 10.00 al 5.5 % rinde 0.0015 al día: se deja acumular hasta llegar a un céntimo
+        when(creditRepository.findAccrualCandidates(TODAY))
+                .thenReturn(Flux.just(credit("1", 10.0, 5.5, TODAY.minusDays(1))));
+
+        StepVerifier.create(service(NOW).accrue(TODAY)).expectNextCount(1).verifyComplete();
+
+        assertThat(applied).isEmpty();
+        verify(jobRepository).recordProgress(anyString(), anyString(), isNull(), eq(1L), eq(0L), any());
+    }
+
+    @Test
+    void testAccrue_DoesNotCompoundAccruedInterest() {
+        // 1000.00 de capital más 100.00 ya devengados: el interés sale solo del capital
+        Credit credit = credit("1", 1100.0, 5.5, TODAY.minusDays(3));
+        credit.setAccruedInterest(Money.of(100.0));
+        when(creditRepository.findAccrualCandidates(TODAY)).thenReturn(Flux.just(credit));
+
+        StepVerifier.create(service(NOW).accrue(TODAY)).expectNextCount(1).verifyComplete();
+
+        assertThat(applied).hasSize(1);
+        assertThat(applied.get(0).getInterest()).isEqualTo(Money.of(0.45));
+        assertThat(applied.get(0).getOutstandingAmount()).isEqualTo(Money.of(1100.45));
+    }
+
+    @Test
+    void testAccrue_LegacyCreditStartsAtTheFirstRun() {
+        // Sin lastAccrualDate no se cobra nada retroactivo: solo se fija la fecha desde la que se devenga
+        when(creditRepository.findAccrualCandidates(TODAY))
+                .thenReturn(Flux.just(credit("1", 1000.0, 5.5, null)));
+
+        StepVerifier.create(service(NOW).accrue(TODAY)).expectNextCount(1).verifyComplete();
+
+        assertThat(applied).hasSize(1);
+        assertThat(applied.get(0).getInterest()).isEqualTo(Money.ZERO);
+        assertThat(applied.get(0).getOutstandingAmount()).isEqualTo(Money.of(1000.0));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testAccrue_StaleWritesLeaveStatsToReconciliation() {
+        when(creditRepository.findAccrualCandidates(TODAY)).thenReturn(Flux.just(
+                credit("1", 1000.0, 5.5, TODAY.minusDays(1)), credit("2", 1000.0, 5.5, TODAY.minusDays(1))));
+        when(creditRepository.applyAccruals(anyList(), eq(TODAY))).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service(NOW).accrue(TODAY)).expectNextCount(1).verifyComplete();
+
+        verify(portfolioStatsService, never()).recordChanges(anyCollection());
+        ArgumentCaptor<Long> updated = ArgumentCaptor.forClass(Long.class);
+        verify(jobRepository).recordProgress(anyString(), anyString(), isNull(), eq(2L), updated.capture(), any());
+        assertThat(updated.getValue()).isEqualTo(1L);
+    }
+
+    @Test
+    void testAccrueIfDue_WaitsForRunAt() {
+        StepVerifier.create(service(Instant.parse("2025-01-15T00:30:00Z")).accrueIfDue()).verifyComplete();
+
+        verifyNoInteractions(jobRepository, creditRepository);
+    }
+}
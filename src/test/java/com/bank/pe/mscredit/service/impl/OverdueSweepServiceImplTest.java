@@ -0,0 +1,145 @@
+package com.bank.pe.mscredit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.bank.pe.mscredit.cache.CreditCacheInvalidator;
+import com.bank.pe.mscredit.config.OverdueSweepProperties;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+class OverdueSweepServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T01:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    @Mock
+    private CreditRepository creditRepository;
+
+    @Mock
+    private BatchJobRepository sweepRepository;
+
+    @Mock
+    private CreditCacheInvalidator cacheInvalidator;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OverdueSweepServiceImpl sweepService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        OverdueSweepProperties properties = new OverdueSweepProperties();
+        properties.setShards(2);
+        properties.setBatchSize(2);
+        sweepService = new OverdueSweepServiceImpl(creditRepository, sweepRepository, cacheInvalidator, properties,
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(cacheInvalidator.invalidate(anyList(), any())).thenReturn(Mono.empty());
+        when(sweepRepository.start(anyString(), anyString(), any(), any(), any())).thenReturn(Mono.empty());
+        when(sweepRepository.complete(anyString(), anyString(), any(), any(), anyLong())).thenReturn(Mono.empty());
+        when(sweepRepository.release(anyString(), anyString())).thenReturn(Mono.empty());
+        when(sweepRepository.recordProgress(anyString(), anyString(), anyString(), anyLong(), anyLong(), any()))
+                .thenReturn(Mono.just(true));
+        when(creditRepository.markOverdue(anyList(), eq(TODAY)))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+    }
+
+    private static BatchJob state(LocalDate lastCompleted, LocalDate runDate, String status) {
+        BatchJob sweep = new BatchJob();
+        sweep.setId(OverdueSweepServiceImpl.SWEEP_ID);
+        sweep.setLastCompletedDate(lastCompleted);
+        sweep.setRunDate(runDate);
+        sweep.setFromDate(runDate == null ? null : lastCompleted);
+        sweep.setStatus(status);
+        sweep.setStartedAt(NOW.minusSeconds(60));
+        return sweep;
+    }
+
+    private static Credit candidate(String id, String customerId) {
+        Credit credit = new Credit();
+        credit.setId(id);
+        credit.setCustomerId(customerId);
+        credit.setDueDate(TODAY.minusDays(1));
+        return credit;
+    }
+
+    @Test
+    void testSweep_MarksCandidatesSinceLastCompletedDay() {
+        LocalDate yesterday = TODAY.minusDays(1);
+        when(sweepRepository.acquire(anyString(), anyString(), any(), any()))
+                .thenReturn(Mono.just(state(yesterday, yesterday, BatchJob.COMPLETED)));
+        when(sweepRepository.findById(OverdueSweepServiceImpl.SWEEP_ID))
+                .thenReturn(Mono.just(state(TODAY, TODAY, BatchJob.COMPLETED)));
+        when(creditRepository.findOverdueCandidates(yesterday, TODAY)).thenReturn(Flux.just(
+                candidate("1", "a"), candidate("2", "b"), candidate("3", "a"), candidate("4", "c"), candidate("5", "d")));
+
+        assertThat(sweepService.isCurrent(TODAY)).isFalse();
+        StepVerifier.create(sweepService.sweep()).expectNextCount(1).verifyComplete();
+
+        verify(sweepRepository).start(anyString(), anyString(), eq(TODAY), eq(yesterday), eq(NOW));
+        verify(sweepRepository).complete(anyString(), anyString(), eq(TODAY), eq(NOW), eq(0L));
+        assertThat(sweepService.isCurrent(TODAY)).isTrue();
+        assertThat(meterRegistry.get("credits.overdue.sweep.marked").counter().count()).isEqualTo(5.0);
+        // Un lote de batchSize 2 por vez, cada uno invalida sus créditos
+        verify(cacheInvalidator, times(3)).invalidate(anyList(), any());
+        assertThat(meterRegistry.get("credits.overdue.sweep").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testSweep_ResumesInterruptedRunWithoutRestarting() {
+        LocalDate lastWeek = TODAY.minusDays(7);
+        when(sweepRepository.acquire(anyString(), anyString(), any(), any()))
+                .thenReturn(Mono.just(state(lastWeek, TODAY, BatchJob.RUNNING)));
+        when(sweepRepository.findById(OverdueSweepServiceImpl.SWEEP_ID)).thenReturn(Mono.empty());
+        when(creditRepository.findOverdueCandidates(lastWeek, TODAY)).thenReturn(Flux.just(candidate("1", "a")));
+
+        StepVerifier.create(sweepService.sweep()).verifyComplete();
+
+        verify(sweepRepository, never()).start(anyString(), anyString(), any(), any(), any());
+        verify(creditRepository).findOverdueCandidates(lastWeek, TODAY);
+        // La duración se cuenta desde el inicio de la corrida, no desde la reanudación
+        verify(sweepRepository).complete(anyString(), anyString(), eq(TODAY), eq(NOW), eq(60_000L));
+    }
+
+    @Test
+    void testSweep_LeaseHeldElsewhereOnlyRefreshesState() {
+        when(sweepRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(Mono.empty());
+        when(sweepRepository.findById(OverdueSweepServiceImpl.SWEEP_ID))
+                .thenReturn(Mono.just(state(TODAY, TODAY, BatchJob.COMPLETED)));
+
+        StepVerifier.create(sweepService.sweep()).expectNextCount(1).verifyComplete();
+
+        verifyNoInteractions(creditRepository);
+        assertThat(sweepService.isCurrent(TODAY)).isTrue();
+    }
+
+    @Test
+    void testSweep_StopsWhenLeaseIsLost() {
+        when(sweepRepository.acquire(anyString(), anyString(), any(), any()))
+                .thenReturn(Mono.just(state(null, null, null)));
+        when(sweepRepository.recordProgress(anyString(), anyString(), anyString(), anyLong(), anyLong(), any()))
+                .thenReturn(Mono.just(false));
+        when(creditRepository.findOverdueCandidates(null, TODAY)).thenReturn(Flux.just(candidate("1", "a")));
+
+        StepVerifier.create(sweepService.sweep()).expectError(IllegalStateException.class).verify();
+
+        verify(sweepRepository, never()).complete(anyString(), anyString(), any(), any(), anyLong());
+        assertThat(sweepService.isCurrent(TODAY)).isFalse();
+    }
+}
@@ -0,0 +1,191 @@
+package com.bank.pe.mscredit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.bank.pe.mscredit.config.PortfolioStatsProperties;
+import com.bank.pe.mscredit.entity.BatchJob;
+import com.bank.pe.mscredit.entity.Credit;
+import com.bank.pe.mscredit.entity.PortfolioStats;
+import com.bank.pe.mscredit.money.Money;
+import com.bank.pe.mscredit.repository.BatchJobRepository;
+import com.bank.pe.mscredit.repository.CreditRepository;
+import com.bank.pe.mscredit.repository.PortfolioStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class PortfolioStatsServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T12:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    @Mock
+    private PortfolioStatsRepository statsRepository;
+
+    @Mock
+    private CreditRepository creditRepository;
+
+    @Mock
+    private BatchJobRepository jobRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PortfolioStatsServiceImpl statsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        statsService = new PortfolioStatsServiceImpl(statsRepository, creditRepository, jobRepository,
+                new PortfolioStatsProperties(), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(statsRepository.increment(anyCollection())).thenReturn(Mono.empty());
+        when(statsRepository.replaceAll(anyCollection())).thenReturn(Mono.empty());
+    }
+
+    private static Credit credit(String creditType, double currentDebt, LocalDate dueDate, double outstanding) {
+        Credit credit = new Credit();
+        credit.setCreditType(creditType);
+        credit.setAmount(Money.of(1000.0));
+        credit.setCreditLimit(Money.of(2000.0));
+        credit.setCurrentDebt(Money.of(currentDebt));
+        credit.setDueDate(dueDate);
+        credit.setOutstandingAmount(Money.of(outstanding));
+        return credit;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, PortfolioStats> capturedIncrement() {
+        ArgumentCaptor<Collection<PortfolioStats>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(statsRepository).increment(captor.capture());
+        return captor.getValue().stream().collect(Collectors.toMap(PortfolioStats::getId, Function.identity()));
+    }
+
+    @Test
+    void testRecord_CreateAddsCreditToItsType() {
+        StepVerifier.create(statsService.record(null, credit("personal", 300.0, TODAY.minusDays(1), 300.0)))
+                .verifyComplete();
+
+        PortfolioStats delta = capturedIncrement().get("personal");
+        assertThat(delta.getCreditCount()).isEqualTo(1);
+        assertThat(delta.getTotalCreditLimit()).isEqualTo(200_000L);
+        assertThat(delta.getTotalCurrentDebt()).isEqualTo(30_000L);
+        assertThat(delta.getOverdueCount()).isEqualTo(1);
+        assertThat(delta.getOverdueAmount()).isEqualTo(30_000L);
+    }
+
+    @Test
+    void testRecord_UpdateMovesDifferenceBetweenTypes() {
+        Credit before = credit("personal", 300.0, TODAY.minusDays(1), 300.0);
+        Credit after = credit("empresarial", 100.0, TODAY.plusDays(30), 100.0);
+
+        StepVerifier.create(statsService.record(before, after)).verifyComplete();
+
+        Map<String, PortfolioStats> deltas = capturedIncrement();
+        assertThat(deltas.get("personal").getCreditCount()).isEqualTo(-1);
+        assertThat(deltas.get("personal").getTotalCurrentDebt()).isEqualTo(-30_000L);
+        assertThat(deltas.get("personal").getOverdueCount()).isEqualTo(-1);
+        assertThat(deltas.get("empresarial").getCreditCount()).isEqualTo(1);
+        assertThat(deltas.get("empresarial").getTotalCurrentDebt()).isEqualTo(10_000L);
+        assertThat(deltas.get("empresarial").getOverdueCount()).isZero();
+    }
+
+    @Test
+    void testRecordChanges_SumsBatchInOneIncrement() {
+        Credit before = credit("personal", 300.0, TODAY.plusDays(30), 300.0);
+        Credit after = credit("personal", 300.0, TODAY.plusDays(30), 301.5);
+
+        StepVerifier.create(statsService.recordChanges(List.of(Tuples.of(before, after), Tuples.of(before, after))))
+                .verifyComplete();
+
+        PortfolioStats delta = capturedIncrement().get("personal");
+        assertThat(delta.getCreditCount()).isZero();
+        assertThat(delta.getTotalCurrentDebt()).isZero();
+        assertThat(delta.getTotalOutstandingAmount()).isEqualTo(300L);
+    }
+
+    @Test
+    void testRecord_FailureDoesNotPropagate() {
+        when(statsRepository.increment(anyCollection())).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(statsService.record(credit("personal", 1.0, null, 1.0), null)).verifyComplete();
+
+        assertThat(meterRegistry.get("portfolio.stats.updates").tag("outcome", "error").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testGetStats_SumsTypes() {
+        when(statsRepository.findAll()).thenReturn(Flux.just(
+                new PortfolioStats("personal", 2, 200_000, 400_000, 60_000, 60_000, 1, 30_000, NOW),
+                new PortfolioStats("empresarial", 1, 100_000, 200_000, 10_001, 10_001, 0, 0, null)));
+
+        StepVerifier.create(statsService.getStats())
+                .assertNext(stats -> {
+                    assertThat(stats.getCreditCount()).isEqualTo(3);
+                    assertThat(stats.getTotalCreditLimit()).isEqualTo(6000.0);
+                    assertThat(stats.getOverdueAmount()).isEqualTo(300.0);
+                    assertThat(stats.getTotalCurrentDebt()).isEqualTo(700.01);
+                    assertThat(stats.getDebtByType()).containsEntry("personal", 600.0)
+                            .containsEntry("empresarial", 100.01);
+                    assertThat(stats.getReconciledAt()).isEqualTo(NOW);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testReconcile_ReplacesDriftedStats() {
+        PortfolioStats recomputed = new PortfolioStats("personal", 2, 200_000, 400_000, 60_000, 60_000, 1, 30_000, NOW);
+        when(statsRepository.findAll()).thenReturn(Flux.just(
+                // Un céntimo de diferencia ya es desfase
+                new PortfolioStats("personal", 2, 200_000, 400_000, 60_001, 60_000, 1, 30_000, null),
+                new PortfolioStats("hipotecario", 0, 0, 0, 0, 0, 0, 0, null)));
+        when(creditRepository.aggregatePortfolio(TODAY, PortfolioStatsServiceImpl.UNKNOWN_TYPE))
+                .thenReturn(Flux.just(recomputed));
+
+        StepVerifier.create(statsService.reconcile()).verifyComplete();
+
+        verify(statsRepository).replaceAll(List.of(recomputed));
+        assertThat(meterRegistry.get("portfolio.stats.reconciliations").tag("result", "repaired").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testReconcileIfLeader_SkipsWhileAnotherInstanceHoldsTheLease() {
+        when(jobRepository.acquire(eq(PortfolioStatsServiceImpl.RECONCILE_JOB_ID), anyString(), eq(NOW),
+                eq(NOW.plus(new PortfolioStatsProperties().getReconcileInterval())))).thenReturn(Mono.empty());
+
+        StepVerifier.create(statsService.reconcileIfLeader()).verifyComplete();
+
+        verifyNoInteractions(creditRepository);
+        verify(statsRepository, never()).replaceAll(anyCollection());
+    }
+
+    @Test
+    void testReconcileIfLeader_ReconcilesWithTheLease() {
+        when(jobRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(Mono.just(new BatchJob()));
+        when(statsRepository.findAll()).thenReturn(Flux.empty());
+        when(creditRepository.aggregatePortfolio(TODAY, PortfolioStatsServiceImpl.UNKNOWN_TYPE))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(statsService.reconcileIfLeader()).verifyComplete();
+
+        verify(statsRepository).replaceAll(List.of());
+    }
+}